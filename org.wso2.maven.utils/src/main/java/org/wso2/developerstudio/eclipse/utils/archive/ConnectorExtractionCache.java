@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.utils.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.wso2.developerstudio.eclipse.utils.file.FileUtils;
+
+/**
+ * Machine-wide cache of extracted connector zips, shared by every build and plugin of the user. A zip is extracted
+ * once into a folder named after the SHA-256 hash of its content, so the same connector used by several projects,
+ * or extracted again after {@code mvn clean}, is copied from the cache instead of being unzipped.
+ * <p>
+ * An entry is extracted into a temporary folder and published with an atomic rename, so a partly extracted
+ * connector is never visible. Every entry is guarded by a lock file, which serialises the builds and threads
+ * extracting or copying it, and the least recently used entries are evicted once the cache grows beyond its size
+ * limit. Temporary folders left behind by a build which was killed while extracting are removed once they are
+ * older than {@link #STALE_TEMP_AGE}.
+ * <p>
+ * Entries are copied into the build byte by byte rather than hard linked, so a tool writing to the copied files
+ * in place cannot change the cache shared by every project of the user.
+ */
+public class ConnectorExtractionCache {
+
+    public static final long DEFAULT_MAX_SIZE = 2L * 1024 * 1024 * 1024;
+
+    /**
+     * Age in milliseconds after which a temporary folder in the cache is considered abandoned.
+     */
+    public static final long STALE_TEMP_AGE = 60L * 60 * 1000;
+
+    private static final String CACHE_FOLDER = ".wso2-mi" + File.separator + "connector-extraction-cache";
+    private static final String LOCKS_FOLDER = "locks";
+    private static final String EVICTION_LOCK = "eviction";
+    private static final String TEMP_PREFIX = ".tmp-";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // File locks are held per JVM, so threads of the same build are serialised with these first.
+    private static final Map<String, ReentrantLock> JVM_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path root;
+    private final long maxSize;
+
+    /**
+     * @param root    folder of the cache
+     * @param maxSize size in bytes above which the least recently used entries are evicted
+     */
+    public ConnectorExtractionCache(File root, long maxSize) {
+
+        this.root = root.toPath().toAbsolutePath();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the cache in the .wso2-mi folder of the user, limited to {@link #DEFAULT_MAX_SIZE}
+     */
+    public static ConnectorExtractionCache getDefault() {
+
+        return new ConnectorExtractionCache(new File(System.getProperty("user.home"), CACHE_FOLDER),
+                DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Makes the given folder hold the extracted content of a connector zip, unless the hash file shows it already
+     * holds the content of the same zip. The previous content of the folder is replaced.
+     *
+     * @param zipFile   connector zip
+     * @param targetDir folder the connector is extracted into
+     * @param hashFile  file recording the hash of the zip the folder was extracted from, outside the folder
+     * @return true if the folder was extracted, false if it was up to date
+     * @throws IOException if the connector cannot be extracted
+     */
+    public boolean extractTo(File zipFile, File targetDir, File hashFile) throws IOException {
+
+        String hash = FileUtils.sha256(zipFile);
+        if (targetDir.isDirectory() && hashFile.isFile() &&
+                hash.equals(new String(Files.readAllBytes(hashFile.toPath()), StandardCharsets.UTF_8).trim())) {
+            return false;
+        }
+        Files.deleteIfExists(hashFile.toPath());
+        deleteTree(targetDir.toPath());
+        copyEntry(zipFile, hash, targetDir.toPath());
+        Files.createDirectories(hashFile.getAbsoluteFile().getParentFile().toPath());
+        Files.write(hashFile.toPath(), hash.getBytes(StandardCharsets.UTF_8));
+        return true;
+    }
+
+    /**
+     * Copies the cached content of a connector zip into a folder, extracting the zip into the cache first if
+     * needed.
+     *
+     * @param zipFile   connector zip
+     * @param targetDir folder the connector is copied into, which must not exist
+     * @throws IOException if the connector cannot be extracted or copied
+     */
+    public void copyTo(File zipFile, File targetDir) throws IOException {
+
+        copyEntry(zipFile, FileUtils.sha256(zipFile), targetDir.toPath());
+    }
+
+    private void copyEntry(File zipFile, String hash, Path targetDir) throws IOException {
+
+        Path entry = root.resolve(hash);
+        boolean published = withLock(hash, false, () -> {
+            boolean extracted = false;
+            if (!Files.isDirectory(entry)) {
+                publish(zipFile, entry);
+                extracted = true;
+            }
+            // The modification time of an entry is the time it was last used.
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            copyTree(entry, targetDir);
+            return extracted;
+        });
+        if (published) {
+            evict(hash);
+        }
+    }
+
+    private void publish(File zipFile, Path entry) throws IOException {
+
+        Files.createDirectories(root);
+        Path tempDir = Files.createTempDirectory(root, TEMP_PREFIX);
+        try {
+            extract(zipFile, tempDir);
+            try {
+                Files.move(tempDir, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempDir, entry);
+            }
+        } finally {
+            deleteTree(tempDir);
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache fits its size limit. Entries in use by other builds
+     * are skipped, as is the given entry.
+     */
+    private void evict(String keep) throws IOException {
+
+        withLock(EVICTION_LOCK, true, () -> {
+            List<Path> entries = new ArrayList<>();
+            List<Path> staleTempDirs = new ArrayList<>();
+            long staleBefore = System.currentTimeMillis() - STALE_TEMP_AGE;
+            try (Stream<Path> children = Files.list(root)) {
+                children.filter(Files::isDirectory).forEach(path -> {
+                    String name = path.getFileName().toString();
+                    if (name.length() == 64) {
+                        entries.add(path);
+                    } else if (name.startsWith(TEMP_PREFIX) && lastModified(path) < staleBefore) {
+                        staleTempDirs.add(path);
+                    }
+                });
+            }
+            for (Path staleTempDir : staleTempDirs) {
+                deleteTree(staleTempDir);
+            }
+            long size = 0;
+            List<Long> sizes = new ArrayList<>();
+            entries.sort(Comparator.comparing(ConnectorExtractionCache::lastModified));
+            for (Path entry : entries) {
+                long entrySize = size(entry);
+                sizes.add(entrySize);
+                size += entrySize;
+            }
+            for (int i = 0; i < entries.size() && size > maxSize; i++) {
+                Path entry = entries.get(i);
+                String hash = entry.getFileName().toString();
+                if (hash.equals(keep)) {
+                    continue;
+                }
+                Boolean evicted = withLock(hash, true, () -> {
+                    if (!Files.isDirectory(entry)) {
+                        return false;
+                    }
+                    Path evictedDir = root.resolve(TEMP_PREFIX + hash);
+                    deleteTree(evictedDir);
+                    Files.move(entry, evictedDir);
+                    deleteTree(evictedDir);
+                    return true;
+                });
+                if (Boolean.TRUE.equals(evicted)) {
+                    size -= sizes.get(i);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Runs an action holding the lock of the given name, both within this JVM and across processes.
+     *
+     * @param tryOnly whether to skip the action if another thread or process holds the lock
+     * @return the result of the action, or null if it was skipped
+     */
+    private <T> T withLock(String name, boolean tryOnly, LockedAction<T> action) throws IOException {
+
+        Path lockFile = root.resolve(LOCKS_FOLDER).resolve(name + ".lock");
+        ReentrantLock jvmLock = JVM_LOCKS.computeIfAbsent(lockFile.toString(), key -> new ReentrantLock());
+        if (tryOnly) {
+            if (!jvmLock.tryLock()) {
+                return null;
+            }
+        } else {
+            jvmLock.lock();
+        }
+        try {
+            Files.createDirectories(lockFile.getParent());
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                FileLock fileLock = tryOnly ? channel.tryLock() : channel.lock();
+                if (fileLock == null) {
+                    return null;
+                }
+                try {
+                    return action.run();
+                } finally {
+                    fileLock.release();
+                }
+            }
+        } finally {
+            jvmLock.unlock();
+        }
+    }
+
+    private static void extract(File zipFile, Path targetDir) throws IOException {
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(zipFile.toPath()))) {
+            ZipEntry zipEntry;
+            while ((zipEntry = zis.getNextEntry()) != null) {
+                Path path = targetDir.resolve(zipEntry.getName()).normalize();
+                if (!path.startsWith(targetDir)) {
+                    throw new IOException("Entry " + zipEntry.getName() + " of " + zipFile + " is outside of the " +
+                            "extraction folder");
+                }
+                if (zipEntry.isDirectory()) {
+                    Files.createDirectories(path);
+                    continue;
+                }
+                Files.createDirectories(path.getParent());
+                try (OutputStream out = Files.newOutputStream(path)) {
+                    int len;
+                    while ((len = zis.read(buffer)) > 0) {
+                        out.write(buffer, 0, len);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a cached entry, keeping the modification times of the cached files.
+     */
+    private static void copyTree(final Path source, final Path target) throws IOException {
+
+        Files.createDirectories(target);
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+
+                Files.copy(file, target.resolve(source.relativize(file).toString()),
+                        StandardCopyOption.COPY_ATTRIBUTES);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            List<Path> files = new ArrayList<>();
+            paths.forEach(files::add);
+            files.sort(Comparator.reverseOrder());
+            for (Path path : files) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static long size(Path entry) throws IOException {
+
+        try (Stream<Path> paths = Files.walk(entry)) {
+            return paths.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+
+    private static long lastModified(Path path) {
+
+        return path.toFile().lastModified();
+    }
+
+    private interface LockedAction<T> {
+
+        T run() throws IOException;
+    }
+}
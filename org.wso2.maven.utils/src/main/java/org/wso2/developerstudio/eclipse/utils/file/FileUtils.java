@@ -43,6 +43,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -57,6 +60,8 @@ import org.wso2.developerstudio.eclipse.utils.internal.model.TempFileTag;
 
 public class FileUtils{
 
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
 	private static Map<String,ITemporaryFileTag> temporaryTags;
 	
 	
@@ -709,4 +714,42 @@ public class FileUtils{
             }
         }
     }
+
+    /**
+     * Computes the SHA-256 hash of a file.
+     *
+     * @param file file to be hashed
+     * @return hex encoded hash
+     * @throws IOException if the file cannot be read
+     */
+    public static String sha256(File file) throws IOException {
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM", e);
+        }
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[64 * 1024];
+            int len;
+            while ((len = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, len);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @return the given bytes as a lower case hex string
+     */
+    public static String toHex(byte[] bytes) {
+
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
 }
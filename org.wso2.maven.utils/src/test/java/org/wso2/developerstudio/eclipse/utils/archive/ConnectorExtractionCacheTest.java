@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.utils.archive;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.developerstudio.eclipse.utils.file.FileUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConnectorExtractionCacheTest {
+
+    private static final int ENTRY_SIZE = 1000;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testCopyTo_CopiesBytesSoTargetWritesDoNotChangeTheCache() throws Exception {
+
+        File cacheRoot = new File(tempFolder.getRoot(), "cache");
+        ConnectorExtractionCache cache = new ConnectorExtractionCache(cacheRoot, Long.MAX_VALUE);
+        File zip = createConnectorZip("http");
+        File first = new File(tempFolder.getRoot(), "first");
+        File second = new File(tempFolder.getRoot(), "second");
+
+        cache.copyTo(zip, first);
+        Files.write(new File(first, "connector.xml").toPath(), "changed".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.TRUNCATE_EXISTING);
+        cache.copyTo(zip, second);
+
+        assertEquals(Arrays.asList(FileUtils.sha256(zip)), listEntries(cacheRoot));
+        assertArrayEquals(connectorXml("http"), Files.readAllBytes(new File(second, "connector.xml").toPath()));
+        assertFalse(Files.isSameFile(new File(first, "lib/data.bin").toPath(),
+                new File(second, "lib/data.bin").toPath()));
+    }
+
+    @Test
+    public void testExtractTo_ExtractsAgainOnlyWhenTheZipChanges() throws Exception {
+
+        ConnectorExtractionCache cache = new ConnectorExtractionCache(new File(tempFolder.getRoot(), "cache"),
+                Long.MAX_VALUE);
+        File zip = createConnectorZip("http");
+        File target = new File(tempFolder.getRoot(), "extracted/http");
+        File hashFile = new File(tempFolder.getRoot(), "hashes/http.sha256");
+
+        assertTrue(cache.extractTo(zip, target, hashFile));
+        assertFalse(cache.extractTo(zip, target, hashFile));
+        writeConnectorZip(zip, "http-2");
+
+        assertTrue(cache.extractTo(zip, target, hashFile));
+        assertArrayEquals(connectorXml("http-2"), Files.readAllBytes(new File(target, "connector.xml").toPath()));
+    }
+
+    @Test
+    public void testCopyTo_ConcurrentCopiesExtractOnce() throws Exception {
+
+        File cacheRoot = new File(tempFolder.getRoot(), "cache");
+        ConnectorExtractionCache cache = new ConnectorExtractionCache(cacheRoot, Long.MAX_VALUE);
+        File zip = createConnectorZip("http");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> copies = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                File target = new File(tempFolder.getRoot(), "target" + i);
+                copies.add(executor.submit(() -> {
+                    cache.copyTo(zip, target);
+                    return null;
+                }));
+            }
+            for (Future<?> copy : copies) {
+                copy.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(Arrays.asList(FileUtils.sha256(zip)), listEntries(cacheRoot));
+        for (int i = 0; i < 16; i++) {
+            assertArrayEquals(connectorXml("http"),
+                    Files.readAllBytes(new File(tempFolder.getRoot(), "target" + i + "/connector.xml").toPath()));
+        }
+    }
+
+    @Test
+    public void testCopyTo_EvictsLeastRecentlyUsedEntries() throws Exception {
+
+        File cacheRoot = new File(tempFolder.getRoot(), "cache");
+        // Room for two entries.
+        ConnectorExtractionCache cache = new ConnectorExtractionCache(cacheRoot, 2 * ENTRY_SIZE + 500);
+        File first = createConnectorZip("first");
+        File second = createConnectorZip("second");
+        cache.copyTo(first, new File(tempFolder.getRoot(), "first"));
+        cache.copyTo(second, new File(tempFolder.getRoot(), "second"));
+        setLastUsed(cacheRoot, second, 1000);
+        setLastUsed(cacheRoot, first, 2000);
+
+        File third = createConnectorZip("third");
+        cache.copyTo(third, new File(tempFolder.getRoot(), "third"));
+
+        List<String> entries = listEntries(cacheRoot);
+        assertEquals(2, entries.size());
+        assertTrue(entries.contains(FileUtils.sha256(first)));
+        assertTrue(entries.contains(FileUtils.sha256(third)));
+    }
+
+    @Test
+    public void testCopyTo_DoesNotEvictEntriesLockedByAnotherProcess() throws Exception {
+
+        File cacheRoot = new File(tempFolder.getRoot(), "cache");
+        ConnectorExtractionCache cache = new ConnectorExtractionCache(cacheRoot, 2 * ENTRY_SIZE + 500);
+        File first = createConnectorZip("first");
+        File second = createConnectorZip("second");
+        cache.copyTo(first, new File(tempFolder.getRoot(), "first"));
+        cache.copyTo(second, new File(tempFolder.getRoot(), "second"));
+        setLastUsed(cacheRoot, first, 1000);
+        setLastUsed(cacheRoot, second, 2000);
+
+        Path lockFile = cacheRoot.toPath().resolve("locks").resolve(FileUtils.sha256(first) + ".lock");
+        Process process = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), ConnectorExtractionCacheTest.class.getName(),
+                lockFile.toString()).redirectErrorStream(true).start();
+        try {
+            BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                    StandardCharsets.UTF_8));
+            assertEquals("locked", output.readLine());
+
+            File third = createConnectorZip("third");
+            cache.copyTo(third, new File(tempFolder.getRoot(), "third"));
+        } finally {
+            process.getOutputStream().close();
+            process.waitFor();
+        }
+
+        // The least recently used entry is in use, so the next one is evicted instead.
+        List<String> entries = listEntries(cacheRoot);
+        assertEquals(2, entries.size());
+        assertTrue(entries.contains(FileUtils.sha256(first)));
+    }
+
+    @Test
+    public void testCopyTo_RemovesStaleTemporaryFolders() throws Exception {
+
+        File cacheRoot = new File(tempFolder.getRoot(), "cache");
+        ConnectorExtractionCache cache = new ConnectorExtractionCache(cacheRoot, Long.MAX_VALUE);
+        File staleTempDir = new File(cacheRoot, ".tmp-12345");
+        File freshTempDir = new File(cacheRoot, ".tmp-67890");
+        assertTrue(new File(staleTempDir, "lib").mkdirs());
+        assertTrue(freshTempDir.mkdirs());
+        Files.write(new File(staleTempDir, "lib/partial.bin").toPath(), new byte[10]);
+        Files.setLastModifiedTime(staleTempDir.toPath(), FileTime.fromMillis(System.currentTimeMillis() -
+                ConnectorExtractionCache.STALE_TEMP_AGE - 60_000));
+
+        cache.copyTo(createConnectorZip("http"), new File(tempFolder.getRoot(), "http"));
+
+        assertFalse(staleTempDir.exists());
+        // A temporary folder which may still be extracted into by another build is kept.
+        assertTrue(freshTempDir.exists());
+    }
+
+    /**
+     * Holds the lock file given as the argument until the standard input is closed, as another build would.
+     */
+    public static void main(String[] args) throws IOException {
+
+        Path lockFile = Paths.get(args[0]);
+        Files.createDirectories(lockFile.getParent());
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            System.out.println("locked");
+            System.out.flush();
+            while (System.in.read() != -1) {
+                // Wait for the test to finish.
+            }
+        }
+    }
+
+    private File createConnectorZip(String name) throws IOException {
+
+        File zip = new File(tempFolder.getRoot(), name + ".zip");
+        writeConnectorZip(zip, name);
+        return zip;
+    }
+
+    private static void writeConnectorZip(File zip, String name) throws IOException {
+
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip.toPath()))) {
+            out.putNextEntry(new ZipEntry("connector.xml"));
+            out.write(connectorXml(name));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("lib/"));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("lib/data.bin"));
+            byte[] data = new byte[ENTRY_SIZE - connectorXml(name).length];
+            Arrays.fill(data, (byte) name.hashCode());
+            out.write(data);
+            out.closeEntry();
+        }
+    }
+
+    private static byte[] connectorXml(String name) {
+
+        return ("<connector name=\"" + name + "\"/>").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void setLastUsed(File cacheRoot, File zip, long time) throws IOException {
+
+        Files.setLastModifiedTime(new File(cacheRoot, FileUtils.sha256(zip)).toPath(), FileTime.fromMillis(time));
+    }
+
+    private static List<String> listEntries(File cacheRoot) throws IOException {
+
+        try (Stream<Path> children = Files.list(cacheRoot.toPath())) {
+            return children.map(path -> path.getFileName().toString()).filter(name -> name.length() == 64)
+                    .sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -23,8 +23,10 @@ import org.eclipse.lemminx.customservice.synapse.connectors.ConnectorHolder;
 import org.eclipse.lemminx.customservice.synapse.inbound.conector.InboundConnectorHolder;
 import org.eclipse.lemminx.customservice.synapse.utils.Constant;
 import org.eclipse.lemminx.customservice.synapse.utils.Utils;
+import org.wso2.developerstudio.eclipse.utils.archive.ConnectorExtractionCache;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.logging.Level;
@@ -33,6 +35,7 @@ import java.util.logging.Logger;
 public class ConnectorLoader extends AbstractConnectorLoader {
 
     private static final String CONNECTOR_EXTRACT_FOLDER = "extracted-resources";
+    private static final String CONNECTOR_HASH_FOLDER = "connector-hashes";
     private static final Logger log = Logger.getLogger(ConnectorLoader.class.getName());
 
     private static class MockInboundConnectorHolder extends InboundConnectorHolder {
@@ -44,6 +47,8 @@ public class ConnectorLoader extends AbstractConnectorLoader {
         }
     }
 
+    private final ConnectorExtractionCache extractionCache = ConnectorExtractionCache.getDefault();
+
     public ConnectorLoader(SynapseLanguageClientAPI languageClient, ConnectorHolder connectorHolder) {
 
         super(languageClient, connectorHolder, new MockInboundConnectorHolder());
@@ -78,7 +83,19 @@ public class ConnectorLoader extends AbstractConnectorLoader {
     @Override
     protected void cleanOldConnectors(File connectorExtractFolder, List<File> connectorZips) {
 
-        // No need to clean old connectors as this is for the syntax validation purpose only.
+        // No need to clean old connectors as this is for the syntax validation purpose only. The connectors are
+        // copied from the extraction cache shared with the CAR plugin instead, so they are not unzipped again.
+        File hashFolder = new File(connectorExtractFolder.getParentFile(), CONNECTOR_HASH_FOLDER);
+        for (File connectorZip : connectorZips) {
+            String zipName = connectorZip.getName();
+            String connectorName = zipName.contains(".") ? zipName.substring(0, zipName.lastIndexOf('.')) : zipName;
+            try {
+                extractionCache.extractTo(connectorZip, new File(connectorExtractFolder, connectorName),
+                        new File(hashFolder, connectorName + ".sha256"));
+            } catch (IOException e) {
+                log.log(Level.WARNING, "Failed to extract " + zipName + " through the connector extraction cache", e);
+            }
+        }
     }
 
     private Path getConnectorDownloadPath() {
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Root element of an artifact configuration. The configuration is read with a streaming parser which stops right
+ * after the start tag of the root element, so neither the content of the artifact nor an object tree of it is ever
+ * held in memory. The name, key and version of an artifact, and every attribute used to generate its metadata,
+ * are attributes of the root element.
+ */
+public final class ArtifactHeader {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final String localName;
+    private final Map<String, String> attributes;
+
+    private ArtifactHeader(String localName, Map<String, String> attributes) {
+
+        this.localName = localName;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Reads the root element of the given XML file.
+     *
+     * @param file artifact configuration file
+     * @return the root element
+     * @throws IOException        if the file cannot be read
+     * @throws XMLStreamException if the file does not start with a well-formed root element
+     */
+    public static ArtifactHeader read(File file) throws IOException, XMLStreamException {
+
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return read(in, file.getName());
+        }
+    }
+
+    /**
+     * Reads the root element of an XML document. The stream is not closed.
+     *
+     * @param in         XML document
+     * @param sourceName name of the document, used in error messages
+     * @return the root element
+     * @throws XMLStreamException if the document does not start with a well-formed root element
+     */
+    public static ArtifactHeader read(InputStream in, String sourceName) throws XMLStreamException {
+
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    Map<String, String> attributes = new HashMap<>();
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        String namespace = reader.getAttributeNamespace(i);
+                        // Only unqualified attributes, as with a lookup by an unqualified QName.
+                        if (namespace == null || namespace.isEmpty()) {
+                            attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+                        }
+                    }
+                    return new ArtifactHeader(reader.getLocalName(), attributes);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        throw new XMLStreamException("No root element found in " + sourceName);
+    }
+
+    /**
+     * @return local name of the root element
+     */
+    public String getLocalName() {
+
+        return localName;
+    }
+
+    /**
+     * Returns the value of an unqualified attribute of the root element.
+     *
+     * @param name name of the attribute
+     * @return the attribute value, or null if the root element does not have the attribute
+     */
+    public String getAttributeValue(String name) {
+
+        return attributes.get(name);
+    }
+
+    private static XMLInputFactory createInputFactory() {
+
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.wso2.maven.model.ArtifactDetails;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Finds the sequences, endpoints, templates and local entries of a project which cannot be reached from any of its
+ * entry points. Every other artifact, such as an API, proxy service, inbound endpoint, task, message processor or
+ * data service, is an entry point, as are the main sequence of the project and the main and fault sequences.
+ * <p>
+ * References are found by reading every attribute value and text node of a reachable artifact, both as a whole and
+ * split into names, so keys used in mediators, endpoint templates and expressions such as {@code get-property('x')}
+ * all count as references. This over-approximates the reference graph: an artifact which is mentioned anywhere in a
+ * reachable artifact is kept, and only artifacts which are never mentioned are reported. Keys computed at runtime
+ * cannot be followed, which is why excluding unreachable artifacts is opt-in.
+ * <p>
+ * Only the artifacts folder is read. References from registry resources, from class mediators and other Java code,
+ * and from other CApps which depend on this one are not seen. A project without any entry point, such as a library
+ * of sequences and templates used by other CApps, has every artifact unreachable, which says nothing about whether
+ * they are used; {@link #hasEntryPoints()} tells such projects apart.
+ */
+final class ArtifactReachability {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final Pattern NAME_SEPARATOR = Pattern.compile("[^A-Za-z0-9_.\\-]+");
+    private static final Set<String> REFERENCED_TYPES = new HashSet<>(Arrays.asList(Constants.SEQUENCE_TYPE,
+            Constants.ENDPOINT_TYPE, Constants.TEMPLATE_TYPE, Constants.LOCAL_ENTRY_TYPE));
+    private static final Set<String> DEFAULT_SEQUENCES = new HashSet<>(Arrays.asList("main", "fault"));
+
+    private final List<File> unreachable;
+    private final long unreachableBytes;
+    private final boolean entryPoints;
+
+    private ArtifactReachability(List<File> unreachable, boolean entryPoints) {
+
+        this.entryPoints = entryPoints;
+        this.unreachable = Collections.unmodifiableList(unreachable);
+        long bytes = 0;
+        for (File file : unreachable) {
+            bytes += file.length();
+        }
+        this.unreachableBytes = bytes;
+    }
+
+    /**
+     * Reads every artifact of the project and walks the references from its entry points.
+     *
+     * @param artifactsFolder artifacts folder of the project
+     * @param artifactTypes   artifact folders and their types
+     * @param projectIndex    index of the project sources
+     * @param mainSequence    name of the main sequence of the project, or null
+     * @return the result of the analysis
+     */
+    static ArtifactReachability analyze(File artifactsFolder, List<ArtifactDetails> artifactTypes,
+                                        ProjectIndex projectIndex, String mainSequence) {
+
+        List<Node> nodes = new ArrayList<>();
+        Map<String, List<Node>> referencedByName = new HashMap<>();
+        for (ArtifactDetails artifactDetails : artifactTypes) {
+            File[] configFiles = projectIndex.listSortedFiles(new File(artifactsFolder, artifactDetails.getDirectory()));
+            if (configFiles == null) {
+                continue;
+            }
+            for (File configFile : configFiles) {
+                if (!projectIndex.isFile(configFile)) {
+                    continue;
+                }
+                Node node = read(configFile, artifactDetails.getType());
+                nodes.add(node);
+                if (node.isReferenceable()) {
+                    referencedByName.computeIfAbsent(node.name, name -> new ArrayList<>()).add(node);
+                }
+            }
+        }
+
+        Deque<Node> queue = new ArrayDeque<>();
+        boolean entryPoints = false;
+        for (Node node : nodes) {
+            boolean entryPoint = !node.isReferenceable() || node.name.equals(mainSequence)
+                    || (Constants.SEQUENCE_TYPE.equals(node.type) && DEFAULT_SEQUENCES.contains(node.name));
+            if (entryPoint) {
+                entryPoints = true;
+                node.reachable = true;
+                queue.add(node);
+            }
+        }
+        while (!queue.isEmpty()) {
+            for (String reference : queue.poll().references) {
+                List<Node> referenced = referencedByName.get(reference);
+                if (referenced == null) {
+                    continue;
+                }
+                for (Node node : referenced) {
+                    if (!node.reachable) {
+                        node.reachable = true;
+                        queue.add(node);
+                    }
+                }
+            }
+        }
+
+        List<File> unreachable = new ArrayList<>();
+        for (Node node : nodes) {
+            if (!node.reachable) {
+                unreachable.add(node.file);
+            }
+        }
+        return new ArtifactReachability(unreachable, entryPoints);
+    }
+
+    /**
+     * @return whether the project has any entry point to walk the references from
+     */
+    boolean hasEntryPoints() {
+
+        return entryPoints;
+    }
+
+    /**
+     * @return configuration files of the artifacts which are not reachable, in the order they are processed
+     */
+    List<File> getUnreachable() {
+
+        return unreachable;
+    }
+
+    /**
+     * @return total size of the configuration files of the unreachable artifacts
+     */
+    long getUnreachableBytes() {
+
+        return unreachableBytes;
+    }
+
+    private static Node read(File configFile, String type) {
+
+        Node node = new Node(configFile, type);
+        try (InputStream in = Files.newInputStream(configFile.toPath())) {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                boolean root = true;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        if (root) {
+                            node.name = getArtifactName(reader, configFile, type);
+                            root = false;
+                        }
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            node.addReferences(reader.getAttributeValue(i));
+                        }
+                    } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                        node.addReferences(reader.getText());
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            // Unreadable artifacts are kept as entry points, and their errors are reported when they are processed.
+            node.name = null;
+        }
+        return node;
+    }
+
+    private static String getArtifactName(XMLStreamReader reader, File configFile, String type) {
+
+        if (Constants.DATASOURCE_TYPE.equals(type)) {
+            return configFile.getName().substring(0, configFile.getName().length() - 4);
+        }
+        String attribute = Constants.LOCAL_ENTRY_TYPE.equals(type) ? Constants.KEY : Constants.NAME;
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            if ((namespace == null || namespace.isEmpty()) && attribute.equals(reader.getAttributeLocalName(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        // Text is read as a whole so that names are not split between events.
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    private static final class Node {
+
+        private final File file;
+        private final String type;
+        private final Set<String> references = new HashSet<>();
+        private String name;
+        private boolean reachable;
+
+        private Node(File file, String type) {
+
+            this.file = file;
+            this.type = type;
+        }
+
+        private boolean isReferenceable() {
+
+            return name != null && REFERENCED_TYPES.contains(type);
+        }
+
+        private void addReferences(String value) {
+
+            String trimmed = value.trim();
+            if (trimmed.isEmpty()) {
+                return;
+            }
+            references.add(trimmed);
+            for (String token : NAME_SEPARATOR.split(trimmed)) {
+                if (!token.isEmpty()) {
+                    references.add(token);
+                }
+            }
+        }
+    }
+}
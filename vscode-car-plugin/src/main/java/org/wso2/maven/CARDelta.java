@@ -0,0 +1,427 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.wso2.maven.archive.CARArchive;
+import org.wso2.maven.archive.CARManifest;
+import org.wso2.maven.incremental.IncrementalBuild;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Compares the artifacts of two .car files. An artifact is a folder of the archive holding an artifact.xml, named
+ * after the name and version of the artifact as {@link CAppHandler} names them, together with every entry under
+ * it. Artifacts are matched by folder and compared by a SHA-256 hash of the names and contents of their entries,
+ * so the timestamps and compression of the archives do not matter. When both archives have a {@link CARManifest},
+ * the artifact hashes are read from the manifests instead of decompressing the archives.
+ */
+final class CARDelta {
+
+    private static final String ARTIFACT_XML_SUFFIX = "/" + Constants.ARTIFACT_XML;
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final File current;
+    private final List<ArtifactSummary> added = new ArrayList<>();
+    private final List<ArtifactSummary> changed = new ArrayList<>();
+    private final List<ArtifactSummary> removed = new ArrayList<>();
+
+    private CARDelta(File current) {
+
+        this.current = current;
+    }
+
+    /**
+     * Compares the artifacts of the given .car files.
+     *
+     * @param baseline previously released .car file
+     * @param current  freshly built .car file
+     * @return the artifacts which were added, changed or removed
+     * @throws IOException if either archive cannot be read
+     */
+    static CARDelta compare(File baseline, File current) throws IOException {
+
+        CARManifest baselineManifest = readManifest(baseline);
+        CARManifest currentManifest = readManifest(current);
+        // The hashes of the manifests and the hashes computed here differ, so both archives are hashed the same way.
+        if (baselineManifest == null || currentManifest == null) {
+            baselineManifest = null;
+            currentManifest = null;
+        }
+        Map<String, ArtifactSummary> baselineArtifacts = readArtifacts(baseline, baselineManifest);
+        Map<String, ArtifactSummary> currentArtifacts = readArtifacts(current, currentManifest);
+        CARDelta delta = new CARDelta(current);
+        for (ArtifactSummary artifact : currentArtifacts.values()) {
+            ArtifactSummary previous = baselineArtifacts.get(artifact.folder);
+            if (previous == null) {
+                delta.added.add(artifact);
+            } else if (!previous.hash.equals(artifact.hash)) {
+                delta.changed.add(artifact);
+            }
+        }
+        for (ArtifactSummary artifact : baselineArtifacts.values()) {
+            if (!currentArtifacts.containsKey(artifact.folder)) {
+                delta.removed.add(artifact);
+            }
+        }
+        return delta;
+    }
+
+    List<ArtifactSummary> getAdded() {
+
+        return Collections.unmodifiableList(added);
+    }
+
+    List<ArtifactSummary> getChanged() {
+
+        return Collections.unmodifiableList(changed);
+    }
+
+    List<ArtifactSummary> getRemoved() {
+
+        return Collections.unmodifiableList(removed);
+    }
+
+    /**
+     * Creates an archive with the added and changed artifacts of the current .car file. The entries are copied from
+     * the current .car file without being decompressed. artifacts.xml and metadata.xml are rewritten to list only
+     * the artifacts in the archive. The archive is a CApp of its own: the application name in artifacts.xml and
+     * metadata.xml, and the artifactId in the id of descriptor.xml, get the {@link Constants#DELTA_SUFFIX}, so that
+     * deploying the delta does not replace the full CApp.
+     *
+     * @return the archive
+     * @throws IOException if the current .car file cannot be read
+     */
+    CARArchive createArchive() throws IOException {
+
+        List<ArtifactSummary> artifacts = new ArrayList<>(added);
+        artifacts.addAll(changed);
+        Set<String> included = new HashSet<>();
+        CARArchive archive = new CARArchive();
+        for (ArtifactSummary artifact : artifacts) {
+            included.add(artifact.name + ":" + artifact.version);
+            for (String entry : artifact.entries) {
+                archive.addPreviousEntry(entry, current);
+            }
+        }
+        try (ZipFile zipFile = new ZipFile(current)) {
+            for (String descriptor : new String[]{Constants.ARTIFACTS_XML_FILE, Constants.METADATA_XML_FILE}) {
+                ZipEntry entry = zipFile.getEntry(descriptor);
+                if (entry != null) {
+                    try (InputStream in = zipFile.getInputStream(entry)) {
+                        archive.addContent(descriptor, filterDependencies(in, descriptor, included));
+                    }
+                }
+            }
+            ZipEntry descriptorXml = zipFile.getEntry(Constants.DESCRIPTOR_XML);
+            if (descriptorXml != null) {
+                try (InputStream in = zipFile.getInputStream(descriptorXml)) {
+                    archive.addContent(Constants.DESCRIPTOR_XML, renameDescriptor(in));
+                }
+            }
+        }
+        return archive;
+    }
+
+    /**
+     * Rewrites an artifacts.xml or metadata.xml document, keeping only the dependencies on the given artifacts.
+     */
+    private static byte[] filterDependencies(InputStream in, String descriptor, Set<String> included)
+            throws IOException {
+
+        Map<String, String> application = new LinkedHashMap<>();
+        List<Map<String, String>> dependencies = new ArrayList<>();
+        try {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    if (Constants.ARTIFACT.equals(reader.getLocalName())) {
+                        application = readAttributes(reader);
+                    } else if (Constants.DEPENDENCY.equals(reader.getLocalName())) {
+                        Map<String, String> dependency = readAttributes(reader);
+                        String key = dependency.get(Constants.ARTIFACT) + ":" + dependency.get(Constants.VERSION);
+                        if (included.contains(key)) {
+                            dependencies.add(dependency);
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid " + descriptor + " in the current .car file", e);
+        }
+        Map<String, String> applicationAttributes = application;
+        if (applicationAttributes.containsKey(Constants.NAME)) {
+            applicationAttributes.put(Constants.NAME, applicationAttributes.get(Constants.NAME) +
+                    Constants.DELTA_SUFFIX);
+        }
+        return DescriptorXmlWriter.toBytes(writer -> {
+            writer.startElement(Constants.ARTIFACTS).startElement(Constants.ARTIFACT);
+            applicationAttributes.forEach(writer::attribute);
+            for (Map<String, String> dependency : dependencies) {
+                writer.startElement(Constants.DEPENDENCY);
+                dependency.forEach(writer::attribute);
+                writer.endElement();
+            }
+            writer.endElement().endElement();
+        });
+    }
+
+    /**
+     * Rewrites a descriptor.xml document, adding the delta suffix to the artifactId in its groupId__artifactId__version
+     * id. The other elements are kept.
+     */
+    private static byte[] renameDescriptor(InputStream in) throws IOException {
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        List<Map<String, String>> dependencies = new ArrayList<>();
+        boolean hasDependencies = false;
+        try {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                int depth = 0;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                    } else if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        if (Constants.DEPENDENCIES.equals(reader.getLocalName())) {
+                            hasDependencies = true;
+                        } else if (Constants.DEPENDENCY.equals(reader.getLocalName())) {
+                            dependencies.add(readAttributes(reader));
+                        } else if (depth == 2) {
+                            properties.put(reader.getLocalName(), reader.getElementText().trim());
+                            depth--;
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid " + Constants.DESCRIPTOR_XML + " in the current .car file", e);
+        }
+        String id = properties.get(Constants.ID);
+        if (id != null) {
+            int versionStart = id.lastIndexOf(Constants.DOUBLE_UNDERSCORE);
+            properties.put(Constants.ID, versionStart < 0 ? id + Constants.DELTA_SUFFIX :
+                    id.substring(0, versionStart) + Constants.DELTA_SUFFIX + id.substring(versionStart));
+        }
+        boolean writeDependencies = hasDependencies;
+        return DescriptorXmlWriter.toBytes(writer -> {
+            writer.startElement(Constants.PROJECT);
+            properties.forEach(writer::textElement);
+            if (writeDependencies) {
+                writer.startElement(Constants.DEPENDENCIES);
+                for (Map<String, String> dependency : dependencies) {
+                    writer.startElement(Constants.DEPENDENCY);
+                    dependency.forEach(writer::attribute);
+                    writer.endElement();
+                }
+                writer.endElement();
+            }
+            writer.endElement();
+        });
+    }
+
+    private static Map<String, String> readAttributes(XMLStreamReader reader) {
+
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+        }
+        return attributes;
+    }
+
+    /**
+     * @return the manifest of the given .car file, or null if it does not have a readable one
+     */
+    private static CARManifest readManifest(File carFile) throws IOException {
+
+        try (ZipFile zipFile = new ZipFile(carFile)) {
+            ZipEntry entry = zipFile.getEntry(CARManifest.ENTRY_NAME);
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream in = zipFile.getInputStream(entry)) {
+                return CARManifest.read(in);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    private static Map<String, ArtifactSummary> readArtifacts(File carFile, CARManifest manifest)
+            throws IOException {
+
+        Map<String, ArtifactSummary> artifacts = new TreeMap<>();
+        try (ZipFile zipFile = new ZipFile(carFile)) {
+            List<String> entryNames = new ArrayList<>();
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                entryNames.add(entry.getName());
+                if (entry.getName().endsWith(ARTIFACT_XML_SUFFIX)) {
+                    String folder = entry.getName().substring(0,
+                            entry.getName().length() - ARTIFACT_XML_SUFFIX.length());
+                    artifacts.put(folder, readArtifact(zipFile, entry, folder));
+                }
+            }
+            Collections.sort(entryNames);
+            for (String entryName : entryNames) {
+                ArtifactSummary artifact = findArtifact(artifacts, entryName);
+                if (artifact != null) {
+                    artifact.entries.add(entryName);
+                }
+            }
+            if (manifest != null) {
+                for (CARManifest.Artifact manifestArtifact : manifest.getArtifacts()) {
+                    ArtifactSummary artifact = artifacts.get(manifestArtifact.getFolder());
+                    if (artifact != null) {
+                        artifact.hash = manifestArtifact.getSha256();
+                        artifact.size = manifestArtifact.getSize();
+                    }
+                }
+            }
+            byte[] buffer = new byte[64 * 1024];
+            for (ArtifactSummary artifact : artifacts.values()) {
+                if (artifact.hash != null) {
+                    continue;
+                }
+                MessageDigest digest = IncrementalBuild.newSha256Digest();
+                for (String entryName : artifact.entries) {
+                    digest.update(entryName.getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                    ZipEntry entry = zipFile.getEntry(entryName);
+                    try (InputStream in = zipFile.getInputStream(entry)) {
+                        int len;
+                        while ((len = in.read(buffer)) > 0) {
+                            digest.update(buffer, 0, len);
+                        }
+                    }
+                    artifact.size += entry.getSize();
+                }
+                artifact.hash = IncrementalBuild.toHex(digest.digest());
+            }
+        }
+        return artifacts;
+    }
+
+    private static ArtifactSummary readArtifact(ZipFile zipFile, ZipEntry artifactXml, String folder)
+            throws IOException {
+
+        try (InputStream in = zipFile.getInputStream(artifactXml)) {
+            ArtifactHeader header = ArtifactHeader.read(in, artifactXml.getName());
+            return new ArtifactSummary(folder, header.getAttributeValue(Constants.NAME),
+                    header.getAttributeValue(Constants.VERSION), header.getAttributeValue(Constants.TYPE));
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid " + artifactXml.getName() + " in " + zipFile.getName(), e);
+        }
+    }
+
+    /**
+     * @return the artifact with the deepest folder containing the given entry, or null if the entry is not part of
+     * an artifact
+     */
+    private static ArtifactSummary findArtifact(Map<String, ArtifactSummary> artifacts, String entryName) {
+
+        for (int end = entryName.lastIndexOf('/'); end > 0; end = entryName.lastIndexOf('/', end - 1)) {
+            ArtifactSummary artifact = artifacts.get(entryName.substring(0, end));
+            if (artifact != null) {
+                return artifact;
+            }
+        }
+        return null;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * An artifact of a .car file.
+     */
+    static final class ArtifactSummary {
+
+        private final String folder;
+        private final String name;
+        private final String version;
+        private final String type;
+        private final transient List<String> entries = new ArrayList<>();
+        private transient String hash;
+        private long size;
+
+        private ArtifactSummary(String folder, String name, String version, String type) {
+
+            this.folder = folder;
+            this.name = name;
+            this.version = version;
+            this.type = type;
+        }
+
+        String getFolder() {
+
+            return folder;
+        }
+
+        String getName() {
+
+            return name;
+        }
+
+        String getVersion() {
+
+            return version;
+        }
+
+        long getSize() {
+
+            return size;
+        }
+    }
+}
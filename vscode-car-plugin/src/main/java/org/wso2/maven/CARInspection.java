@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.wso2.maven.archive.CARManifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Summary of a .car file: the CApp, its artifacts and the CApps it depends on. The summary is read from the central
+ * directory of the archive and the artifacts.xml and descriptor.xml entries, which are read through random access,
+ * so the time taken does not depend on the size of the archive. The types of the artifacts are taken from the
+ * {@link CARManifest} of the archive, or from the artifact.xml of each artifact when the archive has no manifest.
+ */
+public final class CARInspection {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private String file;
+    private long size;
+    private int entries;
+    private long uncompressedSize;
+    private String name;
+    private String version;
+    private String mainSequence;
+    private final List<Artifact> artifacts = new ArrayList<>();
+    private final List<CAppDependency> cAppDependencies = new ArrayList<>();
+
+    private CARInspection() {
+
+    }
+
+    /**
+     * Reads the summary of a .car file.
+     *
+     * @param carFile the .car file
+     * @return the summary
+     * @throws IOException if the file is not a readable .car file
+     */
+    public static CARInspection read(File carFile) throws IOException {
+
+        CARInspection inspection = new CARInspection();
+        inspection.file = carFile.getPath();
+        inspection.size = carFile.length();
+        try (ZipFile zipFile = new ZipFile(carFile)) {
+            Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry entry = zipEntries.nextElement();
+                inspection.entries++;
+                if (entry.getSize() > 0) {
+                    inspection.uncompressedSize += entry.getSize();
+                }
+            }
+            ZipEntry artifactsXml = zipFile.getEntry(Constants.ARTIFACTS_XML_FILE);
+            if (artifactsXml == null) {
+                throw new IOException(carFile.getName() + " has no " + Constants.ARTIFACTS_XML_FILE);
+            }
+            try (InputStream in = zipFile.getInputStream(artifactsXml)) {
+                inspection.readArtifactsXml(in);
+            }
+            ZipEntry descriptorXml = zipFile.getEntry(Constants.DESCRIPTOR_XML);
+            if (descriptorXml != null) {
+                try (InputStream in = zipFile.getInputStream(descriptorXml)) {
+                    inspection.readDescriptorXml(in);
+                }
+            }
+            inspection.readArtifactTypes(zipFile);
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid descriptor in " + carFile.getName(), e);
+        }
+        return inspection;
+    }
+
+    private void readArtifactsXml(InputStream in) throws XMLStreamException {
+
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                if (Constants.ARTIFACT.equals(reader.getLocalName()) && name == null) {
+                    name = reader.getAttributeValue(null, Constants.NAME);
+                    version = reader.getAttributeValue(null, Constants.VERSION);
+                    mainSequence = reader.getAttributeValue(null, Constants.MAIN_SEQUENCE);
+                } else if (Constants.DEPENDENCY.equals(reader.getLocalName())) {
+                    Artifact artifact = new Artifact();
+                    artifact.name = reader.getAttributeValue(null, Constants.ARTIFACT);
+                    artifact.version = reader.getAttributeValue(null, Constants.VERSION);
+                    artifact.serverRole = reader.getAttributeValue(null, Constants.SERVER_ROLE);
+                    artifact.include = !"false".equals(reader.getAttributeValue(null, Constants.INCLUDE));
+                    artifacts.add(artifact);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void readDescriptorXml(InputStream in) throws XMLStreamException {
+
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && Constants.DEPENDENCY.equals(reader.getLocalName())) {
+                    cAppDependencies.add(new CAppDependency(reader.getAttributeValue(null, Constants.GROUP_ID),
+                            reader.getAttributeValue(null, Constants.ARTIFACT_ID),
+                            reader.getAttributeValue(null, Constants.VERSION)));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void readArtifactTypes(ZipFile zipFile) throws IOException, XMLStreamException {
+
+        Map<String, String> manifestTypes = new HashMap<>();
+        ZipEntry manifestEntry = zipFile.getEntry(CARManifest.ENTRY_NAME);
+        if (manifestEntry != null) {
+            try (InputStream in = zipFile.getInputStream(manifestEntry)) {
+                for (CARManifest.Artifact artifact : CARManifest.read(in).getArtifacts()) {
+                    manifestTypes.put(artifact.getDependency(), artifact.getType());
+                }
+            }
+        }
+        for (Artifact artifact : artifacts) {
+            artifact.type = manifestTypes.get(artifact.name + ":" + artifact.version);
+            if (artifact.type != null) {
+                continue;
+            }
+            ZipEntry artifactXml = zipFile.getEntry(artifact.name + "_" + artifact.version + "/" +
+                    Constants.ARTIFACT_XML);
+            if (artifactXml != null) {
+                try (InputStream in = zipFile.getInputStream(artifactXml)) {
+                    artifact.type = ArtifactHeader.read(in, artifactXml.getName())
+                            .getAttributeValue(Constants.TYPE);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the path of the .car file
+     */
+    public String getFile() {
+
+        return file;
+    }
+
+    /**
+     * @return the size of the .car file in bytes
+     */
+    public long getSize() {
+
+        return size;
+    }
+
+    /**
+     * @return the number of entries of the archive, including directories
+     */
+    public int getEntries() {
+
+        return entries;
+    }
+
+    /**
+     * @return the total uncompressed size of the entries, as recorded in the central directory
+     */
+    public long getUncompressedSize() {
+
+        return uncompressedSize;
+    }
+
+    /**
+     * @return the name of the CApp
+     */
+    public String getName() {
+
+        return name;
+    }
+
+    /**
+     * @return the version of the CApp
+     */
+    public String getVersion() {
+
+        return version;
+    }
+
+    /**
+     * @return the main sequence of the CApp, or null if it does not have one
+     */
+    public String getMainSequence() {
+
+        return mainSequence;
+    }
+
+    /**
+     * @return the artifacts of the CApp, in the order of artifacts.xml
+     */
+    public List<Artifact> getArtifacts() {
+
+        return Collections.unmodifiableList(artifacts);
+    }
+
+    /**
+     * @return the CApps this CApp depends on, as listed in descriptor.xml
+     */
+    public List<CAppDependency> getCAppDependencies() {
+
+        return Collections.unmodifiableList(cAppDependencies);
+    }
+
+    private static XMLInputFactory createInputFactory() {
+
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * An artifact listed in artifacts.xml.
+     */
+    public static final class Artifact {
+
+        private String name;
+        private String version;
+        private String type;
+        private String serverRole;
+        private boolean include;
+
+        /**
+         * @return the name of the artifact
+         */
+        public String getName() {
+
+            return name;
+        }
+
+        /**
+         * @return the version of the artifact
+         */
+        public String getVersion() {
+
+            return version;
+        }
+
+        /**
+         * @return the type of the artifact, or null if the archive does not have its artifact.xml
+         */
+        public String getType() {
+
+            return type;
+        }
+
+        /**
+         * @return the server role of the artifact, or null if none is set
+         */
+        public String getServerRole() {
+
+            return serverRole;
+        }
+
+        /**
+         * @return whether the artifact is deployed with the CApp
+         */
+        public boolean isInclude() {
+
+            return include;
+        }
+    }
+}
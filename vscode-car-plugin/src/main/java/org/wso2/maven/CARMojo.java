@@ -19,23 +19,43 @@
 package org.wso2.maven;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.Dependency;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.project.MavenProject;
 import org.apache.commons.lang.StringUtils;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.wso2.maven.archive.CARArchive;
+import org.wso2.maven.archive.CARArchiveWriter;
 import org.wso2.maven.datamapper.DataMapperBundler;
 import org.wso2.maven.datamapper.DataMapperException;
+import org.wso2.maven.incremental.IncrementalBuild;
+import org.wso2.maven.incremental.InputFingerprint;
 import org.wso2.maven.libraries.CAppDependencyResolver;
 import org.wso2.maven.libraries.ConnectorDependencyResolver;
+import org.wso2.maven.libraries.DependencyLock;
+import org.wso2.maven.libraries.MavenArtifactResolver;
 import org.wso2.maven.model.ArchiveException;
 import org.wso2.maven.model.ArtifactDependency;
 
@@ -74,7 +94,169 @@ public class CARMojo extends AbstractMojo {
      *
      * @parameter expression="${sourceDirectory}"
      */
-    private String sourceDirectory;
+    String sourceDirectory;
+
+    /**
+     * Number of worker threads used to process the artifacts. Artifacts are processed sequentially
+     * on the build thread when this is 1 or less.
+     *
+     * @parameter expression="${processingThreads}" default-value="1"
+     */
+    int processingThreads;
+
+    /**
+     * Number of worker threads used to compress the entries of the .car file. Entries are compressed
+     * sequentially on the build thread when this is 1 or less.
+     *
+     * @parameter expression="${archiveThreads}" default-value="1"
+     */
+    int archiveThreads;
+
+    /**
+     * Deflate compression level of the .car file entries, from 0 to 9 or -1 for the default level.
+     *
+     * @parameter expression="${compressionLevel}" default-value="-1"
+     */
+    int compressionLevel;
+
+    /**
+     * Comma separated extensions of already compressed files, such as connector zips and jars, which are
+     * stored in the .car file without being compressed again. Defaults to common archive and image types.
+     *
+     * @parameter expression="${storedExtensions}"
+     */
+    String storedExtensions;
+
+    /**
+     * Adds META-INF/car-manifest.json to the .car file, listing the SHA-256 hash and size of every entry and
+     * artifact. The hashes are computed while the entries are written, so the .car file can be verified or
+     * compared with another one without decompressing it.
+     *
+     * @parameter expression="${contentManifest}" default-value="true"
+     */
+    boolean contentManifest;
+
+    /**
+     * Reuses the artifacts which have not changed since the previous build. A manifest mapping every input to
+     * its content hash and archive entries is kept in the target folder for this purpose.
+     *
+     * @parameter expression="${incremental}" default-value="false"
+     */
+    boolean incremental;
+
+    /**
+     * Timestamp of the .car file entries, used for reproducible builds. Either an ISO 8601 date and time, such as
+     * 2025-01-01T00:00:00Z, or the number of seconds since the epoch. The entries get a fixed timestamp when this
+     * is not set, so that the same sources always produce the same .car file.
+     *
+     * @parameter expression="${outputTimestamp}" default-value="${project.build.outputTimestamp}"
+     */
+    String outputTimestamp;
+
+    /**
+     * Packages the .car file even if none of its inputs have changed since the previous build.
+     *
+     * @parameter expression="${forceCreation}" default-value="false"
+     */
+    boolean forceCreation;
+
+    /**
+     * Runs the build phases which do not depend on each other at the same time, so that resolving the connector
+     * and CApp dependencies with Maven overlaps with processing the project sources.
+     *
+     * @parameter expression="${parallelPhases}" default-value="false"
+     */
+    boolean parallelPhases;
+
+    /**
+     * What to do with sequences, endpoints, templates and local entries which are not referenced, directly or
+     * through other artifacts, by any API, proxy service, inbound endpoint, task or other entry point of the
+     * project: include them in the .car file (include), include them and list them as warnings (warn), or leave
+     * them out of the .car file (exclude).
+     * <p>
+     * Only references between the files of the artifacts folder are followed. An artifact which is used only from
+     * a registry resource, from a class mediator or other Java code, by a key computed at runtime, or by another
+     * CApp which depends on this one is reported as unreachable, and is left out by exclude. Nothing is excluded
+     * from a project without any entry point, such as a library of artifacts used by other CApps.
+     *
+     * @parameter expression="${unreachableArtifacts}" default-value="include"
+     */
+    String unreachableArtifacts;
+
+    /**
+     * Packages the project as two CApps: a platform layer with the connectors, connector libraries and class
+     * mediators, written to a .car file with the -platform suffix, and an application layer with the Synapse
+     * artifacts, registry resources and metadata, written to the regular .car file. The application layer
+     * declares a dependency on the platform layer in its descriptor.xml, so redeploying a change to the
+     * artifacts only ships the application layer.
+     *
+     * @parameter expression="${layered}" default-value="false"
+     */
+    boolean layered;
+
+    /**
+     * Records the resolved connector zips, connector libraries and dependent .car files, with their SHA-256 hashes,
+     * in mi-dependencies.lock next to pom.xml. While pom.xml, the connectors in the resources folder and the local
+     * entries are unchanged, later builds restore the locked files from the target folder or the local repository
+     * instead of resolving the dependencies, so they do not need the remote repositories. Commit the lockfile to
+     * share it.
+     *
+     * @parameter expression="${lockDependencies}" default-value="false"
+     */
+    boolean lockDependencies;
+
+    /**
+     * Stores connector libraries with the same content only once. A library used by several connectors is written
+     * as a single lib/connector/dependency artifact, which names every connector using it in its connector
+     * attribute, separated by commas, instead of one copy for every connector. The runtime has to accept a list
+     * of connectors there, so this is off by default.
+     *
+     * @parameter expression="${deduplicateConnectorLibraries}" default-value="false"
+     */
+    boolean deduplicateConnectorLibraries;
+
+    /**
+     * The repository system of the build, used to resolve the connector and CApp dependencies in-process.
+     *
+     * @component
+     */
+    RepositorySystem repositorySystem;
+
+    /**
+     * The repository session of the build, which carries the local repository and settings of the build.
+     *
+     * @parameter expression="${repositorySystemSession}"
+     * @readonly
+     */
+    RepositorySystemSession repositorySystemSession;
+
+    /**
+     * The remote repositories of the project.
+     *
+     * @parameter expression="${project.remoteProjectRepositories}"
+     * @readonly
+     */
+    List<RemoteRepository> remoteRepositories;
+
+    /**
+     * Keeps the result of the dependency resolution of a successful build, so that the next build of the same
+     * mojo instance reuses it instead of resolving the connector and CApp dependencies again. Set by watch mode.
+     */
+    boolean keepResolvedDependencies;
+
+    /**
+     * The entries added by the CApp dependency resolution of the previous build, or null if the dependencies
+     * have to be resolved by the next build. The connector dependencies are resolved into the target folder, so
+     * they are reused with these.
+     */
+    CARArchive resolvedCAppArchive;
+
+    /**
+     * The dependency lockfile of the running build, or null if dependencies are not locked.
+     */
+    private DependencyLock dependencyLock;
+
+    private MavenArtifactResolver artifactResolver;
 
     public void logError(String message) {
         getLog().error(message);
@@ -89,9 +271,64 @@ public class CARMojo extends AbstractMojo {
     }
 
     public String getArchiveName() {
+        return getArchiveName(project, archiveName);
+    }
+
+    /**
+     * @return the name of the .car file of a project, without its extension, for the given archiveName parameter
+     */
+    static String getArchiveName(MavenProject project, String archiveName) {
         return archiveName == null ? project.getArtifactId() + "_" + project.getVersion() : archiveName;
     }
 
+    /**
+     * Returns the .car file the car goal writes for a project, so that goals run after it can find the file.
+     *
+     * @param project         the project
+     * @param archiveLocation the archiveLocation parameter, or null for the target folder
+     * @param archiveName     the archiveName parameter, or null for the default name
+     * @return the .car file
+     */
+    static File getCarFile(MavenProject project, String archiveLocation, String archiveName) {
+        File location = StringUtils.isEmpty(archiveLocation) ?
+                new File(project.getBasedir(), Constants.DEFAULT_TARGET_FOLDER) : new File(archiveLocation);
+        return new File(location, getArchiveName(project, archiveName) + Constants.CAR_EXTENSION);
+    }
+
+    public int getProcessingThreads() {
+        return processingThreads;
+    }
+
+    public String getUnreachableArtifacts() {
+        return unreachableArtifacts;
+    }
+
+    public boolean isDeduplicateConnectorLibraries() {
+        return deduplicateConnectorLibraries;
+    }
+
+    /**
+     * @return the resolver of the running build, or null if dependencies have to be resolved by invoking Maven
+     */
+    public synchronized MavenArtifactResolver getArtifactResolver() {
+        if (artifactResolver == null) {
+            artifactResolver = MavenArtifactResolver.create(repositorySystem, repositorySystemSession,
+                    remoteRepositories);
+        }
+        return artifactResolver;
+    }
+
+    /**
+     * @return the dependency lockfile of the running build, or null if dependencies are not locked
+     */
+    public DependencyLock getDependencyLock() {
+        return dependencyLock;
+    }
+
+    public String getMainSequence() {
+        return project == null ? null : project.getProperties().getProperty(Constants.MAIN_SEQUENCE);
+    }
+
     public void execute() throws MojoExecutionException, MojoFailureException {
 
         String basedir = project.getBasedir().toString();
@@ -102,234 +339,424 @@ public class CARMojo extends AbstractMojo {
         }
         String artifactFolderPath = sourceDirectory + File.separator + Constants.ARTIFACTS_FOLDER_PATH;
         String resourcesFolderPath = sourceDirectory + File.separator + Constants.RESOURCES_FOLDER_PATH;
-        DataMapperBundler bundler = null;
-        try {
-            try {
-                bundler = new DataMapperBundler(this, basedir, sourceDirectory, resourcesFolderPath);
-                bundler.bundleDataMapper();
-            } catch (DataMapperException e) {
-                getLog().error("Error during data mapper bundling: " + e.getMessage(), e);
-                throw new MojoExecutionException("Data Mapper bundling failed.", e);
+        long entryTime = parseOutputTimestamp();
+        if (unreachableArtifacts != null && !Arrays.asList(Constants.UNREACHABLE_ARTIFACTS_INCLUDE,
+                Constants.UNREACHABLE_ARTIFACTS_WARN, Constants.UNREACHABLE_ARTIFACTS_EXCLUDE)
+                .contains(unreachableArtifacts)) {
+            throw new MojoExecutionException("Invalid unreachableArtifacts value: " + unreachableArtifacts +
+                    ". Use include, warn or exclude.");
+        }
+        File carFile = getArchiveFile(".car");
+        File fingerprintFile = new File(basedir + File.separator + Constants.DEFAULT_TARGET_FOLDER,
+                getArchiveName() + Constants.BUILD_FINGERPRINT_SUFFIX);
+        // The fingerprint is taken before the data mapper bundler generates its artifacts into the source folder.
+        InputFingerprint fingerprint = createInputFingerprint(basedir, entryTime);
+        if (fingerprint != null && !forceCreation && (!layered || getPlatformArchiveFile().exists()) &&
+                withResolvedDependencies(fingerprint, basedir).isUpToDate(fingerprintFile, carFile)) {
+            getLog().info("Composite Application Archive is up to date: " + carFile.getAbsolutePath());
+            this.project.getArtifact().setFile(carFile);
+            if (layered) {
+                attachPlatformLayer(getPlatformArchiveFile());
             }
-
-            processCARCreation(basedir, artifactFolderPath, resourcesFolderPath);
-        } finally {
-            if (bundler != null) {
+            File classMediatorJar = CAppHandler.getClassMediatorJar(project);
+            if (classMediatorJar.exists() && !classMediatorJar.delete()) {
+                logWarn("Failed to delete " + classMediatorJar.getAbsolutePath());
+            }
+            return;
+        }
+        if (fingerprintFile.exists() && !fingerprintFile.delete()) {
+            logWarn("Failed to delete " + fingerprintFile.getAbsolutePath());
+        }
+        DataMapperBundler bundler = new DataMapperBundler(this, basedir, sourceDirectory, resourcesFolderPath);
+        try {
+            boolean created = processCARCreation(basedir, artifactFolderPath, resourcesFolderPath, carFile,
+                    entryTime, bundler);
+            if (created && fingerprint != null) {
                 try {
-                    bundler.deleteGeneratedDatamapperArtifacts();
-                } catch (DataMapperException e) {
-                    getLog().error("Error during data mapper cleanup: " + e.getMessage(), e);
+                    withResolvedDependencies(fingerprint, basedir).save(fingerprintFile, carFile);
+                } catch (IOException e) {
+                    logWarn("Failed to save the build fingerprint: " + e.getMessage());
                 }
             }
+        } finally {
+            try {
+                bundler.deleteGeneratedDatamapperArtifacts();
+            } catch (DataMapperException e) {
+                getLog().error("Error during data mapper cleanup: " + e.getMessage(), e);
+            }
         }
     }
 
     /**
-     * Handles the creation of the Composite Application Archive (CAR).
+     * Handles the creation of the Composite Application Archive (CAR). The build is split into phases which run
+     * as a dependency graph: the local sources are processed while the connector and CApp dependencies are
+     * resolved, and the last phase writes the descriptors and the .car file once every other phase has completed.
+     *
+     * @return true if the .car file was written
      */
-    private void processCARCreation(String basedir, String artifactFolderPath, String resourcesFolderPath)
+    private boolean processCARCreation(String basedir, String artifactFolderPath, String resourcesFolderPath,
+                                       File carFile, long entryTime, DataMapperBundler bundler)
             throws MojoExecutionException {
         appendLogs();
 
         File artifactFolder = new File(artifactFolderPath);
         File resourcesFolder = new File(resourcesFolderPath);
-        boolean createdArchiveDirectory = false;
-        String tempTargetDir = basedir + File.separator + Constants.TEMP_TARGET_DIR_NAME;
-        File targetFolder = new File(tempTargetDir);
-        if (!targetFolder.exists()) {
-            createdArchiveDirectory = targetFolder.mkdir();
-        }
         CAppHandler cAppHandler = new CAppHandler(getArchiveName(), this);
+        CARArchive archive = new CARArchive();
         List<ArtifactDependency> dependencies = new ArrayList<>();
         List<ArtifactDependency> metaDependencies = new ArrayList<>();
-        if (createdArchiveDirectory || targetFolder.exists()) {
-            String projectVersion = project.getVersion().replace("-SNAPSHOT", "");
-            cAppHandler.processArtifacts(artifactFolder, tempTargetDir, dependencies, metaDependencies, projectVersion);
-            cAppHandler.processAPIDefinitions(resourcesFolder, tempTargetDir, metaDependencies, projectVersion);
-            cAppHandler.processResourcesFolder(resourcesFolder, tempTargetDir, dependencies,
-                    metaDependencies, projectVersion, project);
-            cAppHandler.processClassMediators(dependencies, project);
-            resolveConnectorDependencies();
-            cAppHandler.processConnectorLibDependencies(dependencies, project);
-            resolveCAppDependencies(tempTargetDir, dependencies, metaDependencies);
-            cAppHandler.createDependencyArtifactsXmlFile(tempTargetDir, dependencies, metaDependencies, project);
-            cAppHandler.createDependencyDescriptorFile(tempTargetDir, project);
-            File fileToZip = new File(tempTargetDir);
-            String fileExtension = ".car";
+        // Connectors, connector libraries and class mediators go to the platform layer in a layered build.
+        CARArchive platformArchive = layered ? new CARArchive() : archive;
+        List<ArtifactDependency> platformDependencies = layered ? new ArrayList<>() : dependencies;
+        // CApp dependencies are collected separately, since they are resolved while the local sources are processed,
+        // and are appended once both are done.
+        CARArchive cAppArchive = new CARArchive();
+        List<ArtifactDependency> cAppDependencies = new ArrayList<>();
+        List<ArtifactDependency> cAppMetaDependencies = new ArrayList<>();
+        String projectVersion = project.getVersion().replace("-SNAPSHOT", "");
+        IncrementalBuild incrementalBuild = incremental ?
+                openIncrementalBuild(basedir, resourcesFolder, carFile, entryTime, projectVersion) : null;
+        if (incrementalBuild != null) {
+            cAppHandler.setIncrementalBuild(incrementalBuild);
+        }
+
+        PhaseScheduler scheduler = new PhaseScheduler(this);
+        scheduler.addPhase("data-mapper-bundling", () -> bundleDataMappers(bundler));
+        scheduler.addPhase("project-index", () -> cAppHandler.setProjectIndex(buildProjectIndex()),
+                "data-mapper-bundling");
+        scheduler.addPhase("artifacts", () -> cAppHandler.processArtifacts(artifactFolder, archive, dependencies,
+                metaDependencies, projectVersion), "project-index");
+        scheduler.addPhase("api-definitions", () -> cAppHandler.processAPIDefinitions(resourcesFolder, archive,
+                metaDependencies, projectVersion), "artifacts");
+        scheduler.addPhase("resources", () -> cAppHandler.processResourcesFolder(resourcesFolder, archive,
+                dependencies, metaDependencies, projectVersion, project, platformArchive, platformDependencies),
+                "api-definitions");
+        scheduler.addPhase("class-mediators", () -> cAppHandler.processClassMediators(platformArchive,
+                platformDependencies, project), "resources");
+        CARArchive reusedCAppArchive = resolvedCAppArchive;
+        if (reusedCAppArchive != null) {
+            logInfo("Reusing the connector and CApp dependencies resolved by the previous build");
+        }
+        scheduler.addPhase("connector-resolution", reusedCAppArchive != null ? () -> { } :
+                this::resolveConnectorDependencies);
+        scheduler.addPhase("connector-libraries", () -> cAppHandler.processConnectorLibDependencies(
+                platformArchive, platformDependencies, project), "class-mediators", "connector-resolution");
+        scheduler.addPhase("capp-resolution", reusedCAppArchive != null ? () -> cAppArchive.addAll(reusedCAppArchive) :
+                () -> resolveCAppDependencies(cAppArchive, cAppDependencies, cAppMetaDependencies));
+        resolvedCAppArchive = null;
+        dependencyLock = null;
+        if (lockDependencies && reusedCAppArchive == null) {
             try {
-                File carFile = getArchiveFile(fileExtension);
-                zipFolder(fileToZip.getPath(), carFile.getPath(), fileExtension);
-                // Attach carFile to Maven context.
-                this.project.getArtifact().setFile(carFile);
-            } catch (ArchiveException e) {
-                logError("Error occurred while creating the .car file");
-                logError(e.getMessage());
+                MavenArtifactResolver resolver = getArtifactResolver();
+                dependencyLock = DependencyLock.open(project.getBasedir(),
+                        resolver == null ? null : resolver.getLocalRepository());
+            } catch (IOException e) {
+                logWarn("Failed to read the inputs of the dependency lockfile: " + e.getMessage());
+            }
+        }
+        AtomicBoolean created = new AtomicBoolean();
+        scheduler.addPhase("archive", () -> {
+            saveDependencyLock();
+            archive.addAll(cAppArchive);
+            dependencies.addAll(cAppDependencies);
+            metaDependencies.addAll(cAppMetaDependencies);
+            cAppHandler.createDependencyArtifactsXmlFile(archive, dependencies, metaDependencies, project);
+            if (layered) {
+                created.set(writeLayeredArchives(cAppHandler, archive, platformArchive, platformDependencies,
+                        carFile, entryTime, incrementalBuild));
+            } else {
+                cAppHandler.createDependencyDescriptorFile(archive, project);
+                created.set(writeArchive(archive, carFile, entryTime, incrementalBuild));
+            }
+        }, "connector-libraries", "capp-resolution");
+        try {
+            scheduler.run(parallelPhases);
+        } finally {
+            scheduler.logTimings();
+        }
+        if (created.get()) {
+            // Attach carFile to Maven context.
+            this.project.getArtifact().setFile(carFile);
+            if (keepResolvedDependencies) {
+                resolvedCAppArchive = cAppArchive;
             }
-            recursiveDelete(fileToZip, fileExtension);
-        } else {
-            getLog().error("Could not create the archive directory.");
         }
+        cAppHandler.deleteConsumedFiles();
+        return created.get();
     }
 
     /**
-     * Append log of BUILD process when building started.
+     * Opens the incremental build of the .car file, which reuses the artifacts of the previous build when none of
+     * the inputs they were built from has changed.
      */
-    private void appendLogs() {
-        getLog().info("------------------------------------------------------------------------");
-        getLog().info("Building Composite Project");
-        getLog().info("------------------------------------------------------------------------");
+    private IncrementalBuild openIncrementalBuild(String basedir, File resourcesFolder, File carFile, long entryTime,
+                                                  String projectVersion) {
+
+        File manifestFile = new File(basedir + File.separator + Constants.DEFAULT_TARGET_FOLDER,
+                getArchiveName() + Constants.BUILD_MANIFEST_SUFFIX);
+        String context = getArchiveName() + "|" + projectVersion + "|" + compressionLevel + "|" +
+                storedExtensions + "|" + entryTime + "|" + layered + "|" +
+                IncrementalBuild.describeFolder(new File(resourcesFolder, Constants.METADATA_DIR_NAME));
+        return IncrementalBuild.open(this, manifestFile, carFile, context);
     }
 
     /**
-     * Get archive file/directory.
-     *
-     * @param fileExtension to be included
-     * @return empty archive file
+     * Saves the dependency lockfile recorded by this build, if any.
      */
-    private File getArchiveFile(String fileExtension) {
-        File archiveLocation = new File(this.archiveLocation);
-        if (!archiveLocation.exists()) {
-            archiveLocation.mkdir();
+    private void saveDependencyLock() {
+
+        if (dependencyLock != null) {
+            try {
+                dependencyLock.save();
+            } catch (IOException e) {
+                logWarn("Failed to save the dependency lockfile: " + e.getMessage());
+            }
         }
-        return new File(archiveLocation, getArchiveName() + fileExtension);
     }
 
     /**
-     * Zip a folder.
+     * Writes the platform and application layers of a layered build, and attaches the platform layer to the
+     * project so that it is installed and deployed along with the application layer.
      *
-     * @param srcFolder:   file path of the archive directory
-     * @param destZipFile: file path of the .car file
-     */
-    private void zipFolder(String srcFolder, String destZipFile, String fileExtension) throws ArchiveException {
-        try (FileOutputStream fileWriter = new FileOutputStream(destZipFile);
-             ZipOutputStream zip = new ZipOutputStream(fileWriter)) {
-            addFolderContentsToZip(srcFolder, zip, fileExtension);
-            zip.flush();
-        } catch (IOException ex) {
-            throw new ArchiveException(Constants.ARCHIVE_EXCEPTION_MSG, ex);
+     * @param incrementalBuild incremental build of the application layer, or null
+     * @return true if both .car files were written
+     */
+    boolean writeLayeredArchives(CAppHandler cAppHandler, CARArchive archive, CARArchive platformArchive,
+                                 List<ArtifactDependency> platformDependencies, File carFile, long entryTime,
+                                 IncrementalBuild incrementalBuild) {
+        String platformArtifactId = project.getArtifactId() + Constants.PLATFORM_LAYER_SUFFIX;
+        cAppHandler.createDependencyArtifactsXmlFile(platformArchive, platformDependencies,
+                new ArrayList<ArtifactDependency>(), project, platformArtifactId);
+        cAppHandler.createDependencyDescriptorFile(platformArchive, project, platformArtifactId,
+                new ArrayList<CAppDependency>());
+        List<CAppDependency> cAppLayerDependencies =
+                new ArrayList<>(CAppDependencyResolver.getTopLevelCAppDependencies(project));
+        cAppLayerDependencies.add(new CAppDependency(project.getGroupId(), platformArtifactId,
+                project.getVersion()));
+        cAppHandler.createDependencyDescriptorFile(archive, project, project.getArtifactId(),
+                cAppLayerDependencies);
+        File platformCarFile = getPlatformArchiveFile();
+        if (!writeArchive(platformArchive, platformCarFile, entryTime, null) ||
+                !writeArchive(archive, carFile, entryTime, incrementalBuild)) {
+            return false;
         }
+        logInfo("Platform layer: " + platformCarFile.getName() + " (" + platformCarFile.length() +
+                " bytes), application layer: " + carFile.getName() + " (" + carFile.length() + " bytes)");
+        return attachPlatformLayer(platformCarFile);
     }
 
     /**
-     * Add contents in the given folder in the .car file.
+     * Attaches the platform layer to the project as {@code groupId:<artifactId>-platform:version:car}, the
+     * coordinates the descriptor.xml of the application layer depends on, along with a pom for those
+     * coordinates. A classifier is not used, since the runtime identifies a CApp dependency by its groupId,
+     * artifactId and version only, so a classified dependency would name the application layer itself.
      *
-     * @param srcFolder: file path of the archive directory
-     * @param zip:       ZipOutputStream
-     */
-    private void addFolderContentsToZip(String srcFolder, ZipOutputStream zip, String fileExtension)
-            throws ArchiveException {
-        File folder = new File(srcFolder);
-        String[] fileList = folder.list();
-        if (fileList == null) {
-            return;
-        }
+     * @param platformCarFile .car file of the platform layer
+     * @return true if the platform layer was attached
+     */
+    private boolean attachPlatformLayer(File platformCarFile) {
+        String platformArtifactId = project.getArtifactId() + Constants.PLATFORM_LAYER_SUFFIX;
+        File pomFile = getArchiveFile(Constants.PLATFORM_LAYER_SUFFIX + Constants.POM_EXTENSION);
         try {
-            int i = 0;
-            while (fileList.length != i) {
-                if (new File(folder, fileList[i]).isDirectory()) {
-                    zip.putNextEntry(new ZipEntry(fileList[i] + "/"));
-                    zip.closeEntry();
-                }
-                // stop the recursive loop
-                if (getArchiveName().concat(fileExtension).equals(fileList[i])) {
-                    i++;
-                    continue;
-                }
-                addToZip(Constants.EMPTY_STRING, srcFolder + "/" + fileList[i], zip);
-                i++;
+            Files.write(pomFile.toPath(), DescriptorXmlWriter.toBytes(writer -> writer
+                    .startElement(Constants.PROJECT)
+                    .attribute("xmlns", Constants.POM_NAMESPACE)
+                    .textElement("modelVersion", "4.0.0")
+                    .textElement(Constants.GROUP_ID, project.getGroupId())
+                    .textElement(Constants.ARTIFACT_ID, platformArtifactId)
+                    .textElement(Constants.VERSION, project.getVersion())
+                    .textElement("packaging", Constants.CAR_TYPE)
+                    .endElement()));
+        } catch (IOException e) {
+            logError("Error occurred while creating " + pomFile.getName());
+            logError(e.getMessage());
+            return false;
+        }
+        attachArtifact(platformArtifactId, Constants.CAR_TYPE, platformCarFile);
+        attachArtifact(platformArtifactId, Constants.POM_TYPE, pomFile);
+        return true;
+    }
+
+    private void attachArtifact(String artifactId, String type, File file) {
+        Artifact artifact = new DefaultArtifact(project.getGroupId(), artifactId,
+                VersionRange.createFromVersion(project.getVersion()), null, type, null,
+                new DefaultArtifactHandler(type));
+        artifact.setFile(file);
+        // A rebuild in the same session, such as in watch mode, replaces the artifact attached before.
+        for (Iterator<?> attached = project.getAttachedArtifacts().iterator(); attached.hasNext(); ) {
+            Object attachedArtifact = attached.next();
+            if (attachedArtifact instanceof Artifact &&
+                    ((Artifact) attachedArtifact).getId().equals(artifact.getId())) {
+                attached.remove();
             }
-        } catch (IOException ex) {
-            throw new ArchiveException(Constants.ARCHIVE_EXCEPTION_MSG, ex);
         }
+        project.addAttachedArtifact(artifact);
     }
 
     /**
-     * Add the given folder to the given location in the .car file.
+     * Writes an archive to the given .car file. The archive is written to a temporary file first, since an
+     * incremental build reads the previous .car file while writing the new one.
      *
-     * @param path:    file path in the .car file
-     * @param srcFile: file to be included in the .car file
-     * @param zip:     ZipOutputStream
-     */
-    private void addToZip(String path, String srcFile, ZipOutputStream zip) throws ArchiveException {
-        File folder = new File(srcFile);
-        if (folder.isDirectory()) {
-            addFolderToZip(path, srcFile, zip);
-        } else {
-            // Transfer bytes from in to out
-            byte[] buf = new byte[1024];
-            int len;
-            try (FileInputStream in = new FileInputStream(srcFile)) {
-                if (path.trim().equals(Constants.EMPTY_STRING)) {
-                    zip.putNextEntry(new ZipEntry(folder.getName()));
-                } else {
-                    zip.putNextEntry(new ZipEntry(path + "/" + folder.getName()));
-                }
-                while ((len = in.read(buf)) > 0) {
-                    zip.write(buf, 0, len);
-                }
-            } catch (IOException ex) {
-                throw new ArchiveException(Constants.ARCHIVE_EXCEPTION_MSG, ex);
+     * @param incrementalBuild incremental build of the .car file, or null
+     * @return true if the .car file was written
+     */
+    private boolean writeArchive(CARArchive archive, File carFile, long entryTime, IncrementalBuild incrementalBuild) {
+        File tempCarFile = new File(carFile.getParentFile(), carFile.getName() + ".tmp");
+        if (incrementalBuild != null) {
+            incrementalBuild.reuseUnchangedEntries(archive);
+        }
+        try {
+            String extensions = StringUtils.isEmpty(storedExtensions) ? Constants.DEFAULT_STORED_EXTENSIONS :
+                    storedExtensions;
+            CARArchiveWriter.write(archive, tempCarFile, archiveThreads, compressionLevel,
+                    CARArchiveWriter.parseExtensions(extensions), entryTime, contentManifest);
+            Files.move(tempCarFile.toPath(), carFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            if (incrementalBuild != null) {
+                incrementalBuild.save(archive);
             }
+            return true;
+        } catch (ArchiveException | IOException e) {
+            logError("Error occurred while creating " + carFile.getName());
+            logError(e.getMessage());
+            if (incrementalBuild != null) {
+                incrementalBuild.discard();
+            }
+            return false;
+        } finally {
+            if (tempCarFile.exists() && !tempCarFile.delete()) {
+                logWarn("Failed to delete " + tempCarFile.getAbsolutePath());
+            }
+        }
+    }
+
+    private File getPlatformArchiveFile() {
+        return getArchiveFile(Constants.PLATFORM_LAYER_SUFFIX + ".car");
+    }
+
+    private void bundleDataMappers(DataMapperBundler bundler) throws MojoExecutionException {
+        try {
+            bundler.bundleDataMapper();
+        } catch (DataMapperException e) {
+            getLog().error("Error during data mapper bundling: " + e.getMessage(), e);
+            throw new MojoExecutionException("Data Mapper bundling failed.", e);
         }
     }
 
     /**
-     * Add the given folder to the given location in the .car file.
+     * Indexes the project source folder with a single walk, so that the files of the project are looked up in
+     * memory while the .car file is built.
+     */
+    private ProjectIndex buildProjectIndex() {
+        File sourceFolder = new File(sourceDirectory, Constants.SOURCE_FOLDER_PATH);
+        try {
+            ProjectIndex projectIndex = ProjectIndex.build(sourceFolder);
+            getLog().debug("Indexed " + projectIndex.getFileCount() + " files in " + sourceFolder.getAbsolutePath());
+            return projectIndex;
+        } catch (IOException e) {
+            logWarn("Could not index " + sourceFolder.getAbsolutePath() + ": " + e.getMessage());
+            return ProjectIndex.none();
+        }
+    }
+
+    /**
+     * Parses the configured output timestamp into the modification time of the .car file entries.
      *
-     * @param path:      file path in the .car file
-     * @param srcFolder: folder to be included in the .car file
-     * @param zip:       ZipOutputStream
-     */
-    private void addFolderToZip(String path, String srcFolder, ZipOutputStream zip) throws ArchiveException {
-        File folder = new File(srcFolder);
-        String[] fileList = folder.list();
-        if (fileList == null) {
-            return;
+     * @return entry modification time in milliseconds since the epoch
+     */
+    private long parseOutputTimestamp() throws MojoExecutionException {
+        // A single character is the value Maven uses to disable reproducible timestamps in a child project.
+        if (StringUtils.isEmpty(outputTimestamp) || outputTimestamp.trim().length() < 2) {
+            return CARArchiveWriter.DEFAULT_ENTRY_TIME;
         }
+        String timestamp = outputTimestamp.trim();
         try {
-            int i = 0;
-            while (fileList.length != i) {
-                String newPath = folder.getName();
-                if (!path.equalsIgnoreCase(Constants.EMPTY_STRING)) {
-                    newPath = path + "/" + newPath;
-                }
-                if (new File(folder, fileList[i]).isDirectory()) {
-                    zip.putNextEntry(new ZipEntry(newPath + "/" + fileList[i] + "/"));
-                }
-                addToZip(newPath, srcFolder + "/" + fileList[i], zip);
-                i++;
+            if (timestamp.chars().allMatch(Character::isDigit)) {
+                return Long.parseLong(timestamp) * 1000;
             }
-        } catch (IOException ex) {
-            throw new ArchiveException(Constants.ARCHIVE_EXCEPTION_MSG, ex);
+            return Instant.parse(timestamp).toEpochMilli();
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new MojoExecutionException("Invalid output timestamp: " + outputTimestamp, e);
         }
     }
 
     /**
-     * Delete the file/folder in the given file path.
+     * Fingerprints the sources and settings the .car file is built from. The class mediator jar is fingerprinted
+     * by content since it is rebuilt on every build.
      *
-     * @param file          directory to be deleted
-     * @param fileExtension to exclude CAPP from deletion
+     * @return the fingerprint, or null if the project depends on snapshots, which may change without notice
      */
-    private void recursiveDelete(File file, String fileExtension) {
-        //to end the recursive loop
-        if (!file.exists()) {
-            return;
-        }
-        //if directory, go inside and call recursively
-        if (file.isDirectory()) {
-            File[] files = file.listFiles();
-            if (files == null) {
-                return;
+    private InputFingerprint createInputFingerprint(String basedir, long entryTime) {
+        for (Object depObj : project.getDependencies()) {
+            if (depObj instanceof Dependency && ((Dependency) depObj).getVersion() != null
+                    && ((Dependency) depObj).getVersion().endsWith("-SNAPSHOT")) {
+                getLog().debug("Skipping the up to date check since the project has snapshot dependencies");
+                return null;
             }
-            for (File f : files) {
-                //call recursively
-                recursiveDelete(f, fileExtension);
+        }
+        InputFingerprint fingerprint = new InputFingerprint();
+        try {
+            fingerprint.addValue("plugin.version", getClass().getPackage().getImplementationVersion());
+            fingerprint.addValue("project", project.getGroupId() + ":" + project.getArtifactId() + ":" +
+                    project.getVersion());
+            fingerprint.addValue("archiveName", getArchiveName());
+            fingerprint.addValue("archiveThreads", String.valueOf(archiveThreads > 1));
+            fingerprint.addValue("compressionLevel", String.valueOf(compressionLevel));
+            fingerprint.addValue("storedExtensions", storedExtensions);
+            fingerprint.addValue("entryTime", String.valueOf(entryTime));
+            fingerprint.addValue("unreachableArtifacts", unreachableArtifacts);
+            fingerprint.addValue("layered", String.valueOf(layered));
+            fingerprint.addValue("contentManifest", String.valueOf(contentManifest));
+            fingerprint.addValue("deduplicateConnectorLibraries", String.valueOf(deduplicateConnectorLibraries));
+            Properties properties = project.getProperties();
+            for (String name : new TreeSet<>(properties.stringPropertyNames())) {
+                fingerprint.addValue("property." + name, properties.getProperty(name));
             }
-        } else if (file.getName().equals(getArchiveName().concat(fileExtension))) {
-            return;
+            fingerprint.addFileContent("pom.xml", project.getFile());
+            fingerprint.addFileContent("classMediators", CAppHandler.getClassMediatorJar(project));
+            fingerprint.addTree("source", new File(sourceDirectory, Constants.SOURCE_FOLDER_PATH));
+        } catch (IOException e) {
+            getLog().warn("Skipping the up to date check: " + e.getMessage());
+            return null;
         }
-        //call delete to delete files and empty directory
-        file.delete();
+        return fingerprint;
+    }
+
+    /**
+     * Adds the folders the connector and CApp dependencies are resolved into to the given fingerprint.
+     */
+    private InputFingerprint withResolvedDependencies(InputFingerprint fingerprint, String basedir) {
+        InputFingerprint copy = fingerprint.copy();
+        File targetFolder = new File(basedir, Constants.DEFAULT_TARGET_FOLDER);
+        try {
+            copy.addTree(Constants.DEPENDENCY, new File(targetFolder, Constants.DEPENDENCY));
+            copy.addTree(Constants.LIBS, new File(targetFolder, Constants.LIBS));
+        } catch (IOException e) {
+            copy.addValue("resolvedDependencies", "unavailable: " + e.getMessage());
+        }
+        return copy;
+    }
+
+    /**
+     * Append log of BUILD process when building started.
+     */
+    private void appendLogs() {
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info("Building Composite Project");
+        getLog().info("------------------------------------------------------------------------");
+    }
+
+    /**
+     * Get archive file/directory.
+     *
+     * @param fileExtension to be included
+     * @return empty archive file
+     */
+    private File getArchiveFile(String fileExtension) {
+        File archiveLocation = new File(this.archiveLocation);
+        if (!archiveLocation.exists()) {
+            archiveLocation.mkdir();
+        }
+        return new File(archiveLocation, getArchiveName() + fileExtension);
     }
 
     private void resolveConnectorDependencies() throws MojoExecutionException {
@@ -341,10 +768,10 @@ public class CARMojo extends AbstractMojo {
         }
     }
 
-    private void resolveCAppDependencies(String tempTargetDir, List<ArtifactDependency> dependencies,
+    private void resolveCAppDependencies(CARArchive archive, List<ArtifactDependency> dependencies,
                                          List<ArtifactDependency> metaDependencies) throws MojoExecutionException {
         try {
-            CAppDependencyResolver.resolveDependencies(this, project, tempTargetDir, dependencies, metaDependencies);
+            CAppDependencyResolver.resolveDependencies(this, project, archive, dependencies, metaDependencies);
         } catch (Exception e) {
             getLog().error("Error occurred while resolving CApp dependencies.", e);
             throw new MojoExecutionException("CApp dependency resolution failed.", e);
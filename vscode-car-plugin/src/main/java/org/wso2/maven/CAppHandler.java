@@ -20,21 +20,26 @@ package org.wso2.maven;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FilenameFilter;
+import java.io.FileFilter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
 
-import org.apache.axiom.om.DeferredParsingException;
-import org.apache.axiom.om.OMAttribute;
 import org.apache.axiom.om.OMDocument;
 import org.apache.axiom.om.OMElement;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
+import org.wso2.maven.archive.CARArchive;
+import org.wso2.maven.incremental.IncrementalBuild;
 import org.wso2.maven.libraries.CAppDependencyResolver;
 import org.wso2.maven.model.Artifact;
 import org.wso2.maven.model.ArtifactDependency;
@@ -47,8 +52,12 @@ public class CAppHandler extends AbstractXMLDoc {
     private final String cAppName;
     private final CARMojo mojoInstance;
     private final List<ArtifactDetails> artifactTypeList;
-    private final Map<String, String> apiList = new HashMap<>();
-    private final Map<String, String> proxyList = new HashMap<>();
+    private final Map<String, String> apiList = new LinkedHashMap<>();
+    private final Map<String, String> proxyList = new LinkedHashMap<>();
+    private final List<File> consumedFiles = new ArrayList<>();
+    private IncrementalBuild incrementalBuild;
+    private ProjectIndex projectIndex = ProjectIndex.none();
+    private Set<File> excludedArtifacts = Collections.emptySet();
 
     public CAppHandler(String cAppName, CARMojo mojoInstance) {
         this.cAppName = cAppName;
@@ -70,113 +79,304 @@ public class CAppHandler extends AbstractXMLDoc {
         ));
     }
 
+    /**
+     * Sets the incremental build used to reuse the artifacts which have not changed since the previous build.
+     *
+     * @param incrementalBuild incremental build, or null to process every artifact
+     */
+    void setIncrementalBuild(IncrementalBuild incrementalBuild) {
+        this.incrementalBuild = incrementalBuild;
+    }
+
+    /**
+     * Sets the index used to look up the files of the project instead of the filesystem.
+     *
+     * @param projectIndex index of the project source folder
+     */
+    void setProjectIndex(ProjectIndex projectIndex) {
+        this.projectIndex = projectIndex;
+    }
+
     /**
      * Method to process artifacts in the artifacts folder and create corresponding files in the archive directory.
      *
      * @param artifactsFolder  path to artifacts folder
-     * @param archiveDirectory path to archive directory
+     * @param archive          archive to add the files to
      * @param dependencies     list of dependencies to be added to artifacts.xml file
      * @param version          version of the project
      */
-    void processArtifacts(File artifactsFolder, String archiveDirectory, List<ArtifactDependency> dependencies,
+    void processArtifacts(File artifactsFolder, CARArchive archive, List<ArtifactDependency> dependencies,
                           List<ArtifactDependency> metadataDependencies, String version) {
-        if (!artifactsFolder.exists()) {
+        if (!projectIndex.exists(artifactsFolder)) {
             mojoInstance.logInfo("Could not find artifacts folder in " + artifactsFolder.getAbsolutePath());
             return;
         }
         mojoInstance.logInfo("Processing artifacts in " + artifactsFolder.getAbsolutePath());
+        findUnreachableArtifacts(artifactsFolder);
+        int workers = mojoInstance.getProcessingThreads();
+        if (workers > 1) {
+            processArtifactsInParallel(artifactsFolder, archive, dependencies, metadataDependencies, version,
+                    workers);
+            return;
+        }
         for (ArtifactDetails artifactDetails : artifactTypeList) {
             File artifactFolder = new File(artifactsFolder, artifactDetails.getDirectory());
-            processArtifactsInFolder(artifactFolder, dependencies, metadataDependencies, version, archiveDirectory,
+            processArtifactsInFolder(artifactFolder, dependencies, metadataDependencies, version, archive,
                     artifactDetails.getServerRole(), artifactDetails.getType());
         }
     }
 
+    /**
+     * Finds the artifacts which are not reachable from any entry point of the project, when enabled, and either
+     * reports them or excludes them from the archive.
+     *
+     * @param artifactsFolder  path to artifacts folder
+     */
+    private void findUnreachableArtifacts(File artifactsFolder) {
+        String mode = mojoInstance.getUnreachableArtifacts();
+        if (!Constants.UNREACHABLE_ARTIFACTS_WARN.equals(mode) &&
+                !Constants.UNREACHABLE_ARTIFACTS_EXCLUDE.equals(mode)) {
+            return;
+        }
+        ArtifactReachability reachability = ArtifactReachability.analyze(artifactsFolder, artifactTypeList,
+                projectIndex, mojoInstance.getMainSequence());
+        List<File> unreachable = reachability.getUnreachable();
+        if (unreachable.isEmpty()) {
+            mojoInstance.logInfo("Every artifact is reachable from an entry point of the project");
+            return;
+        }
+        if (!reachability.hasEntryPoints()) {
+            // Such as a library of sequences and templates, whose artifacts are referenced by other CApps.
+            mojoInstance.logWarn("The project has no API, proxy service, inbound endpoint, task or other entry point "
+                    + "to find the reachable artifacts from, so every artifact is kept in the archive");
+            return;
+        }
+        boolean exclude = Constants.UNREACHABLE_ARTIFACTS_EXCLUDE.equals(mode);
+        for (File configFile : unreachable) {
+            String path = artifactsFolder.toPath().relativize(configFile.toPath()).toString();
+            if (exclude) {
+                mojoInstance.logInfo("Excluding unreachable artifact " + path);
+            } else {
+                mojoInstance.logWarn("Artifact " + path + " is not reachable from any entry point of the project");
+            }
+        }
+        String size = unreachable.size() + " unreachable artifacts (" +
+                FileUtils.byteCountToDisplaySize(reachability.getUnreachableBytes()) + ")";
+        if (exclude) {
+            excludedArtifacts = new HashSet<>(unreachable);
+            mojoInstance.logInfo("Excluded " + size + " from the archive");
+        } else {
+            mojoInstance.logWarn("Found " + size + ", which can be excluded with -DunreachableArtifacts=" +
+                    Constants.UNREACHABLE_ARTIFACTS_EXCLUDE);
+        }
+    }
+
+    /**
+     * Method to process the artifacts in the artifacts folder using a pool of worker threads. Each artifact file is
+     * processed as a separate task which collects its dependencies into its own result. The results are merged in
+     * the order the files are visited by the sequential build, so the artifacts.xml file stays the same. An
+     * exception thrown while processing an artifact is rethrown, so it fails the build as it does in a sequential
+     * build, rather than leaving out the artifacts after it.
+     *
+     * @param artifactsFolder  path to artifacts folder
+     * @param archive          archive to add the files to
+     * @param dependencies     list of dependencies to be added to artifacts.xml file
+     * @param version          version of the project
+     * @param workers          number of worker threads
+     */
+    private void processArtifactsInParallel(File artifactsFolder, CARArchive archive,
+                                            List<ArtifactDependency> dependencies,
+                                            List<ArtifactDependency> metadataDependencies, String version,
+                                            int workers) {
+        mojoInstance.logInfo("Processing artifacts using " + workers + " worker threads");
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        List<Future<ArtifactProcessingResult>> results = new ArrayList<>();
+        try {
+            for (ArtifactDetails artifactDetails : artifactTypeList) {
+                File artifactFolder = new File(artifactsFolder, artifactDetails.getDirectory());
+                File[] configFiles = projectIndex.listSortedFiles(artifactFolder);
+                if (configFiles == null) {
+                    continue;
+                }
+                for (File configFile : configFiles) {
+                    if (!projectIndex.isFile(configFile) || excludedArtifacts.contains(configFile)) {
+                        continue;
+                    }
+                    results.add(executor.submit(() -> {
+                        ArtifactProcessingResult result = new ArtifactProcessingResult();
+                        processArtifactFile(configFile, artifactFolder, result.dependencies,
+                                result.metadataDependencies, result.apis, result.proxies, version, result.archive,
+                                artifactDetails.getServerRole(), artifactDetails.getType());
+                        return result;
+                    }));
+                }
+            }
+            for (Future<ArtifactProcessingResult> future : results) {
+                ArtifactProcessingResult result = future.get();
+                dependencies.addAll(result.dependencies);
+                metadataDependencies.addAll(result.metadataDependencies);
+                apiList.putAll(result.apis);
+                proxyList.putAll(result.proxies);
+                archive.addAll(result.archive);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while processing artifacts in " +
+                    artifactsFolder.getAbsolutePath(), e);
+        } catch (ExecutionException e) {
+            // Fail the build with the exception the artifact would have failed a sequential build with.
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Error occurred while processing artifacts in " +
+                    artifactsFolder.getAbsolutePath(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Method to process given artifact type ex: api/proxy and create corresponding files in the archive directory.
      *
      * @param artifactsDir     path to artifacts folder
      * @param dependencies     list of dependencies to be added to artifacts.xml file
      * @param version          version of the project
-     * @param archiveDirectory path to archive directory
+     * @param archive          archive to add the files to
      * @param serverRole       server role of the artifact
      * @param type             type of the artifact
      */
     void processArtifactsInFolder(File artifactsDir, List<ArtifactDependency> dependencies,
-                                  List<ArtifactDependency> metadataDependencies, String version, String archiveDirectory,
+                                  List<ArtifactDependency> metadataDependencies, String version, CARArchive archive,
                                   String serverRole, String type) {
-        File[] configFiles = artifactsDir.listFiles();
+        File[] configFiles = projectIndex.listSortedFiles(artifactsDir);
         if (configFiles != null) {
             for (File configFile : configFiles) {
-                if (configFile.isFile()) {
-                    try {
-                        String fileContent = FileUtils.readFileToString(configFile);
-                        OMElement configElement = getElement(fileContent);
-                        String name = configElement.getAttributeValue(new QName(Constants.NAME));
-                        if (Constants.LOCAL_ENTRY_TYPE.equals(type)) {
-                            name = configElement.getAttributeValue(new QName(Constants.KEY));
-                        }
-                        if (Constants.DATASOURCE_TYPE.equals(type)) {
-                            // Remove .xml extension from the file name and use it as the artifact name
-                            // since the name attribute is not available in the datasource configuration
-                            name = configFile.getName().substring(0, configFile.getName().length() - 4);
-                        }
-                        String configVersion = configElement.getAttributeValue(new QName(Constants.VERSION));
-                        boolean apiHasVersion = true;
-                        if (Constants.API_TYPE.equals(type)) {
-                            // api version can be null
-                            apiList.put(name, configVersion);
-
-                            if (!isMetadataPresent(name, configVersion, artifactsDir, "_metadata.yaml")) {
-                                writeMetadataFile(name, configElement, archiveDirectory, Constants.API, version);
-                                addMetadataDependencies(metadataDependencies, configElement, Constants.API, version);
-                            }
-                        }
-                        if (Constants.PROXY_SERVICE_TYPE.equals(type)) {
-                            proxyList.put(name, configVersion);
-                            if (!isMetadataPresent(name, configVersion, artifactsDir,
-                                    Constants.PROXY_FILE_NAME_SUFFIX)) {
-                                writeMetadataFile(name, configElement, archiveDirectory, Constants.PROXY, version);
-                                addMetadataDependencies(metadataDependencies, configElement, Constants.PROXY, version);
-                            }
-                        }
-                        if (configVersion == null) {
-                            apiHasVersion = false;
-                            configVersion = version;
-                        }
-                        if (Constants.DATASERVICE_TYPE.equals(type)) {
-                            if (!isMetadataPresent(name, configVersion, artifactsDir,
-                                    Constants.DATA_SERVICE_FILE_NAME_SUFFIX)) {
-                                writeMetadataFile(name, configElement, archiveDirectory,
-                                        Constants.DATA_SERVICE, version);
-                                addMetadataDependencies(metadataDependencies, configElement,
-                                        Constants.DATA_SERVICE, version);
-                            }
-                        }
-                        String fileName;
-                        String folderName = "";
-                        if (Constants.API_TYPE.equals(type) && apiHasVersion) {
-                            // todo : need to fix this naming convention in runtime
-                            fileName = name + "_" + configVersion + "-" + configVersion;
-                            folderName = name + "_" + configVersion + "_" + configVersion;
-                        } else {
-                            fileName = name + "-" + configVersion;
-                            folderName = name + "_" + configVersion;
-                        }
-                        fileName = fileName.concat(Constants.DATASERVICE_TYPE.equals(type) ? ".dbs" : ".xml");
-                        name = apiHasVersion ? name + "_" + configVersion : name;
-                        dependencies.add(new ArtifactDependency(name, configVersion, serverRole, true));
-                        writeArtifactAndFile(configFile, archiveDirectory, name, type, serverRole, configVersion,
-                                fileName, folderName);
-                    } catch (IOException | XMLStreamException | DeferredParsingException e) {
-                        mojoInstance.logError("Error occurred while processing " + configFile.getName());
-                        mojoInstance.logError(e.getMessage());
-                    }
+                if (projectIndex.isFile(configFile) && !excludedArtifacts.contains(configFile)) {
+                    processArtifactFile(configFile, artifactsDir, dependencies, metadataDependencies, apiList,
+                            proxyList, version, archive, serverRole, type);
                 }
             }
         }
     }
 
+    /**
+     * Method to process a single artifact file and create corresponding files in the archive directory.
+     *
+     * @param configFile       artifact configuration file
+     * @param artifactsDir     path to artifacts folder of the given type
+     * @param dependencies     list of dependencies to be added to artifacts.xml file
+     * @param apis             collected APIs and their versions
+     * @param proxies          collected proxy services and their versions
+     * @param version          version of the project
+     * @param archive          archive to add the files to
+     * @param serverRole       server role of the artifact
+     * @param type             type of the artifact
+     */
+    private void processArtifactFile(File configFile, File artifactsDir, List<ArtifactDependency> dependencies,
+                                     List<ArtifactDependency> metadataDependencies, Map<String, String> apis,
+                                     Map<String, String> proxies, String version, CARArchive archive,
+                                     String serverRole, String type) {
+        if (incrementalBuild == null) {
+            processArtifactFileContent(configFile, artifactsDir, dependencies, metadataDependencies, apis, proxies,
+                    version, archive, serverRole, type);
+            return;
+        }
+        if (incrementalBuild.reuseArtifact(configFile, type, dependencies, metadataDependencies, apis, proxies,
+                archive)) {
+            return;
+        }
+        ArtifactProcessingResult result = new ArtifactProcessingResult();
+        if (processArtifactFileContent(configFile, artifactsDir, result.dependencies, result.metadataDependencies,
+                result.apis, result.proxies, version, result.archive, serverRole, type)) {
+            incrementalBuild.recordArtifact(configFile, type, result.dependencies, result.metadataDependencies,
+                    result.apis, result.proxies, result.archive);
+        }
+        dependencies.addAll(result.dependencies);
+        metadataDependencies.addAll(result.metadataDependencies);
+        apis.putAll(result.apis);
+        proxies.putAll(result.proxies);
+        archive.addAll(result.archive);
+    }
+
+    /**
+     * Method to parse a single artifact file and create corresponding files in the archive directory.
+     *
+     * @return true if the artifact was processed without errors
+     */
+    private boolean processArtifactFileContent(File configFile, File artifactsDir,
+                                               List<ArtifactDependency> dependencies,
+                                               List<ArtifactDependency> metadataDependencies,
+                                               Map<String, String> apis, Map<String, String> proxies,
+                                               String version, CARArchive archive, String serverRole, String type) {
+        try {
+            ArtifactHeader configElement = ArtifactHeader.read(configFile);
+            String name = configElement.getAttributeValue(Constants.NAME);
+            if (Constants.LOCAL_ENTRY_TYPE.equals(type)) {
+                name = configElement.getAttributeValue(Constants.KEY);
+            }
+            if (Constants.DATASOURCE_TYPE.equals(type)) {
+                // Remove .xml extension from the file name and use it as the artifact name
+                // since the name attribute is not available in the datasource configuration
+                name = configFile.getName().substring(0, configFile.getName().length() - 4);
+            }
+            String configVersion = configElement.getAttributeValue(Constants.VERSION);
+            boolean apiHasVersion = true;
+            if (Constants.API_TYPE.equals(type)) {
+                // api version can be null
+                apis.put(name, configVersion);
+
+                if (!isMetadataPresent(name, configVersion, artifactsDir, "_metadata.yaml")) {
+                    writeMetadataFile(name, configElement, archive, Constants.API, version);
+                    addMetadataDependencies(metadataDependencies, configElement, Constants.API, version);
+                }
+            }
+            if (Constants.PROXY_SERVICE_TYPE.equals(type)) {
+                proxies.put(name, configVersion);
+                if (!isMetadataPresent(name, configVersion, artifactsDir,
+                        Constants.PROXY_FILE_NAME_SUFFIX)) {
+                    writeMetadataFile(name, configElement, archive, Constants.PROXY, version);
+                    addMetadataDependencies(metadataDependencies, configElement, Constants.PROXY, version);
+                }
+            }
+            if (configVersion == null) {
+                apiHasVersion = false;
+                configVersion = version;
+            }
+            if (Constants.DATASERVICE_TYPE.equals(type)) {
+                if (!isMetadataPresent(name, configVersion, artifactsDir,
+                        Constants.DATA_SERVICE_FILE_NAME_SUFFIX)) {
+                    writeMetadataFile(name, configElement, archive,
+                            Constants.DATA_SERVICE, version);
+                    addMetadataDependencies(metadataDependencies, configElement,
+                            Constants.DATA_SERVICE, version);
+                }
+            }
+            String fileName;
+            String folderName = "";
+            if (Constants.API_TYPE.equals(type) && apiHasVersion) {
+                // todo : need to fix this naming convention in runtime
+                fileName = name + "_" + configVersion + "-" + configVersion;
+                folderName = name + "_" + configVersion + "_" + configVersion;
+            } else {
+                fileName = name + "-" + configVersion;
+                folderName = name + "_" + configVersion;
+            }
+            fileName = fileName.concat(Constants.DATASERVICE_TYPE.equals(type) ? ".dbs" : ".xml");
+            name = apiHasVersion ? name + "_" + configVersion : name;
+            dependencies.add(new ArtifactDependency(name, configVersion, serverRole, true));
+            writeArtifactAndFile(configFile, archive, name, type, serverRole, configVersion,
+                    fileName, folderName);
+            return true;
+        } catch (IOException | XMLStreamException e) {
+            mojoInstance.logError("Error occurred while processing " + configFile.getName());
+            mojoInstance.logError(e.getMessage());
+            return false;
+        }
+    }
+
     private boolean isMetadataPresent(String name, String configVersion, File artifactsDir, String suffix) {
 
         String metadataFilename;
@@ -189,88 +389,131 @@ public class CAppHandler extends AbstractXMLDoc {
                 .resolve(Constants.RESOURCES).toFile();
         File metadataFolder = new File(resourcesFolder, Constants.METADATA_DIR_NAME);
         File metaFile = new File(metadataFolder, metadataFilename);
-        return metaFile.exists();
+        return projectIndex.exists(metaFile);
     }
 
     /**
      * Method to process resources folder and create corresponding files in the archive directory.
      *
      * @param resourcesFolder  path to resources folder
-     * @param archiveDirectory path to archive directory
+     * @param archive          archive to add the files to
      * @param dependencies     list of dependencies to be added to artifacts.xml file
      */
-    void processResourcesFolder(File resourcesFolder, String archiveDirectory, List<ArtifactDependency> dependencies,
+    void processResourcesFolder(File resourcesFolder, CARArchive archive, List<ArtifactDependency> dependencies,
                                 List<ArtifactDependency> metadataDependencies, String version, MavenProject project) {
-        if (!resourcesFolder.exists()) {
+        processResourcesFolder(resourcesFolder, archive, dependencies, metadataDependencies, version, project,
+                archive, dependencies);
+    }
+
+    /**
+     * Method to process resources folder and create corresponding files in the archive directory, adding the
+     * connectors to a separate archive.
+     *
+     * @param resourcesFolder      path to resources folder
+     * @param archive              archive to add the files to
+     * @param dependencies         list of dependencies to be added to artifacts.xml file
+     * @param connectorArchive     archive to add the connectors to
+     * @param connectorDependencies list of dependencies to be added to artifacts.xml file of the connector archive
+     */
+    void processResourcesFolder(File resourcesFolder, CARArchive archive, List<ArtifactDependency> dependencies,
+                                List<ArtifactDependency> metadataDependencies, String version, MavenProject project,
+                                CARArchive connectorArchive, List<ArtifactDependency> connectorDependencies) {
+        if (!projectIndex.exists(resourcesFolder)) {
             mojoInstance.logInfo("Could not find resources folder in " + resourcesFolder.getAbsolutePath());
             return;
         }
-        processConnectors(resourcesFolder, archiveDirectory, dependencies, Constants.CONNECTORS_DIR_NAME);
+        processConnectors(resourcesFolder, connectorArchive, connectorDependencies, Constants.CONNECTORS_DIR_NAME);
         if (MavenUtils.isConnectorPackingSupported(project)) {
-            processConnectors(resourcesFolder, archiveDirectory, dependencies, Constants.INBOUND_CONNECTORS_DIR_NAME);
+            processConnectors(resourcesFolder, connectorArchive, connectorDependencies,
+                    Constants.INBOUND_CONNECTORS_DIR_NAME);
         }
-        processRegistryResources(resourcesFolder, archiveDirectory, dependencies);
-        processRegistryResources(new File(resourcesFolder, Constants.REGISTRY_DIR_NAME), archiveDirectory, dependencies);
-        processMetadata(resourcesFolder, archiveDirectory, metadataDependencies, version);
-        processPropertyFile(resourcesFolder, archiveDirectory, version, dependencies);
+        processRegistryResources(resourcesFolder, archive, dependencies);
+        processRegistryResources(new File(resourcesFolder, Constants.REGISTRY_DIR_NAME), archive, dependencies);
+        processMetadata(resourcesFolder, archive, metadataDependencies, version);
+        processPropertyFile(resourcesFolder, archive, version, dependencies);
     }
 
     /**
      * Method to process connectors in the resources folder and create corresponding files in the archive directory.
      *
      * @param resourcesFolder  path to resources folder
-     * @param archiveDirectory path to archive directory
+     * @param archive          archive to add the files to
      * @param dependencies     list of dependencies to be added to artifacts.xml file
      */
-    void processConnectors(File resourcesFolder, String archiveDirectory, List<ArtifactDependency> dependencies, String dirName) {
+    void processConnectors(File resourcesFolder, CARArchive archive, List<ArtifactDependency> dependencies, String dirName) {
         mojoInstance.logInfo("Processing connectors in " + resourcesFolder.getAbsolutePath());
         File connectorFolder = new File(resourcesFolder, dirName);
-        if (!connectorFolder.exists()) {
+        if (!projectIndex.exists(connectorFolder)) {
             return;
         }
-        File[] connectorFiles = connectorFolder.listFiles();
+        File[] connectorFiles = projectIndex.listSortedFiles(connectorFolder);
         if (connectorFiles == null) {
             return;
         }
         for (File connector : connectorFiles) {
-            if (connector.isFile() && connector.getName().endsWith(".zip")) {
+            if (projectIndex.isFile(connector) && connector.getName().endsWith(".zip")) {
                 String fileName = connector.getName();
                 int lastIndex = fileName.lastIndexOf('-');
                 String name = fileName.substring(0, lastIndex);
                 // remove .zip at the end
                 String version = fileName.substring(lastIndex + 1, fileName.length() - 4);
                 dependencies.add(new ArtifactDependency(name, version, Constants.SERVER_ROLE_EI, true));
-                writeArtifactAndFile(connector, archiveDirectory, name, Constants.CONNECTOR_TYPE,
+                writeArtifactAndFile(connector, archive, name, Constants.CONNECTOR_TYPE,
                         Constants.SERVER_ROLE_EI, version, fileName, name + "_" + version);
             }
         }
     }
 
-    void processPropertyFile(File resourcesFolder, String archiveDirectory, String version,
+    void processPropertyFile(File resourcesFolder, CARArchive archive, String version,
                              List<ArtifactDependency> dependencies) {
         File confFolder = new File(resourcesFolder, Constants.CONF_DIR_NAME);
         File propertyFile = new File(confFolder, Constants.PROPERTY_FILE);
-        if (!propertyFile.exists()) {
+        if (!projectIndex.exists(propertyFile)) {
             return;
         }
         mojoInstance.logInfo("Processing property file in " + confFolder.getAbsolutePath());
-        writeArtifactAndFile(propertyFile, archiveDirectory, Constants.PROPERTY_FILE_NAME, Constants.PROPERTY_TYPE,
+        writeArtifactAndFile(propertyFile, archive, Constants.PROPERTY_FILE_NAME, Constants.PROPERTY_TYPE,
                 Constants.SERVER_ROLE_EI, version, Constants.PROPERTY_FILE,
                 Constants.PROPERTY_FILE_NAME + "_" + version);
         dependencies.add(new ArtifactDependency(Constants.PROPERTY_FILE_NAME, version, Constants.SERVER_ROLE_EI, true));
     }
 
+    /**
+     * Adds the folders and files of a registry collection to the archive. The tree is listed from the project index,
+     * so the collection is neither walked again nor copied to a staging folder; the files are read once, when the
+     * archive is written.
+     *
+     * @param archive       archive to add the collection to
+     * @param directoryPath path of the collection inside the archive
+     * @param folder        folder of the collection
+     */
+    private void addCollection(CARArchive archive, String directoryPath, File folder) {
+        archive.addDirectory(directoryPath);
+        File[] children = projectIndex.listSortedFiles(folder);
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            String entryPath = directoryPath + "/" + child.getName();
+            if (projectIndex.isFile(child)) {
+                archive.addFile(entryPath, child);
+            } else {
+                addCollection(archive, entryPath, child);
+            }
+        }
+    }
+
     /**
      * Method to process registry resources in the resources folder and create corresponding files in the archive directory.
      *
      * @param resourcesFolder  path to resources folder
-     * @param archiveDirectory path to archive directory
+     * @param archive          archive to add the files to
      * @param dependencies     list of dependencies to be added to artifacts.xml file
      */
-    void processRegistryResources(File resourcesFolder, String archiveDirectory, List<ArtifactDependency> dependencies) {
+    void processRegistryResources(File resourcesFolder, CARArchive archive, List<ArtifactDependency> dependencies) {
         mojoInstance.logInfo("Processing registry resources in " + resourcesFolder.getAbsolutePath());
         File artifactFile = new File(resourcesFolder, Constants.ARTIFACT_XML);
-        if (!artifactFile.exists()) {
+        if (!projectIndex.exists(artifactFile)) {
             return;
         }
         try {
@@ -280,7 +523,7 @@ public class CAppHandler extends AbstractXMLDoc {
             for (OMElement artifact : artifactChildElements) {
                 String name = artifact.getAttributeValue(new QName(Constants.NAME));
                 String version = artifact.getAttributeValue(new QName(Constants.VERSION));
-                String commonPath = Paths.get(archiveDirectory, name + "_" + version).toString();
+                String commonPath = name + "_" + version;
                 if (artifact.getFirstChildWithName(new QName(Constants.ITEM)) != null) {
                     OMElement item = getFirstChildWithName(artifact, Constants.ITEM);
                     String fileName = item.getFirstChildWithName(new QName(Constants.FILE)).getText();
@@ -296,17 +539,14 @@ public class CAppHandler extends AbstractXMLDoc {
                         path = path.substring(Constants.CONF_REG_PREFIX.length());
                         registryResource = new File(resourcesFolder, Constants.CONF_FOLDER + path + "/" + fileName);
                     }
-                    if (!registryResource.exists()) {
+                    if (!projectIndex.exists(registryResource)) {
                         mojoInstance.logError("Registry resource " + path + "/" + fileName + " does not exist");
                         continue;
                     }
-                    org.wso2.developerstudio.eclipse.utils.file.FileUtils.copy(registryResource,
-                            new File(Paths.get(archiveDirectory, name + "_" + version, Constants.RESOURCES,
-                                    fileName).toString()));
+                    archive.addFile(commonPath + "/" + Constants.RESOURCES + "/" + fileName, registryResource);
                     OMElement infoElement = getElement(Constants.RESOURCES, Constants.EMPTY_STRING);
                     infoElement.addChild(item);
-                    org.wso2.developerstudio.eclipse.utils.file.FileUtils.createFile(
-                            new File(commonPath, Constants.REG_INFO_FILE), serialize(infoElement));
+                    archive.addContent(commonPath + "/" + Constants.REG_INFO_FILE, serialize(infoElement));
                 } else if (artifact.getFirstChildWithName(new QName(Constants.COLLECTION)) != null) {
                     OMElement collection = getFirstChildWithName(artifact, Constants.COLLECTION);
                     String directory = collection.getFirstChildWithName(new QName(Constants.DIRECTORY)).getText();
@@ -322,19 +562,16 @@ public class CAppHandler extends AbstractXMLDoc {
                         path = path.substring(Constants.CONF_REG_PREFIX.length());
                         registryResource = new File(resourcesFolder, Constants.CONF_FOLDER + path);
                     }
-                    if (!registryResource.exists()) {
+                    if (!projectIndex.exists(registryResource)) {
                         mojoInstance.logError("Registry resource " + path + " does not exist");
                         continue;
                     }
 
-                    File destFile = new File(Paths.get(archiveDirectory, name + "_" + version, Constants.RESOURCES,
-                            directory).toString());
-                    destFile.mkdirs();
-                    FileUtils.copyDirectory(registryResource, destFile);
+                    addCollection(archive, commonPath + "/" + Constants.RESOURCES + "/" + directory,
+                            registryResource);
                     OMElement infoElement = getElement(Constants.RESOURCES, Constants.EMPTY_STRING);
                     infoElement.addChild(collection);
-                    org.wso2.developerstudio.eclipse.utils.file.FileUtils.createFile(
-                            new File(commonPath, Constants.REG_INFO_FILE), serialize(infoElement));
+                    archive.addContent(commonPath + "/" + Constants.REG_INFO_FILE, serialize(infoElement));
                 }
                 dependencies.add(new ArtifactDependency(name, version, Constants.SERVER_ROLE_EI, true));
                 Artifact artifactObject = new Artifact();
@@ -344,9 +581,8 @@ public class CAppHandler extends AbstractXMLDoc {
                 artifactObject.setServerRole(Constants.SERVER_ROLE_EI);
                 artifactObject.setFile(Constants.REG_INFO_FILE);
 
-                String artifactDataAsString = createArtifactData(artifactObject);
-                org.wso2.developerstudio.eclipse.utils.file.FileUtils.createFile(
-                        new File(commonPath, Constants.ARTIFACT_XML), artifactDataAsString);
+                byte[] artifactData = createArtifactData(artifactObject);
+                archive.addContent(commonPath + "/" + Constants.ARTIFACT_XML, artifactData);
 
             }
         } catch (IOException | XMLStreamException | MojoExecutionException e) {
@@ -359,9 +595,9 @@ public class CAppHandler extends AbstractXMLDoc {
      * Method to process metadata in the resources folder and create corresponding files in the archive directory.
      *
      * @param resourcesFolder  path to resources folder
-     * @param archiveDirectory path to archive directory
+     * @param archive          archive to add the files to
      */
-    void processMetadata(File resourcesFolder, String archiveDirectory, List<ArtifactDependency> metadataDependencies,
+    void processMetadata(File resourcesFolder, CARArchive archive, List<ArtifactDependency> metadataDependencies,
                          String version) {
         mojoInstance.logInfo("Processing metadata in " + resourcesFolder.getAbsolutePath());
         File metadataFolder = new File(resourcesFolder, Constants.METADATA_DIR_NAME);
@@ -380,7 +616,7 @@ public class CAppHandler extends AbstractXMLDoc {
                     apiVersionExists = false;
                 }
                 File metaFile = new File(metadataFolder, metadataFilename);
-                if (metaFile.exists()) {
+                if (projectIndex.exists(metaFile)) {
                     String folderName = Constants.METADATA_DIR_NAME + "/" + apiName + "_metadata_" + apiVersion;
                     String fileName = apiName + "_metadata-" + apiVersion + ".yaml";
                     if (apiVersionExists) {
@@ -389,12 +625,12 @@ public class CAppHandler extends AbstractXMLDoc {
                                 + apiVersion;
                         String name = apiName + "_" + apiVersion + "_metadata";
                         metadataDependencies.add(new ArtifactDependency(name, apiVersion, Constants.SERVER_ROLE_EI, true));
-                        writeArtifactAndFile(metaFile, archiveDirectory, name, Constants.METADATA_TYPE,
+                        writeArtifactAndFile(metaFile, archive, name, Constants.METADATA_TYPE,
                                 Constants.SERVER_ROLE_EI, apiVersion, fileName, folderName);
                     } else {
                         metadataDependencies.add(new ArtifactDependency(apiName + "_metadata", version,
                                 Constants.SERVER_ROLE_EI, true));
-                        writeArtifactAndFile(metaFile, archiveDirectory, apiName + "_metadata",
+                        writeArtifactAndFile(metaFile, archive, apiName + "_metadata",
                                 Constants.METADATA_TYPE, Constants.SERVER_ROLE_EI, apiVersion, fileName, folderName);
                     }
                 }
@@ -402,7 +638,7 @@ public class CAppHandler extends AbstractXMLDoc {
                     continue;
                 }
                 File swaggerFile = new File(metadataFolder, swaggerFilename);
-                if (swaggerFile.exists()) {
+                if (projectIndex.exists(swaggerFile)) {
                     String folderName = Constants.METADATA_DIR_NAME + "/" + apiName + "_swagger_" + apiVersion;
                     String fileName = apiName + "_swagger-" + apiVersion + ".yaml";
                     if (apiVersionExists) {
@@ -411,12 +647,12 @@ public class CAppHandler extends AbstractXMLDoc {
                                 + apiVersion;
                         String name = apiName + "_" + apiVersion + "_swagger";
                         metadataDependencies.add(new ArtifactDependency(name, apiVersion, Constants.SERVER_ROLE_EI, true));
-                        writeArtifactAndFile(swaggerFile, archiveDirectory, name, Constants.METADATA_TYPE,
+                        writeArtifactAndFile(swaggerFile, archive, name, Constants.METADATA_TYPE,
                                 Constants.SERVER_ROLE_EI, apiVersion, fileName, folderName);
                     } else {
                         metadataDependencies.add(new ArtifactDependency(apiName + "_swagger", apiVersion,
                                 Constants.SERVER_ROLE_EI, true));
-                        writeArtifactAndFile(swaggerFile, archiveDirectory, apiName + "_swagger",
+                        writeArtifactAndFile(swaggerFile, archive, apiName + "_swagger",
                                 Constants.METADATA_TYPE, Constants.SERVER_ROLE_EI, apiVersion, fileName, folderName);
                     }
                 }
@@ -430,8 +666,8 @@ public class CAppHandler extends AbstractXMLDoc {
                     proxyVersion = version;
                 }
                 File metaFile = new File(metadataFolder, proxyName + "_proxy_metadata.yaml");
-                if (metaFile.exists()) {
-                    writeArtifactAndFile(metaFile, archiveDirectory, proxyName + "_proxy_metadata",
+                if (projectIndex.exists(metaFile)) {
+                    writeArtifactAndFile(metaFile, archive, proxyName + "_proxy_metadata",
                             Constants.METADATA_TYPE, Constants.SERVER_ROLE_EI, proxyVersion, proxyName +
                                     "_proxy_metadata-" + proxyVersion + ".yaml", Constants.METADATA_DIR_NAME + "/" +
                                     proxyName + "_proxy_metadata_" + proxyVersion);
@@ -443,10 +679,10 @@ public class CAppHandler extends AbstractXMLDoc {
     }
 
     /**
-     * Method to write artifact.xml and file to the archive directory.
+     * Method to add artifact.xml and the artifact file to the archive.
      *
      * @param configFile       configuration file to write to the archive
-     * @param archiveDirectory path to archive directory
+     * @param archive          archive to add the files to
      * @param name             name of the artifact
      * @param type             type of the artifact
      * @param serverRole       server role of the artifact
@@ -454,18 +690,18 @@ public class CAppHandler extends AbstractXMLDoc {
      * @param fileName         name of the file
      * @param folderName       name of the folder
      */
-    private void writeArtifactAndFile(File configFile, String archiveDirectory, String name, String type,
+    private void writeArtifactAndFile(File configFile, CARArchive archive, String name, String type,
                                       String serverRole, String configVersion, String fileName, String folderName) {
 
-        writeArtifactAndFile(configFile, archiveDirectory, name, type, serverRole, configVersion, fileName,
+        writeArtifactAndFile(configFile, archive, name, type, serverRole, configVersion, fileName,
                 folderName, null);
     }
 
     /**
-     * Method to write artifact.xml and file to the archive directory.
+     * Method to add artifact.xml and the artifact file to the archive.
      *
      * @param configFile       configuration file to write to the archive
-     * @param archiveDirectory path to archive directory
+     * @param archive          archive to add the files to
      * @param name             name of the artifact
      * @param type             type of the artifact
      * @param serverRole       server role of the artifact
@@ -474,7 +710,7 @@ public class CAppHandler extends AbstractXMLDoc {
      * @param folderName       name of the folder
      * @param connectorName    name of the connector
      */
-    private void writeArtifactAndFile(File configFile, String archiveDirectory, String name, String type,
+    private void writeArtifactAndFile(File configFile, CARArchive archive, String name, String type,
                                       String serverRole, String configVersion, String fileName, String folderName,
                                       String connectorName) {
 
@@ -488,13 +724,10 @@ public class CAppHandler extends AbstractXMLDoc {
             artifactObject.setConnector(connectorName);
         }
         try {
-            String artifactDataAsString = createArtifactData(artifactObject);
-            org.wso2.developerstudio.eclipse.utils.file.FileUtils.createFile(
-                    new File(Paths.get(archiveDirectory, folderName).toString(), Constants.ARTIFACT_XML),
-                    artifactDataAsString);
-            org.wso2.developerstudio.eclipse.utils.file.FileUtils.copy(configFile,
-                    new File(Paths.get(archiveDirectory, folderName, fileName).toString()));
-        } catch (IOException | MojoExecutionException e) {
+            byte[] artifactData = createArtifactData(artifactObject);
+            archive.addContent(folderName + "/" + Constants.ARTIFACT_XML, artifactData);
+            archive.addFile(folderName + "/" + fileName, configFile);
+        } catch (MojoExecutionException e) {
             mojoInstance.logError("Error occurred while creating " + fileName);
             mojoInstance.logError(e.getMessage());
         }
@@ -504,10 +737,10 @@ public class CAppHandler extends AbstractXMLDoc {
      * Method to process API definitions in the resources folder and create corresponding files in the archive directory.
      *
      * @param resourcesFolder      path to resources folder
-     * @param archiveDirectory     path to archive directory
+     * @param archive              archive to add the files to
      * @param metadataDependencies list of dependencies to be added to artifacts.xml file
      */
-    void processAPIDefinitions(File resourcesFolder, String archiveDirectory, List<ArtifactDependency> metadataDependencies,
+    void processAPIDefinitions(File resourcesFolder, CARArchive archive, List<ArtifactDependency> metadataDependencies,
                                String projectVersion) {
 
         mojoInstance.logInfo("Processing API definitions in " + resourcesFolder.getAbsolutePath());
@@ -525,7 +758,7 @@ public class CAppHandler extends AbstractXMLDoc {
                     swaggerFilename = apiName + "_v" + apiVersion + ".yaml";
                 }
                 File swaggerFile = new File(metadataFolder, swaggerFilename);
-                if (swaggerFile.exists()) {
+                if (projectIndex.exists(swaggerFile)) {
                     String folderName;
                     String fileName;
                     if (apiVersionExists) {
@@ -534,7 +767,7 @@ public class CAppHandler extends AbstractXMLDoc {
                                 + apiVersion;
                         String name = apiName + "_" + apiVersion + "_swagger";
                         metadataDependencies.add(new ArtifactDependency(name, apiVersion, Constants.SERVER_ROLE_EI, true));
-                        writeArtifactAndFile(swaggerFile, archiveDirectory, name, Constants.METADATA_TYPE,
+                        writeArtifactAndFile(swaggerFile, archive, name, Constants.METADATA_TYPE,
                                 Constants.SERVER_ROLE_EI, apiVersion, fileName, folderName);
                     } else {
                         folderName = Constants.METADATA_DIR_NAME + "/" + apiName + "_swagger_" + apiVersion;
@@ -542,7 +775,7 @@ public class CAppHandler extends AbstractXMLDoc {
                         String name = apiName + "_swagger";
                         metadataDependencies.add(new ArtifactDependency(name, apiVersion,
                                 Constants.SERVER_ROLE_EI, true));
-                        writeArtifactAndFile(swaggerFile, archiveDirectory, name,
+                        writeArtifactAndFile(swaggerFile, archive, name,
                                 Constants.METADATA_TYPE, Constants.SERVER_ROLE_EI, apiVersion, fileName, folderName);
                     }
                 }
@@ -551,23 +784,19 @@ public class CAppHandler extends AbstractXMLDoc {
     }
 
     /**
-     * Method to write metadata file to the archive directory.
+     * Method to add the metadata file to the archive.
      *
      * @param name             name of the artifact
      * @param apiElement       OMElement of the artifact
-     * @param archiveDirectory path to archive directory
+     * @param archive          archive to add the files to
      * @param artifactType     artifact type
      */
-    private void writeMetadataFile(String name, OMElement apiElement, String archiveDirectory, String artifactType,
+    private void writeMetadataFile(String name, ArtifactHeader apiElement, CARArchive archive, String artifactType,
                                    String projectVersion) {
         boolean isProxy = artifactType.equalsIgnoreCase(Constants.PROXY);
         boolean isDataService = artifactType.equalsIgnoreCase(Constants.DATA_SERVICE);
         try {
-            String version = null;
-            OMAttribute versionAtt = apiElement.getAttribute(new QName(Constants.VERSION));
-            if (versionAtt != null) {
-                version = versionAtt.getAttributeValue();
-            }
+            String version = apiElement.getAttributeValue(Constants.VERSION);
             String artifactName;
             String metadataFolder;
             String metadataFileName;
@@ -592,27 +821,22 @@ public class CAppHandler extends AbstractXMLDoc {
             artifactObject.setServerRole(Constants.SERVER_ROLE_EI);
             artifactObject.setFile(metadataFileName);
 
-            String artifactDataAsString = createArtifactData(artifactObject);
-            String metadata = Paths.get(archiveDirectory, "metadata", metadataFolder).toString();
-            org.wso2.developerstudio.eclipse.utils.file.FileUtils.createFile(
-                    new File(metadata, Constants.ARTIFACT_XML),
-                    artifactDataAsString);
+            byte[] artifactData = createArtifactData(artifactObject);
+            String metadata = Constants.METADATA_DIR_NAME + "/" + metadataFolder;
+            archive.addContent(metadata + "/" + Constants.ARTIFACT_XML, artifactData);
             if (isProxy) {
-                org.wso2.developerstudio.eclipse.utils.file.FileUtils.createFile(
-                        new File(metadata, metadataFileName),
+                archive.addContent(metadata + "/" + metadataFileName,
                         getProxyMetadataPropertiesAsString(apiElement, projectVersion));
             } else {
                 if (isDataService) {
-                    org.wso2.developerstudio.eclipse.utils.file.FileUtils.createFile(
-                            new File(metadata, metadataFileName),
+                    archive.addContent(metadata + "/" + metadataFileName,
                             getAPIMetadataPropertiesAsString(apiElement, projectVersion, true));
                 } else {
-                    org.wso2.developerstudio.eclipse.utils.file.FileUtils.createFile(
-                            new File(metadata, metadataFileName),
+                    archive.addContent(metadata + "/" + metadataFileName,
                             getAPIMetadataPropertiesAsString(apiElement, projectVersion, false));
                 }
             }
-        } catch (IOException | MojoExecutionException e) {
+        } catch (MojoExecutionException e) {
             mojoInstance.logError("Error occurred while creating metadata file");
             mojoInstance.logError(e.getMessage());
         }
@@ -621,22 +845,22 @@ public class CAppHandler extends AbstractXMLDoc {
     /**
      * Method to get metadata properties as a string for an API.
      *
-     * @param apiElement     OMElement of the API
+     * @param apiElement     root element of the API
      * @param projectVersion version of the project
      * @return metadata properties as a string
      */
-    private String getAPIMetadataPropertiesAsString(OMElement apiElement, String projectVersion, boolean isDataService) {
+    private String getAPIMetadataPropertiesAsString(ArtifactHeader apiElement, String projectVersion, boolean isDataService) {
 
         String version = getAPIVersion(apiElement, projectVersion);
         String key;
         if (isDataService) {
-            key = apiElement.getAttributeValue(new QName(Constants.NAME)) +
+            key = apiElement.getAttributeValue(Constants.NAME) +
                     Constants.PROXY_WITH_UNDERSCORE + "-" + version;
         } else {
-            key = apiElement.getAttributeValue(new QName(Constants.NAME)) + "-" + version;
+            key = apiElement.getAttributeValue(Constants.NAME) + "-" + version;
         }
-        String name = apiElement.getAttributeValue(new QName(Constants.NAME));
-        OMAttribute descriptionAtr = apiElement.getAttribute(new QName(Constants.DESCRIPTION));
+        String name = apiElement.getAttributeValue(Constants.NAME);
+        String description = apiElement.getAttributeValue(Constants.DESCRIPTION);
 
         StringBuilder builder = new StringBuilder();
         // Creating the YAML file
@@ -644,13 +868,13 @@ public class CAppHandler extends AbstractXMLDoc {
         builder.append("key: \"").append(key).append("\"\n");
         builder.append("name: \"").append(name).append("\"\n");
         builder.append("displayName: \"").append(name).append("\"\n");
-        if (descriptionAtr != null) {
-            builder.append("description: \"").append(descriptionAtr.getAttributeValue()).append("\"\n");
+        if (description != null) {
+            builder.append("description: \"").append(description).append("\"\n");
         }
         builder.append("version: \"").append(version).append("\"\n");
         if (isDataService) {
             builder.append("serviceUrl: \"").append(getProxyServiceURL(apiElement.
-                    getAttributeValue(new QName(Constants.NAME)))).append("\"\n");
+                    getAttributeValue(Constants.NAME))).append("\"\n");
         } else {
             builder.append("serviceUrl: \"").append(getAPIURL(apiElement)).append("\"\n");
         }
@@ -663,15 +887,15 @@ public class CAppHandler extends AbstractXMLDoc {
     /**
      * Method to get metadata properties as a string for a proxy service.
      *
-     * @param proxyElement   OMElement of the proxy service
+     * @param proxyElement   root element of the proxy service
      * @param projectVersion version of the project
      * @return metadata properties as a string
      */
-    private String getProxyMetadataPropertiesAsString(OMElement proxyElement, String projectVersion) {
+    private String getProxyMetadataPropertiesAsString(ArtifactHeader proxyElement, String projectVersion) {
 
-        String key = proxyElement.getAttributeValue(new QName(Constants.NAME)) + "_proxy-" + projectVersion;
-        String name = proxyElement.getAttributeValue(new QName(Constants.NAME));
-        OMAttribute descriptionAtr = proxyElement.getAttribute(new QName(Constants.DESCRIPTION));
+        String key = proxyElement.getAttributeValue(Constants.NAME) + "_proxy-" + projectVersion;
+        String name = proxyElement.getAttributeValue(Constants.NAME);
+        String description = proxyElement.getAttributeValue(Constants.DESCRIPTION);
 
         StringBuilder builder = new StringBuilder();
         // Creating the YAML file
@@ -679,8 +903,8 @@ public class CAppHandler extends AbstractXMLDoc {
         builder.append("key: \"").append(key).append("\"\n");
         builder.append("name: \"").append(name).append("\"\n");
         builder.append("displayName: \"").append(name).append("\"\n");
-        if (descriptionAtr != null) {
-            builder.append("description: \"").append(descriptionAtr.getAttributeValue()).append("\"\n");
+        if (description != null) {
+            builder.append("description: \"").append(description).append("\"\n");
         }
         builder.append("version: \"").append(projectVersion).append("\"\n");
         builder.append("serviceUrl: \"").append(getProxyServiceURL(name)).append("\"\n");
@@ -694,19 +918,19 @@ public class CAppHandler extends AbstractXMLDoc {
      * Method to add metadata dependencies to the list.
      *
      * @param metadataDependencies list of metadata dependencies
-     * @param configElement        OMElement of the artifact
+     * @param configElement        root element of the artifact
      * @param artifactType         artifact type
      * @param projectVersion       version of the project
      */
-    private void addMetadataDependencies(List<ArtifactDependency> metadataDependencies, OMElement configElement,
+    private void addMetadataDependencies(List<ArtifactDependency> metadataDependencies, ArtifactHeader configElement,
                                          String artifactType, String projectVersion) {
 
-        String name = configElement.getAttributeValue(new QName(Constants.NAME));
-        OMAttribute versionAtt = configElement.getAttribute(new QName(Constants.VERSION));
+        String name = configElement.getAttributeValue(Constants.NAME);
+        String versionAtt = configElement.getAttributeValue(Constants.VERSION);
         String dependencyName;
         String version;
         if (versionAtt != null) {
-            version = versionAtt.getAttributeValue();
+            version = versionAtt;
             dependencyName = name + "_" + version + "_metadata";
         } else {
             version = projectVersion;
@@ -724,15 +948,15 @@ public class CAppHandler extends AbstractXMLDoc {
     /**
      * Method to get API version from the API element.
      *
-     * @param apiElement     OMElement of the API
+     * @param apiElement     root element of the API
      * @param projectVersion version of the project
      * @return API version if available, project version otherwise
      */
-    private String getAPIVersion(OMElement apiElement, String projectVersion) {
+    private String getAPIVersion(ArtifactHeader apiElement, String projectVersion) {
 
-        OMAttribute versionAtt = apiElement.getAttribute(new QName(Constants.VERSION));
-        if (versionAtt != null) {
-            return versionAtt.getAttributeValue();
+        String version = apiElement.getAttributeValue(Constants.VERSION);
+        if (version != null) {
+            return version;
         }
         return projectVersion;
     }
@@ -751,19 +975,15 @@ public class CAppHandler extends AbstractXMLDoc {
     /**
      * Method to get the API URL from the API element.
      *
-     * @param apiElement OMElement of the API
+     * @param apiElement root element of the API
      * @return API URL
      */
-    private String getAPIURL(OMElement apiElement) {
-
-        String contextAtt = apiElement.getAttribute(new QName("context")).getAttributeValue();
-        OMAttribute versionTypeAtt = apiElement.getAttribute(new QName("version-type"));
-        OMAttribute versionAtt = apiElement.getAttribute(new QName(Constants.VERSION));
-        if (versionTypeAtt != null) {
-            String versionType = versionTypeAtt.getAttributeValue();
-            if ("url".equals(versionType)) {
-                return "https://{MI_HOST}:{MI_PORT}" + contextAtt + "/" + versionAtt.getAttributeValue();
-            }
+    private String getAPIURL(ArtifactHeader apiElement) {
+
+        String contextAtt = apiElement.getAttributeValue("context");
+        String versionType = apiElement.getAttributeValue("version-type");
+        if ("url".equals(versionType)) {
+            return "https://{MI_HOST}:{MI_PORT}" + contextAtt + "/" + apiElement.getAttributeValue(Constants.VERSION);
         }
         return "https://{MI_HOST}:{MI_PORT}" + contextAtt;
     }
@@ -774,41 +994,53 @@ public class CAppHandler extends AbstractXMLDoc {
      * @param artifact: Artifact object
      * @return serialized <artifact>content</artifact> element
      */
-    private String createArtifactData(Artifact artifact) throws MojoExecutionException {
-        OMElement artifactElement = getElement(Constants.ARTIFACT, Constants.EMPTY_STRING);
-        artifactElement = addAttribute(artifactElement, Constants.NAME, artifact.getName());
-        artifactElement = addAttribute(artifactElement, Constants.VERSION, artifact.getVersion());
-        artifactElement = addAttribute(artifactElement, Constants.TYPE, artifact.getType());
-        artifactElement = addAttribute(artifactElement, Constants.SERVER_ROLE, artifact.getServerRole());
-        if (artifact.getConnector() != null) {
-            artifactElement = addAttribute(artifactElement, Constants.CONNECTOR, artifact.getConnector());
-        }
-        OMElement fileChildElement = getElement(Constants.FILE, artifact.getFile());
-        artifactElement.addChild(fileChildElement);
-
-        return serialize(artifactElement);
+    private byte[] createArtifactData(Artifact artifact) throws MojoExecutionException {
+        return toXml(writer -> {
+            writer.startElement(Constants.ARTIFACT)
+                    .attribute(Constants.NAME, artifact.getName())
+                    .attribute(Constants.VERSION, artifact.getVersion())
+                    .attribute(Constants.TYPE, artifact.getType())
+                    .attribute(Constants.SERVER_ROLE, artifact.getServerRole());
+            if (artifact.getConnector() != null) {
+                writer.attribute(Constants.CONNECTOR, artifact.getConnector());
+            }
+            writer.textElement(Constants.FILE, artifact.getFile());
+            writer.endElement();
+        });
     }
 
     /**
-     * Creates the `descriptor.xml` file in the specified archive directory.
+     * Adds the `descriptor.xml` file to the given archive.
      * This file contains the dependencies of the Composite Application (CApp).
      *
-     * @param archiveDirectory The path to the archive directory where the `descriptor.xml` file will be created.
+     * @param archive The archive to which the `descriptor.xml` file will be added.
      * @param project The Maven project for which the dependency descriptor is generated.
      */
-    public void createDependencyDescriptorFile(String archiveDirectory, MavenProject project) {
+    public void createDependencyDescriptorFile(CARArchive archive, MavenProject project) {
+
+        createDependencyDescriptorFile(archive, project, project.getArtifactId(),
+                getTopLevelCAppDependencies(project));
+    }
 
-        String projectIdentifier = generateProjectIdentifier(project.getGroupId(), project.getArtifactId(), project.getVersion());
+    /**
+     * Adds the `descriptor.xml` file of a CApp built from the given project to the given archive.
+     *
+     * @param archive          The archive to which the `descriptor.xml` file will be added.
+     * @param project          The Maven project for which the dependency descriptor is generated.
+     * @param artifactId       The artifact ID of the CApp.
+     * @param cAppDependencies The CApps the CApp depends on.
+     */
+    void createDependencyDescriptorFile(CARArchive archive, MavenProject project, String artifactId,
+                                        List<CAppDependency> cAppDependencies) {
+
+        String projectIdentifier = generateProjectIdentifier(project.getGroupId(), artifactId, project.getVersion());
         boolean deploymentType = MavenUtils.isVersionedDeployment(project);
-        OMElement projectElement;
         boolean fatCarEnabled = CAppDependencyResolver.isFatCarEnabled(project);
-        List<CAppDependency> cAppDependencies = getTopLevelCAppDependencies(project);
-        projectElement = createDependencyDescriptorXml(projectIdentifier, deploymentType, cAppDependencies, fatCarEnabled);
         try {
-            String descriptorXmlFileDataAsString = serialize(projectElement);
-            org.wso2.developerstudio.eclipse.utils.file.FileUtils.createFile(
-                    new File(archiveDirectory, Constants.DESCRIPTOR_XML), descriptorXmlFileDataAsString);
-        } catch (MojoExecutionException | IOException e) {
+            byte[] descriptorXmlFileData =
+                    createDependencyDescriptorXml(projectIdentifier, deploymentType, cAppDependencies, fatCarEnabled);
+            archive.addContent(Constants.DESCRIPTOR_XML, descriptorXmlFileData);
+        } catch (MojoExecutionException e) {
             mojoInstance.logError("Error occurred while creating descriptor.xml file");
             mojoInstance.logError(e.getMessage());
         }
@@ -828,142 +1060,160 @@ public class CAppHandler extends AbstractXMLDoc {
     }
 
     /**
-     * Creates the dependency descriptor XML element for the given project and its CApp dependencies.
+     * Creates the dependency descriptor XML for the given project and its CApp dependencies.
      *
      * @param projectName      the name of the project
      * @param versionedDeployment   the deployment type of the project
      * @param cAppDependencies the list of CApp dependencies
-     * @return OMElement representing the dependency descriptor XML
+     * @return the UTF-8 encoded dependency descriptor XML
+     * @throws MojoExecutionException if the descriptor cannot be serialized
      */
-    OMElement createDependencyDescriptorXml(String projectName, boolean versionedDeployment,
-                                            List<CAppDependency> cAppDependencies, boolean fatCarEnabled) {
-
-        OMElement projectElement = getElement(Constants.PROJECT, Constants.EMPTY_STRING);
-        OMElement idElement = getElement(Constants.ID, projectName);
-        projectElement.addChild(idElement);
-        OMElement deploymentTypeElement = getElement(Constants.VERSIONED_DEPLOYMENT, versionedDeployment ? "true" : "false");
-        projectElement.addChild(deploymentTypeElement);
-
-        OMElement fatCarEnabledElement = getElement(Constants.FAT_CAR_ENABLED, fatCarEnabled ? "true" : "false");
-        projectElement.addChild(fatCarEnabledElement);
-
-        OMElement dependenciesElement = getElement(Constants.DEPENDENCIES, Constants.EMPTY_STRING);
-        for (CAppDependency cAppDependency : cAppDependencies) {
-            OMElement dependencyElement = getElement(Constants.DEPENDENCY, Constants.EMPTY_STRING);
-            dependencyElement = addAttribute(dependencyElement, Constants.GROUP_ID, cAppDependency.getGroupId());
-            dependencyElement = addAttribute(dependencyElement, Constants.ARTIFACT_ID, cAppDependency.getArtifactId());
-            dependencyElement = addAttribute(dependencyElement, Constants.VERSION, cAppDependency.getVersion());
-            dependencyElement = addAttribute(dependencyElement, Constants.TYPE, Constants.CAR_TYPE);
-            dependenciesElement.addChild(dependencyElement);
-        }
-        projectElement.addChild(dependenciesElement);
-        return projectElement;
+    byte[] createDependencyDescriptorXml(String projectName, boolean versionedDeployment,
+                                         List<CAppDependency> cAppDependencies, boolean fatCarEnabled)
+            throws MojoExecutionException {
+
+        return toXml(writer -> {
+            writer.startElement(Constants.PROJECT)
+                    .textElement(Constants.ID, projectName)
+                    .textElement(Constants.VERSIONED_DEPLOYMENT, versionedDeployment ? "true" : "false")
+                    .textElement(Constants.FAT_CAR_ENABLED, fatCarEnabled ? "true" : "false")
+                    .startElement(Constants.DEPENDENCIES);
+            for (CAppDependency cAppDependency : cAppDependencies) {
+                writer.startElement(Constants.DEPENDENCY)
+                        .attribute(Constants.GROUP_ID, cAppDependency.getGroupId())
+                        .attribute(Constants.ARTIFACT_ID, cAppDependency.getArtifactId())
+                        .attribute(Constants.VERSION, cAppDependency.getVersion())
+                        .attribute(Constants.TYPE, Constants.CAR_TYPE)
+                        .endElement();
+            }
+            writer.endElement().endElement();
+        });
     }
 
     /**
      * Create artifacts.xml file including metadata of each artifact in WSO2-ESB project.
      *
-     * @param archiveDirectory: path to archive directory
+     * @param archive:          archive to add the files to
      * @param dependencies      to be added to artifacts.xml file
      * @param project:          wso2 esb project
      */
-    void createDependencyArtifactsXmlFile(String archiveDirectory, List<ArtifactDependency> dependencies,
+    void createDependencyArtifactsXmlFile(CARArchive archive, List<ArtifactDependency> dependencies,
                                           List<ArtifactDependency> metaDependencies, MavenProject project) {
+
+        createDependencyArtifactsXmlFile(archive, dependencies, metaDependencies, project, project.getArtifactId());
+    }
+
+    /**
+     * Create artifacts.xml file of a CApp with the given name, built from the given project.
+     *
+     * @param archive:          archive to add the files to
+     * @param dependencies      to be added to artifacts.xml file
+     * @param project:          wso2 esb project
+     * @param artifactName      name of the CApp
+     */
+    void createDependencyArtifactsXmlFile(CARArchive archive, List<ArtifactDependency> dependencies,
+                                          List<ArtifactDependency> metaDependencies, MavenProject project,
+                                          String artifactName) {
         /*
          * Create artifacts.xml file content.
          * Create artifact element.
          * Create corresponding dependency elements.
          * */
-        OMElement artifactsElement = getElement(Constants.ARTIFACTS, Constants.EMPTY_STRING);
-        OMElement artifactElement = getElement(Constants.ARTIFACT, Constants.EMPTY_STRING);
-
-        artifactElement = addAttribute(artifactElement, Constants.NAME, project.getArtifactId());
-        artifactElement = addAttribute(artifactElement, Constants.VERSION, project.getVersion());
-        artifactElement = addAttribute(artifactElement, Constants.TYPE, Constants.CAPP_TYPE);
-        if (project.getProperties().containsKey(Constants.MAIN_SEQUENCE)) {
-            artifactElement = addAttribute(artifactElement, Constants.MAIN_SEQUENCE,
-                    project.getProperties().getProperty(Constants.MAIN_SEQUENCE));
-        }
-
-        for (ArtifactDependency dependency : dependencies) {
-            OMElement dependencyElement = getElement(Constants.DEPENDENCY, Constants.EMPTY_STRING);
-            dependencyElement = addAttribute(dependencyElement, Constants.ARTIFACT, dependency.getArtifact());
-            dependencyElement = addAttribute(dependencyElement, Constants.VERSION, dependency.getVersion());
-            dependencyElement = addAttribute(dependencyElement, Constants.INCLUDE, dependency.getInclude().toString());
-            if (dependency.getServerRole() != null) {
-                dependencyElement = addAttribute(dependencyElement, Constants.SERVER_ROLE, dependency.getServerRole());
-            }
-            artifactElement.addChild(dependencyElement);
-        }
-        artifactsElement.addChild(artifactElement);
-
         try {
             // Create artifacts.xml file in archive file.
-            String artifactsXmlFileDataAsString = serialize(artifactsElement);
-            org.wso2.developerstudio.eclipse.utils.file.FileUtils.createFile(new File(archiveDirectory, "artifacts.xml"),
-                    artifactsXmlFileDataAsString);
-        } catch (MojoExecutionException | IOException e) {
+            byte[] artifactsXmlFileData =
+                    toXml(writer -> writeArtifactsXml(writer, project, artifactName, dependencies));
+            archive.addContent(Constants.ARTIFACTS_XML_FILE, artifactsXmlFileData);
+        } catch (MojoExecutionException e) {
             mojoInstance.logError("Error occurred while creating artifacts.xml file");
             mojoInstance.logError(e.getMessage());
         }
 
-        for (ArtifactDependency dependency : metaDependencies) {
-            OMElement dependencyElement = getElement(Constants.DEPENDENCY, Constants.EMPTY_STRING);
-            dependencyElement = addAttribute(dependencyElement, Constants.ARTIFACT, dependency.getArtifact());
-            dependencyElement = addAttribute(dependencyElement, Constants.VERSION, dependency.getVersion());
-            dependencyElement = addAttribute(dependencyElement, Constants.INCLUDE, dependency.getInclude().toString());
-            if (dependency.getServerRole() != null) {
-                dependencyElement = addAttribute(dependencyElement, Constants.SERVER_ROLE, dependency.getServerRole());
-            }
-            artifactElement.addChild(dependencyElement);
-        }
-        artifactsElement.addChild(artifactElement);
-
+        // metadata.xml lists the dependencies of artifacts.xml followed by the metadata dependencies.
+        List<ArtifactDependency> allDependencies = new ArrayList<>(dependencies);
+        allDependencies.addAll(metaDependencies);
         try {
             // Create metadata.xml file in archive file.
-            String artifactsXmlFileDataAsString = serialize(artifactsElement);
-            org.wso2.developerstudio.eclipse.utils.file.FileUtils.createFile(new File(archiveDirectory, "metadata.xml"),
-                    artifactsXmlFileDataAsString);
-        } catch (MojoExecutionException | IOException e) {
+            byte[] metadataXmlFileData =
+                    toXml(writer -> writeArtifactsXml(writer, project, artifactName, allDependencies));
+            archive.addContent(Constants.METADATA_XML_FILE, metadataXmlFileData);
+        } catch (MojoExecutionException e) {
             mojoInstance.logError("Error occurred while creating metadata.xml file");
             mojoInstance.logError(e.getMessage());
         }
     }
 
+    private void writeArtifactsXml(DescriptorXmlWriter writer, MavenProject project, String artifactName,
+                                   List<ArtifactDependency> dependencies) {
+
+        writer.startElement(Constants.ARTIFACTS)
+                .startElement(Constants.ARTIFACT)
+                .attribute(Constants.NAME, artifactName)
+                .attribute(Constants.VERSION, project.getVersion())
+                .attribute(Constants.TYPE, Constants.CAPP_TYPE);
+        if (project.getProperties().containsKey(Constants.MAIN_SEQUENCE)) {
+            writer.attribute(Constants.MAIN_SEQUENCE, project.getProperties().getProperty(Constants.MAIN_SEQUENCE));
+        }
+        for (ArtifactDependency dependency : dependencies) {
+            writer.startElement(Constants.DEPENDENCY)
+                    .attribute(Constants.ARTIFACT, dependency.getArtifact())
+                    .attribute(Constants.VERSION, dependency.getVersion())
+                    .attribute(Constants.INCLUDE, dependency.getInclude().toString());
+            if (dependency.getServerRole() != null) {
+                writer.attribute(Constants.SERVER_ROLE, dependency.getServerRole());
+            }
+            writer.endElement();
+        }
+        writer.endElement().endElement();
+    }
+
     /**
      * Method to process class mediators in the project and create corresponding files in the archive directory.
      *
+     * @param archive      archive to add the files to
      * @param dependencies list of dependencies to be added to artifacts.xml file
      * @param project      VSCode maven project
      */
-    void processClassMediators(List<ArtifactDependency> dependencies, MavenProject project) {
-        String jarName = project.getArtifactId() + "-" + project.getVersion() + ".jar";
-        File jarFile = new File(Paths.get(project.getBasedir().toString(), "target", jarName).toString());
+    void processClassMediators(CARArchive archive, List<ArtifactDependency> dependencies, MavenProject project) {
+        File jarFile = getClassMediatorJar(project);
+        String jarName = jarFile.getName();
         if (jarFile.exists()) {
             dependencies.add(new ArtifactDependency(project.getArtifactId() + Constants.CLASS_MEDIATORS
                     , project.getVersion(), Constants.SERVER_ROLE_EI, true));
-            writeArtifactAndFile(jarFile, project.getBasedir().toString() + File.separator +
-                            Constants.TEMP_TARGET_DIR_NAME, project.getArtifactId() + Constants.CLASS_MEDIATORS,
+            writeArtifactAndFile(jarFile, archive, project.getArtifactId() + Constants.CLASS_MEDIATORS,
                     Constants.CLASS_MEDIATOR_TYPE, Constants.SERVER_ROLE_EI, project.getVersion(), jarName,
                     project.getArtifactId() + Constants.CLASS_MEDIATORS + "_" + project.getVersion());
-            // delete the jar file after copying to the CAPP
-            jarFile.delete();
+            // delete the jar file once it is written to the CAPP
+            consumedFiles.add(jarFile);
         }
     }
 
+    /**
+     * Returns the jar file built from the class mediators of the project, which may not exist.
+     *
+     * @param project VSCode maven project
+     * @return the class mediator jar file
+     */
+    static File getClassMediatorJar(MavenProject project) {
+        String jarName = project.getArtifactId() + "-" + project.getVersion() + ".jar";
+        return new File(Paths.get(project.getBasedir().toString(), "target", jarName).toString());
+    }
+
     /**
      * Method to process lib dependencies which are inside deployment/lib/ folder in the project and add to dependencies
      *
+     * @param archive      archive to add the files to
      * @param dependencies list of dependencies to be added to artifacts.xml file
      * @param project      VSCode maven project
      */
-    void processConnectorLibDependencies(List<ArtifactDependency> dependencies, MavenProject project) {
+    void processConnectorLibDependencies(CARArchive archive, List<ArtifactDependency> dependencies,
+                                         MavenProject project) {
 
         // process connector dependencies
         File connectorDepFolder = new File(Paths.get(project.getBasedir().toString(),
                 Constants.DEFAULT_TARGET_FOLDER, Constants.DEPENDENCY).toString());
         if (connectorDepFolder.exists()) {
-            File[] dependencyFiles = connectorDepFolder.listFiles();
+            File[] dependencyFiles = MavenUtils.listSortedFiles(connectorDepFolder);
             if (dependencyFiles != null) {
                 for (File dependencyFile : dependencyFiles) {
                     if (dependencyFile.isFile() && dependencyFile.getName().endsWith(Constants.ZIP_EXTENSION)) {
@@ -978,8 +1228,7 @@ public class CAppHandler extends AbstractXMLDoc {
                         String version = fileName.substring(lastIndex + 1,
                                 fileName.length() - Constants.ZIP_EXTENSION.length());
                         dependencies.add(new ArtifactDependency(name, version, Constants.SERVER_ROLE_EI, true));
-                        writeArtifactAndFile(dependencyFile, project.getBasedir().toString() + File.separator +
-                                Constants.TEMP_TARGET_DIR_NAME, name, Constants.CONNECTOR_TYPE,
+                        writeArtifactAndFile(dependencyFile, archive, name, Constants.CONNECTOR_TYPE,
                                 Constants.SERVER_ROLE_EI, version, fileName, name + "_" + version);
                     }
                 }
@@ -999,21 +1248,22 @@ public class CAppHandler extends AbstractXMLDoc {
             return; // Exit if the lib folder does not exist
         }
 
-        File[] connectorDeps = libFolder.listFiles();
+        File[] connectorDeps = MavenUtils.listSortedFiles(libFolder);
         if (connectorDeps == null) {
             return; // Exit if no files/folders exist inside lib folder
         }
 
+        // Libraries of every connector, grouped by content when they are deduplicated
+        Map<String, List<File>> libraries = new LinkedHashMap<>();
         for (File connectorDir : connectorDeps) {
             if (!connectorDir.isDirectory()) {
                 continue; // Skip if not a directory
             }
 
-            String connectorName = connectorDir.getName();
-            File[] libFiles = connectorDir.listFiles(new FilenameFilter() {
+            File[] libFiles = MavenUtils.listSortedFiles(connectorDir, new FileFilter() {
                 @Override
-                public boolean accept(File dir, String name) {
-                    return name.endsWith(".jar");
+                public boolean accept(File file) {
+                    return file.getName().endsWith(".jar");
                 }
             }); // Filter only JAR files
 
@@ -1022,24 +1272,87 @@ public class CAppHandler extends AbstractXMLDoc {
             }
 
             for (File libFile : libFiles) {
-                String fileNameWithoutExt = libFile.getName().substring(0, libFile.getName().length() - 4);
-                
-                // Create a unique name for the dependency by appending connector name as a prefix
-                String uniqueDependencyName = connectorName + "_" + fileNameWithoutExt;
-            
-                // Add dependency to the list with the unique name
-                dependencies.add(new ArtifactDependency(
-                        uniqueDependencyName, project.getVersion(), Constants.SERVER_ROLE_EI, true));
-            
-                // Write artifact and file details using the unique dependency name
-                writeArtifactAndFile(libFile, project.getBasedir() + File.separator + Constants.TEMP_TARGET_DIR_NAME,
-                        uniqueDependencyName, Constants.CONNECTOR_DEPENDENCY_TYPE, Constants.SERVER_ROLE_EI,
-                        project.getVersion(), libFile.getName(), connectorName + "_" +
-                        fileNameWithoutExt, connectorName);
+                String key = connectorDir.getName() + "/" + libFile.getName();
+                if (mojoInstance.isDeduplicateConnectorLibraries()) {
+                    try {
+                        key = IncrementalBuild.sha256(libFile);
+                    } catch (IOException e) {
+                        mojoInstance.logWarn("Failed to hash " + libFile.getAbsolutePath() + ", storing it without "
+                                + "deduplication: " + e.getMessage());
+                    }
+                }
+                libraries.computeIfAbsent(key, k -> new ArrayList<>()).add(libFile);
+            }
+        }
+
+        Set<String> sharedNames = new HashSet<>();
+        int sharedLibraryCount = 0;
+        long savedBytes = 0;
+        for (Map.Entry<String, List<File>> library : libraries.entrySet()) {
+            File libFile = library.getValue().get(0);
+            String fileNameWithoutExt = libFile.getName().substring(0, libFile.getName().length() - 4);
+            Set<String> connectorNames = new LinkedHashSet<>();
+            for (File file : library.getValue()) {
+                connectorNames.add(file.getParentFile().getName());
             }
+
+            // Create a unique name for the dependency by appending connector name as a prefix
+            String uniqueDependencyName;
+            if (connectorNames.size() == 1) {
+                uniqueDependencyName = connectorNames.iterator().next() + "_" + fileNameWithoutExt;
+            } else {
+                // A single artifact, which every connector using the library refers to
+                uniqueDependencyName = Constants.SHARED_CONNECTOR_LIBRARY_PREFIX + "_" + fileNameWithoutExt;
+                if (!sharedNames.add(uniqueDependencyName)) {
+                    uniqueDependencyName += "_" + library.getKey().substring(0, 8);
+                }
+            }
+            if (library.getValue().size() > 1) {
+                sharedLibraryCount++;
+                savedBytes += libFile.length() * (library.getValue().size() - 1);
+            }
+
+            // Add dependency to the list with the unique name
+            dependencies.add(new ArtifactDependency(
+                    uniqueDependencyName, project.getVersion(), Constants.SERVER_ROLE_EI, true));
+
+            // Write artifact and file details using the unique dependency name
+            writeArtifactAndFile(libFile, archive, uniqueDependencyName, Constants.CONNECTOR_DEPENDENCY_TYPE,
+                    Constants.SERVER_ROLE_EI, project.getVersion(), libFile.getName(), uniqueDependencyName,
+                    String.join(Constants.CONNECTOR_SEPARATOR, connectorNames));
+        }
+        if (sharedLibraryCount > 0) {
+            mojoInstance.logInfo("Stored " + sharedLibraryCount + " connector libraries used more than once as a "
+                    + "single copy, saving " + FileUtils.byteCountToDisplaySize(savedBytes) + " (" + savedBytes
+                    + " bytes)");
         }
     }
 
+    /**
+     * Dependencies, APIs/proxies and archive entries collected while processing a single artifact file on a worker thread.
+     */
+    private static class ArtifactProcessingResult {
+        private final List<ArtifactDependency> dependencies = new ArrayList<>();
+        private final List<ArtifactDependency> metadataDependencies = new ArrayList<>();
+        private final Map<String, String> apis = new LinkedHashMap<>();
+        private final Map<String, String> proxies = new LinkedHashMap<>();
+        private final CARArchive archive = new CARArchive();
+    }
+
+    /**
+     * Deletes the build outputs which are only needed as inputs of the archive, such as the class mediator jar.
+     * Must be called after the archive is written, since the archive streams these files.
+     */
+    void deleteConsumedFiles() {
+
+        for (File file : consumedFiles) {
+            if (!file.delete()) {
+                mojoInstance.logWarn("Failed to delete " + file.getAbsolutePath());
+            }
+        }
+        consumedFiles.clear();
+    }
+
     @Override
     protected void deserialize(OMElement documentElement) throws Exception {
 
@@ -1062,6 +1375,14 @@ public class CAppHandler extends AbstractXMLDoc {
         return outputStream.toString();
     }
 
+    private static byte[] toXml(DescriptorXmlWriter.DocumentContent content) throws MojoExecutionException {
+        try {
+            return DescriptorXmlWriter.toBytes(content);
+        } catch (UncheckedIOException e) {
+            throw new MojoExecutionException("Error serializing", e.getCause());
+        }
+    }
+
     private boolean isApiDefinitionPresent(String apiName, String apiVersion, boolean apiVersionExists,
                                            List<ArtifactDependency> metadataDependencies) {
         apiName = apiVersionExists ? (apiName + "_" + apiVersion + "_swagger") : (apiName + "_swagger");
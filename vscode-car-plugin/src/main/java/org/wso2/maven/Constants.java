@@ -58,6 +58,9 @@ public class Constants {
     static final String CAPP_TYPE = "carbon/application";
     static final String CLASS_MEDIATOR_TYPE = "lib/synapse/mediator";
     static final String CONNECTOR_DEPENDENCY_TYPE = "lib/connector/dependency";
+    static final String SHARED_CONNECTOR_LIBRARY_PREFIX = "shared";
+    static final String CONNECTOR_SEPARATOR = ",";
+    static final String SOURCE_FOLDER_PATH = "src" + File.separator + "main" + File.separator + "wso2mi";
     static final String ARTIFACTS_FOLDER_PATH = "src" + File.separator + "main" + File.separator
             + "wso2mi" + File.separator + "artifacts";
     static final String SERVER_ROLE_EI = "EnterpriseIntegrator";
@@ -68,7 +71,7 @@ public class Constants {
     static final String GOV_FOLDER = "gov";
     static final String CONF_FOLDER = "conf";
     static final String REG_INFO_FILE = "registry-info.xml";
-    static final String TYPE = "type";
+    public static final String TYPE = "type";
     public static final String CAR_TYPE = "car";
     public static final String SERVER_ROLE = "serverRole";
     static final String DESCRIPTION = "description";
@@ -79,13 +82,24 @@ public class Constants {
     static final String PATH = "path";
     public static final String INCLUDE = "include";
     static final String RESOURCES = "resources";
-    static final String ARCHIVE_EXCEPTION_MSG = "Error occurred while creating CAR file.";
+    public static final String ARCHIVE_EXCEPTION_MSG = "Error occurred while creating CAR file.";
+    public static final String BUILD_MANIFEST_SUFFIX = "-build-manifest.json";
+    public static final String PLATFORM_LAYER_SUFFIX = "-platform";
+    public static final String POM_TYPE = "pom";
+    public static final String POM_EXTENSION = ".pom";
+    public static final String POM_NAMESPACE = "http://maven.apache.org/POM/4.0.0";
+    public static final String DELTA_SUFFIX = "-delta";
+    public static final String DEPENDENCY_LOCK_FILE = "mi-dependencies.lock";
+    public static final String BUILD_FINGERPRINT_SUFFIX = "-build-fingerprint.properties";
+    public static final String DEFAULT_STORED_EXTENSIONS = "zip,jar,car,war,aar,mar,gz,tgz,bz2,xz,7z,png,jpg,jpeg,gif";
     static final String ARTIFACT_XML = "artifact.xml";
     static final String PROPERTY_FILE = "config.properties";
     static final String PROPERTY_FILE_NAME = "config";
     static final String EMPTY_STRING = "";
     static final String MAIN_SEQUENCE = "mainSequence";
-    static final String TEMP_TARGET_DIR_NAME = "tmp";
+    static final String UNREACHABLE_ARTIFACTS_INCLUDE = "include";
+    static final String UNREACHABLE_ARTIFACTS_WARN = "warn";
+    static final String UNREACHABLE_ARTIFACTS_EXCLUDE = "exclude";
     static final String API_DEFINITION_DIR = "api-definitions";
     static final String OS_WINDOWS = "windows";
     public static final String POM_FILE = "pom.xml";
@@ -94,6 +108,8 @@ public class Constants {
     public static final String DESCRIPTOR_YAML = "descriptor.yml";
     public static final String EXTRACTED_CONNECTORS = "extracted-connectors";
     public static final String LIBS = "libs";
+    public static final String CONNECTOR_LIBS_STAGING_DIR = "connector-libs";
+    public static final String SHA256_EXTENSION = ".sha256";
     public static final String REPOSITORIES = "repositories";
     public static final String DEPENDENCIES = "dependencies";
     public static final String ARTIFACT_ID = "artifactId";
@@ -143,6 +159,9 @@ public class Constants {
     public static final String USER_HOME = "user.home";
     public static final String REPOSITORY = "repository";
     public static final String M2 = ".m2";
+    public static final String WSO2_MI = ".wso2-mi";
+    public static final String CAR_PLUGIN_CACHE_DIR = "car-plugin";
+    public static final String DESCRIPTOR_CACHE_FILE = "descriptor-cache.json";
     public static final String LOCAL_MVN_SETTING = "MI.useLocalMaven";
     public static final String VERSIONED_DEPLOYMENT = "versionedDeployment";
     public static final String FAT_CAR_ENABLED = "fatCarEnabled";
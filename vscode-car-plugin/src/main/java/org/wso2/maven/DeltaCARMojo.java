@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.wso2.maven.archive.CARArchiveWriter;
+import org.wso2.maven.libraries.CAppDependencyResolver;
+import org.wso2.maven.libraries.MavenArtifactResolver;
+import org.wso2.maven.model.ArchiveException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates a delta .car file holding only the artifacts which were added or changed since a baseline .car file,
+ * such as the previous release, together with a JSON report listing the added, changed and removed artifacts.
+ * Run it after the .car file has been built, e.g. {@code mvn package vscode-car-plugin:delta
+ * -Dbaseline=com.example:my-app:1.0.0}.
+ * <p>
+ * The runtime does not merge a .car file into a deployed one: deploying a CApp with the name of a deployed CApp
+ * replaces all of its artifacts. The delta is therefore a CApp of its own, named after the full CApp with the
+ * -delta suffix in artifacts.xml, metadata.xml and descriptor.xml, so that deploying it by mistake cannot undeploy
+ * the unchanged artifacts. It is meant for reviewing and transferring the changes; the full .car file is the one
+ * to deploy.
+ *
+ * @goal delta
+ */
+public class DeltaCARMojo extends AbstractMojo {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    /**
+     * The Maven Project Object
+     *
+     * @parameter expression="${project}"
+     * @required
+     */
+    MavenProject project;
+
+    /**
+     * The .car file to compare against: either a file path or the groupId:artifactId:version coordinates of a
+     * released .car file, which is resolved through Maven.
+     *
+     * @parameter expression="${baseline}"
+     * @required
+     */
+    String baseline;
+
+    /**
+     * The freshly built .car file. Defaults to the .car file the car goal writes for archiveLocation and
+     * archiveName.
+     *
+     * @parameter expression="${carFile}"
+     */
+    File carFile;
+
+    /**
+     * The location of the .car file, which the delta .car file and its report are written to. Defaults to the
+     * target folder.
+     *
+     * @parameter expression="${archiveLocation}"
+     */
+    String archiveLocation;
+
+    /**
+     * The name of the .car file, as given to the car goal.
+     *
+     * @parameter expression="${archiveName}"
+     */
+    String archiveName;
+
+    /**
+     * The repository system of the build, used to resolve the baseline .car file in-process.
+     *
+     * @component
+     */
+    RepositorySystem repositorySystem;
+
+    /**
+     * The repository session of the build.
+     *
+     * @parameter expression="${repositorySystemSession}"
+     * @readonly
+     */
+    RepositorySystemSession repositorySystemSession;
+
+    /**
+     * The remote repositories of the project.
+     *
+     * @parameter expression="${project.remoteProjectRepositories}"
+     * @readonly
+     */
+    List<RemoteRepository> remoteRepositories;
+
+    public void execute() throws MojoExecutionException {
+
+        File targetFolder = new File(project.getBasedir(), Constants.DEFAULT_TARGET_FOLDER);
+        File current = carFile != null ? carFile : CARMojo.getCarFile(project, archiveLocation, archiveName);
+        if (!current.isFile()) {
+            throw new MojoExecutionException("Could not find the .car file " + current.getAbsolutePath() +
+                    ". Build it before creating the delta.");
+        }
+        File baselineFile = resolveBaseline(targetFolder);
+        File outputFolder = StringUtils.isEmpty(archiveLocation) ? targetFolder : new File(archiveLocation);
+        String baseName = current.getName().substring(0, current.getName().length() -
+                Constants.CAR_EXTENSION.length()) + Constants.DELTA_SUFFIX;
+        File deltaFile = new File(outputFolder, baseName + Constants.CAR_EXTENSION);
+        File reportFile = new File(outputFolder, baseName + ".json");
+
+        try {
+            CARDelta delta = CARDelta.compare(baselineFile, current);
+            if (!outputFolder.exists() && !outputFolder.mkdirs()) {
+                throw new IOException("Could not create " + outputFolder.getAbsolutePath());
+            }
+            CARArchiveWriter.write(delta.createArchive(), deltaFile);
+            writeReport(delta, baselineFile, current, deltaFile, reportFile);
+
+            getLog().info("Compared " + current.getName() + " with " + baselineFile.getName() + ": " +
+                    delta.getAdded().size() + " added, " + delta.getChanged().size() + " changed, " +
+                    delta.getRemoved().size() + " removed");
+            for (CARDelta.ArtifactSummary artifact : delta.getRemoved()) {
+                getLog().info("  Removed " + artifact.getName() + " " + artifact.getVersion());
+            }
+            getLog().info("Delta .car file: " + deltaFile.getAbsolutePath() + " (" +
+                    FileUtils.byteCountToDisplaySize(deltaFile.length()) + ", " +
+                    FileUtils.byteCountToDisplaySize(Math.max(0, current.length() - deltaFile.length())) +
+                    " smaller than the full .car file)");
+            getLog().info("Delta report: " + reportFile.getAbsolutePath());
+        } catch (IOException | ArchiveException e) {
+            throw new MojoExecutionException("Error occurred while creating the delta .car file", e);
+        }
+    }
+
+    private File resolveBaseline(File targetFolder) throws MojoExecutionException {
+
+        File baselineFile = new File(baseline);
+        if (baselineFile.isFile()) {
+            return baselineFile;
+        }
+        String[] coordinates = baseline.split(Constants.COLON);
+        if (coordinates.length != 3) {
+            throw new MojoExecutionException("Baseline " + baseline + " is neither a .car file nor " +
+                    "groupId:artifactId:version coordinates");
+        }
+        File baselineFolder = new File(targetFolder, "delta-baseline");
+        if (!baselineFolder.exists() && !baselineFolder.mkdirs()) {
+            throw new MojoExecutionException("Could not create " + baselineFolder.getAbsolutePath());
+        }
+        try {
+            File resolved = CAppDependencyResolver.fetchCarFileFromMavenRepo(MavenArtifactResolver.create(
+                    repositorySystem, repositorySystemSession, remoteRepositories), project.getBasedir(),
+                    baselineFolder, coordinates[0], coordinates[1], coordinates[2], this);
+            if (resolved != null) {
+                return resolved;
+            }
+        } catch (Exception e) {
+            throw new MojoExecutionException("Could not resolve the baseline " + baseline, e);
+        }
+        throw new MojoExecutionException("Could not find the baseline .car file " + baseline);
+    }
+
+    private void writeReport(CARDelta delta, File baselineFile, File current, File deltaFile, File reportFile)
+            throws IOException {
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baseline", baselineFile.getName());
+        report.put("current", current.getName());
+        report.put("delta", deltaFile.getName());
+        report.put("added", delta.getAdded());
+        report.put("changed", delta.getChanged());
+        report.put("removed", delta.getRemoved());
+        try (Writer writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+            GSON.toJson(report, writer);
+        }
+    }
+}
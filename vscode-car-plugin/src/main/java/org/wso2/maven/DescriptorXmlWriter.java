@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Streams the XML descriptors of a CAR file, such as artifacts.xml, metadata.xml, descriptor.xml and the
+ * artifact.xml of every artifact, straight to an output stream without building an object tree.
+ * <p>
+ * The output is byte for byte the same as serializing an AXIOM tree of the document and pretty printing it with
+ * the indenting stylesheet of {@code AbstractXMLDoc}, which is how these descriptors used to be written: an XML
+ * declaration directly followed by the root element, four space indentation, empty elements written as
+ * {@code <name/>}, and the characters escaped as the JDK serializer escapes them. {@code XMLStreamWriter} is not
+ * used since it escapes attribute values and non-BMP characters differently.
+ */
+final class DescriptorXmlWriter {
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+    private static final String INDENT = "    ";
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer writer;
+    private final Deque<Element> openElements = new ArrayDeque<>();
+    private boolean startTagOpen;
+
+    DescriptorXmlWriter(OutputStream out) {
+
+        this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        write(XML_DECLARATION);
+    }
+
+    /**
+     * Writes a complete document with the given writer.
+     *
+     * @param content writes the elements of the document
+     * @return the UTF-8 encoded document
+     */
+    static byte[] toBytes(DocumentContent content) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DescriptorXmlWriter writer = new DescriptorXmlWriter(out);
+        content.writeTo(writer);
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    /**
+     * Starts an element. Its attributes are written next, followed by its child elements.
+     *
+     * @param name local name of the element
+     * @return this writer
+     */
+    DescriptorXmlWriter startElement(String name) {
+
+        Element parent = openElements.peek();
+        if (parent != null) {
+            closeStartTag();
+            parent.hasChildren = true;
+            newLine(openElements.size());
+        }
+        write("<");
+        write(name);
+        openElements.push(new Element(name));
+        startTagOpen = true;
+        return this;
+    }
+
+    /**
+     * Adds an attribute to the element which has just been started.
+     *
+     * @param name  name of the attribute
+     * @param value value of the attribute
+     * @return this writer
+     */
+    DescriptorXmlWriter attribute(String name, String value) {
+
+        if (!startTagOpen) {
+            throw new IllegalStateException("Attribute " + name + " written outside of a start tag");
+        }
+        write(" ");
+        write(name);
+        write("=\"");
+        writeEscaped(value == null ? "" : value, true);
+        write("\"");
+        return this;
+    }
+
+    /**
+     * Writes an element which only holds the given text.
+     *
+     * @param name local name of the element
+     * @param text text content of the element, which is written as an empty element when null or empty
+     * @return this writer
+     */
+    DescriptorXmlWriter textElement(String name, String text) {
+
+        startElement(name);
+        if (text != null && !text.isEmpty()) {
+            closeStartTag();
+            writeEscaped(text, false);
+            write("</");
+            write(name);
+            write(">");
+            openElements.pop();
+        } else {
+            endElement();
+        }
+        return this;
+    }
+
+    /**
+     * Ends the element which was started last.
+     *
+     * @return this writer
+     */
+    DescriptorXmlWriter endElement() {
+
+        Element element = openElements.pop();
+        if (startTagOpen) {
+            write("/>");
+            startTagOpen = false;
+        } else {
+            if (element.hasChildren) {
+                newLine(openElements.size());
+            }
+            write("</");
+            write(element.name);
+            write(">");
+        }
+        return this;
+    }
+
+    /**
+     * Ends every open element and flushes the document to the output stream.
+     */
+    void finish() {
+
+        while (!openElements.isEmpty()) {
+            endElement();
+        }
+        write(LINE_SEPARATOR);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeStartTag() {
+
+        if (startTagOpen) {
+            write(">");
+            startTagOpen = false;
+        }
+    }
+
+    private void newLine(int depth) {
+
+        write(LINE_SEPARATOR);
+        for (int i = 0; i < depth; i++) {
+            write(INDENT);
+        }
+    }
+
+    private void writeEscaped(String value, boolean attribute) {
+
+        int length = value.length();
+        int start = 0;
+        int i = 0;
+        while (i < length) {
+            int codePoint = value.codePointAt(i);
+            int next = i + Character.charCount(codePoint);
+            String replacement = escape(codePoint, attribute);
+            if (replacement != null) {
+                writeRange(value, start, i);
+                write(replacement);
+                start = next;
+            }
+            i = next;
+        }
+        writeRange(value, start, length);
+    }
+
+    private static String escape(int codePoint, boolean attribute) {
+
+        switch (codePoint) {
+            case '&':
+                return "&amp;";
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '"':
+                return attribute ? "&quot;" : null;
+            case '\t':
+            case '\n':
+                return attribute ? "&#" + codePoint + ";" : null;
+            case '\r':
+                return "&#13;";
+            default:
+                if (codePoint > 0xFFFF || (!attribute && codePoint >= 0x7F && codePoint <= 0x9F)) {
+                    return "&#" + codePoint + ";";
+                }
+                return null;
+        }
+    }
+
+    private void writeRange(String value, int start, int end) {
+
+        if (start < end) {
+            try {
+                writer.write(value, start, end - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void write(String value) {
+
+        writeRange(value, 0, value.length());
+    }
+
+    /**
+     * Writes the elements of a document.
+     */
+    interface DocumentContent {
+
+        void writeTo(DescriptorXmlWriter writer);
+    }
+
+    private static final class Element {
+
+        private final String name;
+        private boolean hasChildren;
+
+        private Element(String name) {
+
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lists the CApp, artifacts and dependent CApps of one or more .car files, without extracting them. Only the central
+ * directory and the descriptors of each archive are read, see {@link CARInspection}, so large batches of .car files
+ * can be inspected in one invocation, e.g.
+ * {@code mvn vscode-car-plugin:inspect -DcarFiles=releases -Dformat=json -DoutputFile=cars.json}.
+ *
+ * @goal inspect
+ * @requiresProject false
+ */
+public class InspectCARMojo extends AbstractMojo {
+
+    static final String FORMAT_TEXT = "text";
+    static final String FORMAT_JSON = "json";
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    /**
+     * The Maven Project Object
+     *
+     * @parameter expression="${project}"
+     */
+    MavenProject project;
+
+    /**
+     * Comma separated .car files, or folders whose .car files are inspected. Defaults to the .car file the car goal
+     * writes for archiveLocation and archiveName.
+     *
+     * @parameter expression="${carFiles}"
+     */
+    String carFiles;
+
+    /**
+     * The location of the .car file of the project, as given to the car goal. Defaults to the target folder.
+     *
+     * @parameter expression="${archiveLocation}"
+     */
+    String archiveLocation;
+
+    /**
+     * The name of the .car file of the project, as given to the car goal.
+     *
+     * @parameter expression="${archiveName}"
+     */
+    String archiveName;
+
+    /**
+     * Output format, either text or json.
+     *
+     * @parameter expression="${format}" default-value="text"
+     */
+    String format;
+
+    /**
+     * File the output is written to. The output is logged when this is not set.
+     *
+     * @parameter expression="${outputFile}"
+     */
+    File outputFile;
+
+    public void execute() throws MojoExecutionException {
+
+        if (!FORMAT_TEXT.equals(format) && !FORMAT_JSON.equals(format)) {
+            throw new MojoExecutionException("Invalid format " + format + ". Expected " + FORMAT_TEXT + " or " +
+                    FORMAT_JSON + ".");
+        }
+        List<CARInspection> inspections = new ArrayList<>();
+        for (File carFile : listCarFiles()) {
+            try {
+                inspections.add(CARInspection.read(carFile));
+            } catch (IOException e) {
+                throw new MojoExecutionException("Error occurred while inspecting " + carFile.getPath(), e);
+            }
+        }
+        String output = FORMAT_JSON.equals(format) ? GSON.toJson(inspections) : toText(inspections);
+        if (outputFile == null) {
+            for (String line : output.split("\n")) {
+                getLog().info(line);
+            }
+            return;
+        }
+        File parent = outputFile.getAbsoluteFile().getParentFile();
+        try {
+            if (!parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Could not create " + parent.getAbsolutePath());
+            }
+            try (Writer writer = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8)) {
+                writer.write(output);
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error occurred while writing " + outputFile.getPath(), e);
+        }
+        getLog().info("Inspected " + inspections.size() + " .car files into " + outputFile.getPath());
+    }
+
+    private List<File> listCarFiles() throws MojoExecutionException {
+
+        List<File> files = new ArrayList<>();
+        if (StringUtils.isEmpty(carFiles)) {
+            if (project == null || project.getFile() == null) {
+                throw new MojoExecutionException("No .car files to inspect. Set carFiles to the .car files or " +
+                        "folders to be inspected.");
+            }
+            files.add(CARMojo.getCarFile(project, archiveLocation, archiveName));
+        } else {
+            for (String path : carFiles.split(",")) {
+                if (StringUtils.isBlank(path)) {
+                    continue;
+                }
+                File file = new File(path.trim());
+                if (file.isDirectory()) {
+                    File[] children = file.listFiles((dir, name) -> name.endsWith(Constants.CAR_EXTENSION));
+                    if (children != null) {
+                        Arrays.sort(children);
+                        files.addAll(Arrays.asList(children));
+                    }
+                } else {
+                    files.add(file);
+                }
+            }
+        }
+        for (File file : files) {
+            if (!file.isFile()) {
+                throw new MojoExecutionException("Could not find the .car file " + file.getPath());
+            }
+        }
+        return files;
+    }
+
+    static String toText(List<CARInspection> inspections) {
+
+        StringBuilder text = new StringBuilder();
+        for (CARInspection inspection : inspections) {
+            text.append(inspection.getFile()).append(": ").append(inspection.getName()).append(' ')
+                    .append(inspection.getVersion()).append(" (")
+                    .append(FileUtils.byteCountToDisplaySize(inspection.getSize())).append(", ")
+                    .append(inspection.getEntries()).append(" entries, ")
+                    .append(FileUtils.byteCountToDisplaySize(inspection.getUncompressedSize()))
+                    .append(" uncompressed)\n");
+            if (inspection.getMainSequence() != null) {
+                text.append("  Main sequence: ").append(inspection.getMainSequence()).append('\n');
+            }
+            text.append("  Artifacts: ").append(inspection.getArtifacts().size()).append('\n');
+            for (CARInspection.Artifact artifact : inspection.getArtifacts()) {
+                text.append("    ").append(artifact.getName()).append(' ').append(artifact.getVersion())
+                        .append(" [").append(artifact.getType()).append(']');
+                if (!artifact.isInclude()) {
+                    text.append(" (not included)");
+                }
+                text.append('\n');
+            }
+            if (!inspection.getCAppDependencies().isEmpty()) {
+                text.append("  CApp dependencies: ").append(inspection.getCAppDependencies().size()).append('\n');
+                for (CAppDependency dependency : inspection.getCAppDependencies()) {
+                    text.append("    ").append(dependency.getGroupId()).append(Constants.COLON)
+                            .append(dependency.getArtifactId()).append(Constants.COLON)
+                            .append(dependency.getVersion()).append('\n');
+                }
+            }
+        }
+        return text.toString();
+    }
+}
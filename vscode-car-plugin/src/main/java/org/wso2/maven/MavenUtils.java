@@ -27,12 +27,15 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileFilter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -218,4 +221,32 @@ public class MavenUtils {
         String versionedDeployment = project.getProperties().getProperty(Constants.VERSIONED_DEPLOYMENT);
         return Boolean.parseBoolean(versionedDeployment);
     }
+
+    /**
+     * Lists the files in a folder sorted by name, so that the CAR content does not depend on the order in which
+     * the file system returns directory entries.
+     *
+     * @param folder folder to be listed
+     * @return files in the folder sorted by name, or null if the folder cannot be listed
+     */
+    public static File[] listSortedFiles(File folder) {
+
+        return listSortedFiles(folder, null);
+    }
+
+    /**
+     * Lists the files in a folder which are accepted by the given filter, sorted by name.
+     *
+     * @param folder folder to be listed
+     * @param filter file filter, or null to list every file
+     * @return accepted files sorted by name, or null if the folder cannot be listed
+     */
+    public static File[] listSortedFiles(File folder, FileFilter filter) {
+
+        File[] files = filter == null ? folder.listFiles() : folder.listFiles(filter);
+        if (files != null) {
+            Arrays.sort(files, Comparator.comparing(File::getName));
+        }
+        return files;
+    }
 }
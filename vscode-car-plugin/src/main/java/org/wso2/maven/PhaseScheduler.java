@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the phases of a CAR build as a dependency graph. A phase starts once every phase it depends on has
+ * completed, so phases which do not depend on each other, such as resolving dependencies with a Maven subprocess
+ * and processing the local artifacts, run at the same time. Phases can only depend on phases added before them,
+ * which keeps the graph acyclic and makes the order they are added in a valid sequential order.
+ * <p>
+ * The time spent in every phase is recorded, along with the critical path: the chain of dependent phases which
+ * determined the total build time. Both are logged at debug level, so they are shown when Maven runs with -X.
+ */
+class PhaseScheduler {
+
+    private final CARMojo mojo;
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+    private long startTime;
+    private long endTime;
+
+    PhaseScheduler(CARMojo mojo) {
+
+        this.mojo = mojo;
+    }
+
+    /**
+     * Adds a phase to the build.
+     *
+     * @param name      unique name of the phase
+     * @param task      work done by the phase
+     * @param dependsOn names of the phases which must complete before this phase starts
+     */
+    void addPhase(String name, PhaseTask task, String... dependsOn) {
+
+        List<Phase> dependencies = new ArrayList<>();
+        for (String dependency : dependsOn) {
+            Phase phase = phases.get(dependency);
+            if (phase == null) {
+                throw new IllegalArgumentException("Phase " + name + " depends on unknown phase " + dependency);
+            }
+            dependencies.add(phase);
+        }
+        if (phases.put(name, new Phase(name, task, dependencies)) != null) {
+            throw new IllegalArgumentException("Duplicate phase " + name);
+        }
+    }
+
+    /**
+     * Runs every phase. Phases run one after the other in the order they were added when concurrency is
+     * disabled; otherwise each phase runs on a worker thread as soon as its dependencies have completed.
+     * A failed phase prevents the phases which depend on it from running.
+     *
+     * @param concurrent whether independent phases run concurrently
+     * @throws MojoExecutionException if a phase fails
+     */
+    void run(boolean concurrent) throws MojoExecutionException {
+
+        startTime = System.nanoTime();
+        try {
+            if (concurrent) {
+                runConcurrently();
+            } else {
+                for (Phase phase : phases.values()) {
+                    phase.execute();
+                }
+            }
+        } finally {
+            endTime = System.nanoTime();
+        }
+    }
+
+    private void runConcurrently() throws MojoExecutionException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(phases.size());
+        try {
+            Map<Phase, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+            for (Phase phase : phases.values()) {
+                CompletableFuture<?>[] dependencies = phase.dependencies.stream().map(futures::get)
+                        .toArray(CompletableFuture[]::new);
+                futures.put(phase, CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                    try {
+                        phase.execute();
+                    } catch (MojoExecutionException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+            // Wait for every phase, so that none is left running, then report the first failure in phase order.
+            MojoExecutionException failure = null;
+            for (Map.Entry<Phase, CompletableFuture<Void>> future : futures.entrySet()) {
+                try {
+                    future.getValue().join();
+                } catch (CompletionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof MojoExecutionException ?
+                                (MojoExecutionException) e.getCause() :
+                                new MojoExecutionException("Build phase " + future.getKey().name + " failed.",
+                                        e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Logs the time spent in every phase that has run, and the critical path of the build, at debug level.
+     */
+    void logTimings() {
+
+        Log log = mojo.getLog();
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        log.debug("Build phase timings:");
+        Phase last = null;
+        for (Phase phase : phases.values()) {
+            if (phase.end == 0) {
+                continue;
+            }
+            log.debug(String.format("  %-24s %7d ms  (started at %d ms)", phase.name,
+                    toMillis(phase.end - phase.start), toMillis(phase.start - startTime)));
+            if (last == null || phase.end > last.end) {
+                last = phase;
+            }
+        }
+        if (last == null) {
+            return;
+        }
+        List<String> criticalPath = new ArrayList<>();
+        for (Phase phase = last; phase != null; phase = latestDependency(phase)) {
+            criticalPath.add(phase.name);
+        }
+        Collections.reverse(criticalPath);
+        log.debug("  Critical path: " + String.join(" -> ", criticalPath) + " (" +
+                toMillis(endTime - startTime) + " ms in total)");
+    }
+
+    private static Phase latestDependency(Phase phase) {
+
+        Phase latest = null;
+        for (Phase dependency : phase.dependencies) {
+            if (dependency.end != 0 && (latest == null || dependency.end > latest.end)) {
+                latest = dependency;
+            }
+        }
+        return latest;
+    }
+
+    private static long toMillis(long nanos) {
+
+        return nanos / 1_000_000;
+    }
+
+    /**
+     * Work done by a build phase.
+     */
+    interface PhaseTask {
+
+        void run() throws MojoExecutionException;
+    }
+
+    private static final class Phase {
+
+        private final String name;
+        private final PhaseTask task;
+        private final List<Phase> dependencies;
+        private volatile long start;
+        private volatile long end;
+
+        private Phase(String name, PhaseTask task, List<Phase> dependencies) {
+
+            this.name = name;
+            this.task = task;
+            this.dependencies = dependencies;
+        }
+
+        private void execute() throws MojoExecutionException {
+
+            start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                end = System.nanoTime();
+            }
+        }
+    }
+}
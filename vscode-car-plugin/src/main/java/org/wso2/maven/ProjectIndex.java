@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory index of the files and folders of a project source folder, built from a single walk of the folder.
+ * Every existence check and folder listing made while building the CAR file is answered from the index instead of
+ * the filesystem. Paths outside the indexed folder are looked up on the filesystem.
+ */
+public class ProjectIndex {
+
+    private final Path root;
+    private final Set<Path> files = new HashSet<>();
+    private final Map<Path, List<String>> directories = new HashMap<>();
+
+    private ProjectIndex(Path root) {
+
+        this.root = root;
+    }
+
+    /**
+     * Creates an index without any entries, which looks up every path on the filesystem.
+     *
+     * @return the index
+     */
+    public static ProjectIndex none() {
+
+        return new ProjectIndex(null);
+    }
+
+    /**
+     * Walks the given folder and indexes every file and folder under it.
+     *
+     * @param rootFolder folder to index, which may not exist
+     * @return the index
+     * @throws IOException if the folder cannot be walked
+     */
+    public static ProjectIndex build(File rootFolder) throws IOException {
+
+        final ProjectIndex index = new ProjectIndex(normalize(rootFolder));
+        if (!rootFolder.isDirectory()) {
+            return index;
+        }
+        Files.walkFileTree(index.root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+
+                        index.directories.put(dir, new ArrayList<>());
+                        index.addChild(dir);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+
+                        if (attrs.isRegularFile()) {
+                            index.files.add(file);
+                        }
+                        index.addChild(file);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+
+                        // Unreadable entries and symbolic link cycles are left out of the index.
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+
+                        Collections.sort(index.directories.get(dir));
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+        return index;
+    }
+
+    /**
+     * @return number of files in the index
+     */
+    public int getFileCount() {
+
+        return files.size();
+    }
+
+    /**
+     * Checks whether the given file or folder exists.
+     */
+    public boolean exists(File file) {
+
+        Path path = normalize(file);
+        if (!isIndexed(path)) {
+            return file.exists();
+        }
+        return files.contains(path) || directories.containsKey(path);
+    }
+
+    /**
+     * Checks whether the given path is a regular file.
+     */
+    public boolean isFile(File file) {
+
+        Path path = normalize(file);
+        if (!isIndexed(path)) {
+            return file.isFile();
+        }
+        return files.contains(path);
+    }
+
+    /**
+     * Lists the files and folders in the given folder sorted by name.
+     *
+     * @param folder folder to be listed
+     * @return the files and folders in the folder, or null if the folder does not exist
+     */
+    public File[] listSortedFiles(File folder) {
+
+        Path path = normalize(folder);
+        if (!isIndexed(path)) {
+            return MavenUtils.listSortedFiles(folder);
+        }
+        List<String> names = directories.get(path);
+        if (names == null) {
+            return null;
+        }
+        File[] children = new File[names.size()];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = new File(folder, names.get(i));
+        }
+        return children;
+    }
+
+    private boolean isIndexed(Path path) {
+
+        return root != null && path.startsWith(root);
+    }
+
+    private void addChild(Path path) {
+
+        List<String> siblings = directories.get(path.getParent());
+        if (siblings != null && !path.equals(root)) {
+            siblings.add(path.getFileName().toString());
+        }
+    }
+
+    private static Path normalize(File file) {
+
+        return file.toPath().toAbsolutePath().normalize();
+    }
+}
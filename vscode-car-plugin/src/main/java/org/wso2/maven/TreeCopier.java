@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Copies a folder tree. The folders are created by a single walk of the source tree, and the files are then copied
+ * by a bounded pool of worker threads, so trees of many small files are not copied one file at a time. Existing
+ * files in the target tree are replaced, and the copies keep the modification times of the sources.
+ */
+public final class TreeCopier {
+
+    /**
+     * Number of files copied concurrently by default. Copying small files is bound by the file system rather than
+     * the CPU, so more threads than this rarely help.
+     */
+    public static final int DEFAULT_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    private static final int FILES_PER_TASK = 64;
+
+    private final int threads;
+    private final AtomicInteger copiedFiles = new AtomicInteger();
+
+    /**
+     * @param threads number of files copied concurrently; files are copied on the calling thread when this is 1 or
+     *                less
+     */
+    public TreeCopier(int threads) {
+
+        this.threads = threads;
+    }
+
+    /**
+     * Copies every folder of the source tree, and every file accepted by the filter, into the target folder.
+     *
+     * @param source folder to be copied
+     * @param target folder the content of the source folder is copied into, which is created if needed
+     * @param filter files to be copied
+     * @throws IOException if the tree cannot be copied
+     */
+    public void copy(final Path source, final Path target, final Predicate<Path> filter) throws IOException {
+
+        final List<Path> files = new ArrayList<>();
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+
+                if (attrs.isRegularFile() && filter.test(file)) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (threads <= 1 || files.size() <= FILES_PER_TASK) {
+            copyFiles(files, source, target);
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int start = 0; start < files.size(); start += FILES_PER_TASK) {
+                List<Path> batch = files.subList(start, Math.min(files.size(), start + FILES_PER_TASK));
+                tasks.add(executor.submit(() -> {
+                    try {
+                        copyFiles(batch, source, target);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while copying " + source, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException("Failed to copy " + source, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return number of files copied
+     */
+    public int getCopiedFiles() {
+
+        return copiedFiles.get();
+    }
+
+    private void copyFiles(List<Path> files, Path source, Path target) throws IOException {
+
+        for (Path file : files) {
+            Path destination = target.resolve(source.relativize(file).toString());
+            Files.copy(file, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            copiedFiles.incrementAndGet();
+        }
+    }
+}
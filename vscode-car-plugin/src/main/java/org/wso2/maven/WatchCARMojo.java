@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the .car file and keeps rebuilding it whenever the project sources change, until the build is stopped.
+ * <p>
+ * The build runs in the same JVM each time, with the plugin classes loaded and the incremental build enabled, so a
+ * rebuild only compresses the entries whose sources changed. The connector and CApp dependencies are resolved by
+ * the first build and reused until pom.xml, the connectors or the local entries of the project change. Bursts of
+ * file events, such as an editor saving several files, are coalesced into one rebuild once the sources have been
+ * quiet for the quiet period. A failed rebuild is logged and the goal keeps watching.
+ *
+ * @goal watch
+ */
+public class WatchCARMojo extends CARMojo {
+
+    /**
+     * Milliseconds without file events after which the changed sources are rebuilt.
+     *
+     * @parameter expression="${watch.quietPeriod}" default-value="200"
+     */
+    long quietPeriod;
+
+    private final Map<WatchKey, Path> watchedFolders = new HashMap<>();
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+
+        incremental = true;
+        keepResolvedDependencies = true;
+        Path projectFolder = StringUtils.isEmpty(sourceDirectory) ? project.getBasedir().toPath() :
+                new File(sourceDirectory).toPath();
+        Path sourceFolder = projectFolder.toAbsolutePath().resolve(Constants.SOURCE_FOLDER_PATH);
+        Path resourcesFolder = projectFolder.toAbsolutePath().resolve(Constants.RESOURCES_FOLDER_PATH);
+        Path pomFile = project.getFile().toPath().toAbsolutePath();
+        // Changes to these invalidate the resolved dependencies.
+        Set<Path> dependencyInputs = new LinkedHashSet<>();
+        dependencyInputs.add(pomFile);
+        dependencyInputs.add(resourcesFolder.resolve(Constants.CONNECTORS_DIR_NAME));
+        dependencyInputs.add(resourcesFolder.resolve(Constants.INBOUND_CONNECTORS_DIR_NAME));
+        // The connections of the local entries select the drivers resolved for the connectors.
+        dependencyInputs.add(projectFolder.toAbsolutePath().resolve(Constants.LOCAL_ENTRIES_FOLDER_PATH));
+
+        rebuild("Initial build", 0);
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            register(watchService, pomFile.getParent());
+            registerTree(watchService, sourceFolder);
+            getLog().info("Watching " + sourceFolder + " for changes. Press Ctrl+C to stop.");
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changes = new LinkedHashSet<>();
+                WatchKey key = watchService.take();
+                long firstEvent = System.nanoTime();
+                // Wait until the sources have been quiet for the quiet period, collecting every change meanwhile.
+                while (key != null) {
+                    collectChanges(watchService, key, changes, sourceFolder, pomFile);
+                    key = watchService.poll(quietPeriod, TimeUnit.MILLISECONDS);
+                }
+                if (changes.isEmpty()) {
+                    continue;
+                }
+                for (Path change : changes) {
+                    if (dependencyInputs.stream().anyMatch(input -> change.startsWith(input) ||
+                            input.startsWith(change))) {
+                        resolvedCAppArchive = null;
+                        break;
+                    }
+                }
+                rebuild(changes.size() + " changed file" + (changes.size() == 1 ? "" : "s"),
+                        System.nanoTime() - firstEvent);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            getLog().debug("Watch service closed", e);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error occurred while watching " + sourceFolder, e);
+        }
+    }
+
+    private void rebuild(String reason, long coalescingNanos) {
+
+        long start = System.nanoTime();
+        try {
+            super.execute();
+            getLog().info(reason + ": build finished in " + (System.nanoTime() - start) / 1_000_000 + " ms (" +
+                    (coalescingNanos + System.nanoTime() - start) / 1_000_000 + " ms since the first change)");
+        } catch (MojoExecutionException | MojoFailureException | RuntimeException e) {
+            resolvedCAppArchive = null;
+            getLog().error(reason + ": build failed after " + (System.nanoTime() - start) / 1_000_000 + " ms", e);
+        }
+    }
+
+    /**
+     * Adds the changed paths of a key to the given set, and watches the folders created under the source folder.
+     * Changes to other files next to pom.xml are ignored.
+     */
+    private void collectChanges(WatchService watchService, WatchKey key, Set<Path> changes, Path sourceFolder,
+                                Path pomFile) throws IOException {
+
+        Path folder = watchedFolders.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || folder == null) {
+                // Events were lost, so the build has to find the changes itself.
+                changes.add(sourceFolder);
+                continue;
+            }
+            Path path = folder.resolve((Path) event.context());
+            if (path.startsWith(sourceFolder)) {
+                changes.add(path);
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                    registerTree(watchService, path);
+                }
+            } else if (path.equals(pomFile)) {
+                changes.add(path);
+            }
+        }
+        if (!key.reset()) {
+            watchedFolders.remove(key);
+        }
+    }
+
+    private void registerTree(WatchService watchService, Path root) throws IOException {
+
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+
+                register(watchService, dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void register(WatchService watchService, Path folder) throws IOException {
+
+        watchedFolders.put(folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), folder);
+    }
+}
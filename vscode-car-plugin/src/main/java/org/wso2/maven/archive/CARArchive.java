@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the entries of a .car archive in the order they are produced. Files are only referenced and
+ * generated documents are kept in memory, so nothing is staged on disk before the archive is written.
+ * Incremental builds may also reference entries of the previously built archive.
+ * Adding an entry with a path that already exists replaces the earlier content.
+ */
+public class CARArchive {
+
+    private final Map<String, CAREntry> entries = new LinkedHashMap<>();
+    private final Set<String> directories = new LinkedHashSet<>();
+
+    /**
+     * Adds a file to the archive.
+     *
+     * @param entryPath path of the entry inside the archive
+     * @param source    file to be streamed into the archive
+     */
+    public synchronized void addFile(String entryPath, File source) {
+
+        entries.put(entryPath, CAREntry.fromFile(entryPath, source));
+    }
+
+    /**
+     * Adds a generated document to the archive.
+     *
+     * @param entryPath path of the entry inside the archive
+     * @param content   content of the entry
+     */
+    public synchronized void addContent(String entryPath, String content) {
+
+        addContent(entryPath, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Adds a generated document which is already encoded to the archive.
+     *
+     * @param entryPath path of the entry inside the archive
+     * @param content   encoded content of the entry
+     */
+    public synchronized void addContent(String entryPath, byte[] content) {
+
+        entries.put(entryPath, CAREntry.fromContent(entryPath, content));
+    }
+
+    /**
+     * Adds an entry whose content is reused from the entry of the same path in a previously built archive.
+     *
+     * @param entryPath       path of the entry inside the archive
+     * @param previousArchive previously built .car file containing the entry
+     */
+    public synchronized void addPreviousEntry(String entryPath, File previousArchive) {
+
+        entries.put(entryPath, CAREntry.fromPreviousArchive(entryPath, previousArchive, null));
+    }
+
+    /**
+     * Replaces a file entry with the entry of the same path in a previously built archive, since the file has not
+     * changed since that archive was written. The entry keeps its position in the archive.
+     *
+     * @param entryPath       path of the entry inside the archive
+     * @param previousArchive previously built .car file containing the entry
+     * @param source          file the entry was read from
+     */
+    public synchronized void addPreviousEntry(String entryPath, File previousArchive, File source) {
+
+        entries.put(entryPath, CAREntry.fromPreviousArchive(entryPath, previousArchive, source));
+    }
+
+    /**
+     * Adds a directory to the archive. Only needed for directories without any files, since the parent
+     * directories of every entry are added when the archive is written.
+     *
+     * @param directoryPath path of the directory inside the archive
+     */
+    public synchronized void addDirectory(String directoryPath) {
+
+        directories.add(directoryPath);
+    }
+
+    /**
+     * Adds the contents of a directory to the archive, keeping the directory structure.
+     *
+     * @param directoryPath path of the directory inside the archive
+     * @param sourceDir     directory to be added
+     * @throws IOException if the directory cannot be read
+     */
+    public void addDirectoryContents(final String directoryPath, final File sourceDir) throws IOException {
+
+        final Path root = sourceDir.toPath();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+
+                addDirectory(toEntryPath(directoryPath, root.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+
+                addFile(toEntryPath(directoryPath, root.relativize(file)), file.toFile());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Appends all entries of the given archive to this archive.
+     *
+     * @param archive archive to be merged
+     */
+    public void addAll(CARArchive archive) {
+
+        List<CAREntry> otherEntries = archive.getEntries();
+        List<String> otherDirectories = archive.getDirectories();
+        synchronized (this) {
+            for (CAREntry entry : otherEntries) {
+                entries.put(entry.getName(), entry);
+            }
+            directories.addAll(otherDirectories);
+        }
+    }
+
+    /**
+     * @return the entries of the archive in the order they were added
+     */
+    public synchronized List<CAREntry> getEntries() {
+
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * @return the directories explicitly added to the archive
+     */
+    public synchronized List<String> getDirectories() {
+
+        return new ArrayList<>(directories);
+    }
+
+    private static String toEntryPath(String directoryPath, Path relativePath) {
+
+        String path = relativePath.toString().replace(File.separatorChar, '/');
+        if (path.isEmpty()) {
+            return directoryPath;
+        }
+        return directoryPath + "/" + path;
+    }
+}
@@ -0,0 +1,598 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.archive;
+
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.parallel.FileBasedScatterGatherBackingStore;
+import org.apache.commons.compress.parallel.InputStreamSupplier;
+import org.wso2.maven.Constants;
+import org.wso2.maven.incremental.IncrementalBuild;
+import org.wso2.maven.model.ArchiveException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * Writes the entries collected in a {@link CARArchive} into a .car file. Every source file is read exactly once,
+ * straight into the archive. When more than one worker thread is requested, entries are deflated concurrently
+ * into scatter streams and then gathered into the .car file in order, so the resulting file has the same layout
+ * as a sequentially written one.
+ * <p>
+ * The output is reproducible: entries are written sorted by path, with a fixed modification time and normalized
+ * permissions, so the same inputs always produce the same .car file.
+ * <p>
+ * Entries whose extension is listed as already compressed (connector zips, jars, dependent .car files, ...) are
+ * STORED instead of being deflated a second time. Entries reused from a previous build of the archive are copied
+ * from it as raw compressed bytes, so only new and changed entries are compressed.
+ * <p>
+ * A {@link CARManifest} can be added as the last entry of the archive. The SHA-256 of every entry is computed while
+ * the entry is streamed into the archive, so the manifest takes no extra pass over the content. The hashes of reused
+ * entries are taken from the manifest of the archive they are copied from.
+ */
+public class CARArchiveWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] EMPTY_CONTENT = new byte[0];
+    private static final int FILE_MODE = 0100644;
+    private static final int DIRECTORY_MODE = 040755;
+
+    /**
+     * Modification time of the entries when no output timestamp is configured: 1980-02-01T00:00:00Z, which is
+     * within the range of zip timestamps in every time zone.
+     */
+    public static final long DEFAULT_ENTRY_TIME = 318211200000L;
+
+    private CARArchiveWriter() {
+    }
+
+    /**
+     * Writes the given archive to the destination file on the calling thread using the default compression level.
+     *
+     * @param archive     entries to be written
+     * @param destZipFile the .car file
+     * @throws ArchiveException if the archive cannot be written
+     */
+    public static void write(CARArchive archive, File destZipFile) throws ArchiveException {
+
+        write(archive, destZipFile, 1, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Writes the given archive to the destination file, storing the default set of already compressed file types.
+     *
+     * @param archive          entries to be written
+     * @param destZipFile      the .car file
+     * @param threads          number of worker threads used to compress the entries
+     * @param compressionLevel deflate compression level, from 0 to 9 or -1 for the default level
+     * @throws ArchiveException if the archive cannot be written
+     */
+    public static void write(CARArchive archive, File destZipFile, int threads, int compressionLevel)
+            throws ArchiveException {
+
+        write(archive, destZipFile, threads, compressionLevel, parseExtensions(Constants.DEFAULT_STORED_EXTENSIONS));
+    }
+
+    /**
+     * Writes the given archive to the destination file using the default entry modification time.
+     *
+     * @param archive          entries to be written
+     * @param destZipFile      the .car file
+     * @param threads          number of worker threads used to compress the entries
+     * @param compressionLevel deflate compression level, from 0 to 9 or -1 for the default level
+     * @param storedExtensions lower case extensions, without the leading dot, of the entries to be stored
+     *                         without compression
+     * @throws ArchiveException if the archive cannot be written
+     */
+    public static void write(CARArchive archive, File destZipFile, int threads, int compressionLevel,
+                             Set<String> storedExtensions) throws ArchiveException {
+
+        write(archive, destZipFile, threads, compressionLevel, storedExtensions, DEFAULT_ENTRY_TIME);
+    }
+
+    /**
+     * Writes the given archive to the destination file.
+     *
+     * @param archive          entries to be written
+     * @param destZipFile      the .car file
+     * @param threads          number of worker threads used to compress the entries
+     * @param compressionLevel deflate compression level, from 0 to 9 or -1 for the default level
+     * @param storedExtensions lower case extensions, without the leading dot, of the entries to be stored
+     *                         without compression
+     * @param entryTime        modification time of every entry, in milliseconds since the epoch
+     * @throws ArchiveException if the archive cannot be written
+     */
+    public static void write(CARArchive archive, File destZipFile, int threads, int compressionLevel,
+                             Set<String> storedExtensions, long entryTime) throws ArchiveException {
+
+        write(archive, destZipFile, threads, compressionLevel, storedExtensions, entryTime, false);
+    }
+
+    /**
+     * Writes the given archive to the destination file.
+     *
+     * @param archive          entries to be written
+     * @param destZipFile      the .car file
+     * @param threads          number of worker threads used to compress the entries
+     * @param compressionLevel deflate compression level, from 0 to 9 or -1 for the default level
+     * @param storedExtensions lower case extensions, without the leading dot, of the entries to be stored
+     *                         without compression
+     * @param entryTime        modification time of every entry, in milliseconds since the epoch
+     * @param contentManifest  whether to add a {@link CARManifest} with the hashes of the entries
+     * @throws ArchiveException if the archive cannot be written
+     */
+    public static void write(CARArchive archive, File destZipFile, int threads, int compressionLevel,
+                             Set<String> storedExtensions, long entryTime, boolean contentManifest)
+            throws ArchiveException {
+
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new ArchiveException("Invalid compression level " + compressionLevel +
+                    ". Expected a value from 0 to 9, or -1 for the default level.");
+        }
+        long time = toDosTime(entryTime);
+        List<ZipItem> items = collectItems(archive, storedExtensions, time, contentManifest);
+        try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(destZipFile);
+             PreviousArchives previousArchives = new PreviousArchives()) {
+            zip.setLevel(compressionLevel);
+            if (threads > 1) {
+                writeInParallel(items, zip, threads, compressionLevel, destZipFile.getAbsoluteFile().getParentFile(),
+                        previousArchives);
+            } else {
+                writeSequentially(items, zip, previousArchives);
+            }
+            if (contentManifest) {
+                writeManifest(items, zip, time);
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            throw new ArchiveException(Constants.ARCHIVE_EXCEPTION_MSG, ex);
+        }
+    }
+
+    private static void writeSequentially(List<ZipItem> items, ZipArchiveOutputStream zip,
+                                          PreviousArchives previousArchives) throws IOException {
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (ZipItem item : items) {
+            if (item.isReused()) {
+                previousArchives.copyRawEntry(item, zip);
+                continue;
+            }
+            zip.putArchiveEntry(item.createZipEntry());
+            try (InputStream in = item.openStream()) {
+                int len;
+                while ((len = in.read(buffer)) > 0) {
+                    zip.write(buffer, 0, len);
+                }
+            }
+            zip.closeArchiveEntry();
+        }
+    }
+
+    /**
+     * Deflates the entries on a worker pool. Entries reused from a previous archive are copied as they are, so
+     * the entries between two reused entries are compressed as one batch and gathered before the next reused
+     * entry is copied. Batches without at least two files to compress are written on the calling thread.
+     */
+    private static void writeInParallel(List<ZipItem> items, ZipArchiveOutputStream zip, int threads,
+                                        int compressionLevel, File scatterDir, PreviousArchives previousArchives)
+            throws IOException, ArchiveException {
+
+        List<ZipItem> batch = new ArrayList<>();
+        for (ZipItem item : items) {
+            if (item.isReused()) {
+                writeBatch(batch, zip, threads, compressionLevel, scatterDir, previousArchives);
+                batch.clear();
+                previousArchives.copyRawEntry(item, zip);
+            } else {
+                batch.add(item);
+            }
+        }
+        writeBatch(batch, zip, threads, compressionLevel, scatterDir, previousArchives);
+    }
+
+    private static void writeBatch(List<ZipItem> batch, ZipArchiveOutputStream zip, int threads,
+                                   int compressionLevel, File scatterDir, PreviousArchives previousArchives)
+            throws IOException, ArchiveException {
+
+        int files = 0;
+        for (ZipItem item : batch) {
+            if (item.entry != null) {
+                files++;
+            }
+        }
+        if (files < 2) {
+            writeSequentially(batch, zip, previousArchives);
+            return;
+        }
+        compressInParallel(batch, zip, threads, compressionLevel, scatterDir);
+    }
+
+    /**
+     * Deflates the given entries on a worker pool. Each worker compresses into a scatter file created next to the
+     * .car file, which is deleted once its entries have been gathered.
+     */
+    private static void compressInParallel(List<ZipItem> items, ZipArchiveOutputStream zip, int threads,
+                                           int compressionLevel, File scatterDir)
+            throws IOException, ArchiveException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ParallelScatterZipCreator creator = new ParallelScatterZipCreator(executor,
+                () -> new FileBasedScatterGatherBackingStore(File.createTempFile("car-scatter", ".tmp", scatterDir)),
+                compressionLevel);
+        for (ZipItem item : items) {
+            creator.addArchiveEntry(item.createZipEntry(), item);
+        }
+        try {
+            creator.writeTo(zip);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ArchiveException("Interrupted while writing the .car file", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new ArchiveException(Constants.ARCHIVE_EXCEPTION_MSG, cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds the manifest of the written entries, and its directory unless the archive already has it.
+     */
+    private static void writeManifest(List<ZipItem> items, ZipArchiveOutputStream zip, long time)
+            throws IOException {
+
+        Map<String, CARManifest.EntryDigest> digests = new HashMap<>();
+        Map<String, byte[]> artifactXmls = new HashMap<>();
+        boolean hasDirectory = false;
+        String directory = CARManifest.ENTRY_NAME.substring(0, CARManifest.ENTRY_NAME.lastIndexOf('/') + 1);
+        for (ZipItem item : items) {
+            if (item.entry == null) {
+                hasDirectory |= item.name.equals(directory);
+                continue;
+            }
+            digests.put(item.name, item.digest);
+            if (item.artifactXml != null) {
+                artifactXmls.put(item.name, item.artifactXml);
+            }
+        }
+        if (!hasDirectory) {
+            zip.putArchiveEntry(new ZipItem(directory, null, true, time, false).createZipEntry());
+            zip.closeArchiveEntry();
+        }
+        ZipItem manifestItem = new ZipItem(CARManifest.ENTRY_NAME, null, false, time, false);
+        ZipArchiveEntry manifestEntry = manifestItem.createZipEntry();
+        manifestEntry.setUnixMode(FILE_MODE);
+        zip.putArchiveEntry(manifestEntry);
+        zip.write(CARManifest.create(digests, artifactXmls).toBytes());
+        zip.closeArchiveEntry();
+    }
+
+    /**
+     * Parses a comma separated list of file extensions, such as "zip, .jar,car".
+     *
+     * @param extensions comma separated extensions
+     * @return lower case extensions without the leading dot
+     */
+    public static Set<String> parseExtensions(String extensions) {
+
+        Set<String> parsed = new HashSet<>();
+        if (extensions == null) {
+            return parsed;
+        }
+        for (String extension : extensions.split(",")) {
+            extension = extension.trim().toLowerCase(Locale.ROOT);
+            if (extension.startsWith(".")) {
+                extension = extension.substring(1);
+            }
+            if (!extension.isEmpty()) {
+                parsed.add(extension);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Lists the zip entries to be written sorted by path: the explicitly added directories, every file entry and
+     * the parent directories of every file entry. A directory sorts before its content.
+     */
+    private static List<ZipItem> collectItems(CARArchive archive, Set<String> storedExtensions, long time,
+                                              boolean digested) {
+
+        List<ZipItem> items = new ArrayList<>();
+        Set<String> listedDirectories = new HashSet<>();
+        for (String directory : archive.getDirectories()) {
+            addDirectories(directory + "/", items, listedDirectories, time);
+        }
+        for (CAREntry entry : archive.getEntries()) {
+            if (digested && CARManifest.ENTRY_NAME.equals(entry.getName())) {
+                // The manifest describes the entries being written, so a manifest added to the archive is replaced.
+                continue;
+            }
+            addDirectories(entry.getName(), items, listedDirectories, time);
+            items.add(new ZipItem(entry.getName(), entry, isStored(entry.getName(), storedExtensions), time,
+                    digested));
+        }
+        items.sort(Comparator.comparing(item -> item.name));
+        return items;
+    }
+
+    private static void addDirectories(String entryPath, List<ZipItem> items, Set<String> listedDirectories,
+                                       long time) {
+
+        int index = entryPath.indexOf('/');
+        while (index > 0) {
+            String directory = entryPath.substring(0, index + 1);
+            if (listedDirectories.add(directory)) {
+                items.add(new ZipItem(directory, null, true, time, false));
+            }
+            index = entryPath.indexOf('/', index + 1);
+        }
+    }
+
+    /**
+     * Zip entries store their modification time as a local date and time. The time is shifted by the offset of
+     * the default time zone, so that every build writes the same date and time whatever the time zone is.
+     */
+    private static long toDosTime(long time) {
+
+        return time - TimeZone.getDefault().getOffset(time);
+    }
+
+    /**
+     * The previously built archives from which entries are reused, opened once for the whole write.
+     */
+    private static final class PreviousArchives implements Closeable {
+
+        private final Map<File, ZipFile> openArchives = new HashMap<>();
+        private final Map<File, CARManifest> manifests = new HashMap<>();
+
+        /**
+         * Copies the compressed bytes of an entry of a previous archive into the new archive, without
+         * decompressing and compressing them again.
+         */
+        private void copyRawEntry(ZipItem item, ZipArchiveOutputStream zip) throws IOException {
+
+            CAREntry entry = item.entry;
+            ZipFile zipFile = openArchives.get(entry.getPreviousArchive());
+            if (zipFile == null) {
+                zipFile = new ZipFile(entry.getPreviousArchive());
+                openArchives.put(entry.getPreviousArchive(), zipFile);
+            }
+            ZipArchiveEntry previousEntry = zipFile.getEntry(entry.getName());
+            if (previousEntry == null) {
+                throw new IOException(entry.getName() + " is not found in " +
+                        entry.getPreviousArchive().getAbsolutePath());
+            }
+            try (InputStream rawContent = zipFile.getRawInputStream(previousEntry)) {
+                zip.addRawArchiveEntry(previousEntry, rawContent);
+            }
+            if (item.digested) {
+                digestPreviousEntry(item, zipFile, previousEntry);
+            }
+        }
+
+        /**
+         * Takes the hash of a reused entry from the manifest of its archive. Entries of archives written without a
+         * manifest are decompressed and hashed, as is the artifact.xml of every artifact, which is small.
+         */
+        private void digestPreviousEntry(ZipItem item, ZipFile zipFile, ZipArchiveEntry previousEntry)
+                throws IOException {
+
+            File previousArchive = item.entry.getPreviousArchive();
+            if (!manifests.containsKey(previousArchive)) {
+                ZipArchiveEntry manifestEntry = zipFile.getEntry(CARManifest.ENTRY_NAME);
+                CARManifest manifest = null;
+                if (manifestEntry != null) {
+                    try (InputStream in = zipFile.getInputStream(manifestEntry)) {
+                        manifest = CARManifest.read(in);
+                    } catch (IOException e) {
+                        // An unreadable manifest is not used, and the entries are hashed instead.
+                    }
+                }
+                manifests.put(previousArchive, manifest);
+            }
+            CARManifest manifest = manifests.get(previousArchive);
+            CARManifest.EntryDigest digest = manifest == null ? null : manifest.getEntry(item.name);
+            if (digest != null && !CARManifest.isArtifactXml(item.name)) {
+                item.digest = digest;
+                return;
+            }
+            try (InputStream in = item.new DigestingInputStream(zipFile.getInputStream(previousEntry))) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                while (in.read(buffer) >= 0) {
+                    // The content is only hashed.
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            IOException failure = null;
+            for (ZipFile zipFile : openArchives.values()) {
+                try {
+                    zipFile.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            openArchives.clear();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private static boolean isStored(String entryPath, Set<String> storedExtensions) {
+
+        int index = entryPath.lastIndexOf('.');
+        if (index < 0 || index < entryPath.lastIndexOf('/')) {
+            return false;
+        }
+        return storedExtensions.contains(entryPath.substring(index + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * A file or directory entry of the .car file. Stored entries are written without compression; the writer
+     * fills in their size and CRC since the .car file is written with random access.
+     * <p>
+     * The digest of a file entry is filled in once its content has been read, which may be on a worker thread. It
+     * is only read after all entries have been written.
+     */
+    private static final class ZipItem implements InputStreamSupplier {
+
+        private final String name;
+        private final CAREntry entry;
+        private final boolean stored;
+        private final long time;
+        private final boolean digested;
+        private CARManifest.EntryDigest digest;
+        private byte[] artifactXml;
+
+        private ZipItem(String name, CAREntry entry, boolean stored, long time, boolean digested) {
+
+            this.name = name;
+            this.entry = entry;
+            this.stored = stored;
+            this.time = time;
+            this.digested = digested;
+        }
+
+        private boolean isReused() {
+
+            return entry != null && entry.getPreviousArchive() != null;
+        }
+
+        private ZipArchiveEntry createZipEntry() {
+
+            ZipArchiveEntry zipEntry = new ZipArchiveEntry(name);
+            zipEntry.setMethod(stored ? ZipEntry.STORED : ZipEntry.DEFLATED);
+            zipEntry.setTime(time);
+            zipEntry.setUnixMode(entry == null ? DIRECTORY_MODE : FILE_MODE);
+            return zipEntry;
+        }
+
+        private InputStream openStream() throws IOException {
+
+            if (entry == null) {
+                return new ByteArrayInputStream(EMPTY_CONTENT);
+            }
+            return digested ? new DigestingInputStream(entry.openStream()) : entry.openStream();
+        }
+
+        @Override
+        public InputStream get() {
+
+            try {
+                return openStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + name, e);
+            }
+        }
+
+        /**
+         * Hashes the content of the entry as it is read, and keeps the content of an artifact.xml for the
+         * manifest. The digest of the entry is set when the stream is closed.
+         */
+        private final class DigestingInputStream extends FilterInputStream {
+
+            private final MessageDigest messageDigest = IncrementalBuild.newSha256Digest();
+            private final ByteArrayOutputStream artifactXmlContent =
+                    CARManifest.isArtifactXml(name) ? new ByteArrayOutputStream() : null;
+            private long size;
+
+            private DigestingInputStream(InputStream in) {
+
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+
+                int b = super.read();
+                if (b >= 0) {
+                    update(new byte[]{(byte) b}, 0, 1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+
+                int read = super.read(b, off, len);
+                if (read > 0) {
+                    update(b, off, read);
+                }
+                return read;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+
+                throw new IOException("Skipping is not supported while hashing " + name);
+            }
+
+            @Override
+            public void close() throws IOException {
+
+                super.close();
+                if (digest == null) {
+                    digest = new CARManifest.EntryDigest(IncrementalBuild.toHex(messageDigest.digest()), size);
+                    if (artifactXmlContent != null) {
+                        artifactXml = artifactXmlContent.toByteArray();
+                    }
+                }
+            }
+
+            private void update(byte[] b, int off, int len) {
+
+                messageDigest.update(b, off, len);
+                size += len;
+                if (artifactXmlContent != null) {
+                    artifactXmlContent.write(b, off, len);
+                }
+            }
+        }
+    }
+}
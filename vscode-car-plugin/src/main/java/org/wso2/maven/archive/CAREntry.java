@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * An entry of the .car archive. The content of an entry is either a file on disk, which is streamed into the
+ * archive when it is written, a generated document which is kept in memory, or an entry of the same name in a
+ * previously built .car file which is reused by incremental builds. Reused entries are copied into the new
+ * archive without being decompressed.
+ */
+public class CAREntry {
+
+    private final String name;
+    private final File source;
+    private final byte[] content;
+    private final File previousArchive;
+
+    private CAREntry(String name, File source, byte[] content, File previousArchive) {
+
+        this.name = name;
+        this.source = source;
+        this.content = content;
+        this.previousArchive = previousArchive;
+    }
+
+    static CAREntry fromFile(String name, File source) {
+
+        return new CAREntry(name, source, null, null);
+    }
+
+    static CAREntry fromContent(String name, byte[] content) {
+
+        return new CAREntry(name, null, content, null);
+    }
+
+    static CAREntry fromPreviousArchive(String name, File previousArchive, File source) {
+
+        return new CAREntry(name, source, null, previousArchive);
+    }
+
+    /**
+     * @return the path of the entry inside the archive
+     */
+    public String getName() {
+
+        return name;
+    }
+
+    /**
+     * @return the file backing this entry, or null if the content is generated. An entry reused from a previous
+     * archive keeps the file it was originally read from.
+     */
+    public File getSource() {
+
+        return source;
+    }
+
+    /**
+     * @return the previously built .car file holding the content of this entry, or null if the content is not
+     * reused from an earlier build
+     */
+    public File getPreviousArchive() {
+
+        return previousArchive;
+    }
+
+    /**
+     * @return the generated content of this entry, or null if the content is read from a file
+     */
+    public byte[] getContent() {
+
+        return content;
+    }
+
+    /**
+     * @return the size of the entry content in bytes, or -1 if it cannot be determined
+     */
+    public long getSize() {
+
+        if (source != null) {
+            return source.length();
+        }
+        if (content != null) {
+            return content.length;
+        }
+        try (ZipFile zipFile = new ZipFile(previousArchive)) {
+            ZipEntry entry = zipFile.getEntry(name);
+            return entry == null ? -1 : entry.getSize();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Opens a stream to read the content of the entry.
+     *
+     * @return input stream of the entry content
+     * @throws IOException if the source file cannot be opened
+     */
+    public InputStream openStream() throws IOException {
+
+        if (previousArchive == null) {
+            return source != null ? new FileInputStream(source) : new ByteArrayInputStream(content);
+        }
+        final ZipFile zipFile = new ZipFile(previousArchive);
+        ZipEntry entry = zipFile.getEntry(name);
+        if (entry == null) {
+            zipFile.close();
+            throw new IOException(name + " is not found in " + previousArchive.getAbsolutePath());
+        }
+        return new FilterInputStream(zipFile.getInputStream(entry)) {
+            @Override
+            public void close() throws IOException {
+
+                try {
+                    super.close();
+                } finally {
+                    zipFile.close();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.archive;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.wso2.maven.ArtifactHeader;
+import org.wso2.maven.Constants;
+import org.wso2.maven.incremental.IncrementalBuild;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Content manifest of a .car file, stored in the archive as {@value #ENTRY_NAME}. It lists the SHA-256 hash and
+ * size of every file entry, computed by {@link CARArchiveWriter} while the entries are streamed into the archive,
+ * and the same for every artifact, i.e. every folder holding an artifact.xml. Tools can verify or compare .car
+ * files by reading this one entry instead of decompressing the whole archive.
+ * <p>
+ * The hash of an artifact is the SHA-256 of the path, a zero byte, the hash and a new line of every file entry of
+ * the artifact, in the order of their paths.
+ */
+public final class CARManifest {
+
+    /**
+     * Path of the manifest inside the .car file.
+     */
+    public static final String ENTRY_NAME = "META-INF/car-manifest.json";
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String ARTIFACT_XML_SUFFIX = "/artifact.xml";
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private int version = FORMAT_VERSION;
+    private String algorithm = "SHA-256";
+    private List<Artifact> artifacts = new ArrayList<>();
+    private Map<String, EntryDigest> entries = new TreeMap<>();
+
+    /**
+     * Reads a manifest.
+     *
+     * @param in content of the manifest entry, which is not closed
+     * @return the manifest
+     * @throws IOException if the manifest cannot be read or has an unknown format
+     */
+    public static CARManifest read(InputStream in) throws IOException {
+
+        CARManifest manifest;
+        try {
+            Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+            manifest = GSON.fromJson(reader, CARManifest.class);
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid " + ENTRY_NAME, e);
+        }
+        if (manifest == null || manifest.version != FORMAT_VERSION || manifest.entries == null
+                || manifest.artifacts == null) {
+            throw new IOException("Unsupported " + ENTRY_NAME);
+        }
+        return manifest;
+    }
+
+    /**
+     * Creates the manifest of the given file entries.
+     *
+     * @param entries      hash and size of every file entry, by path
+     * @param artifactXmls content of the artifact.xml entries, by path
+     * @return the manifest
+     */
+    static CARManifest create(Map<String, EntryDigest> entries, Map<String, byte[]> artifactXmls)
+            throws IOException {
+
+        CARManifest manifest = new CARManifest();
+        manifest.entries.putAll(entries);
+        Map<String, Artifact> artifactsByFolder = new TreeMap<>();
+        for (Map.Entry<String, byte[]> artifactXml : artifactXmls.entrySet()) {
+            String path = artifactXml.getKey();
+            String folder = path.substring(0, path.length() - ARTIFACT_XML_SUFFIX.length());
+            artifactsByFolder.put(folder, readArtifact(folder, path, artifactXml.getValue()));
+        }
+        Map<String, MessageDigest> digests = new HashMap<>();
+        for (Map.Entry<String, EntryDigest> entry : manifest.entries.entrySet()) {
+            Artifact artifact = findArtifact(artifactsByFolder, entry.getKey());
+            if (artifact == null) {
+                continue;
+            }
+            MessageDigest digest = digests.computeIfAbsent(artifact.folder,
+                    folder -> IncrementalBuild.newSha256Digest());
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(entry.getValue().sha256.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            artifact.size += entry.getValue().size;
+        }
+        // Every artifact has at least its artifact.xml, so every artifact has a digest.
+        for (Artifact artifact : artifactsByFolder.values()) {
+            artifact.sha256 = IncrementalBuild.toHex(digests.get(artifact.folder).digest());
+            manifest.artifacts.add(artifact);
+        }
+        return manifest;
+    }
+
+    /**
+     * @return whether the given entry path is an artifact.xml, whose content is needed to create the manifest
+     */
+    static boolean isArtifactXml(String path) {
+
+        return path.endsWith(ARTIFACT_XML_SUFFIX);
+    }
+
+    byte[] toBytes() {
+
+        return GSON.toJson(this).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the artifacts of the .car file, sorted by folder
+     */
+    public List<Artifact> getArtifacts() {
+
+        return Collections.unmodifiableList(artifacts);
+    }
+
+    /**
+     * Returns the hash and size of a file entry.
+     *
+     * @param path path of the entry inside the archive
+     * @return the digest of the entry, or null if the archive does not have such a file entry
+     */
+    public EntryDigest getEntry(String path) {
+
+        return entries.get(path);
+    }
+
+    private static Artifact readArtifact(String folder, String path, byte[] content) throws IOException {
+
+        try (InputStream in = new ByteArrayInputStream(content)) {
+            ArtifactHeader header = ArtifactHeader.read(in, path);
+            Artifact artifact = new Artifact();
+            artifact.folder = folder;
+            artifact.name = header.getAttributeValue(Constants.NAME);
+            artifact.version = header.getAttributeValue(Constants.VERSION);
+            artifact.type = header.getAttributeValue(Constants.TYPE);
+            artifact.dependency = artifact.name + ":" + artifact.version;
+            return artifact;
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid " + path, e);
+        }
+    }
+
+    /**
+     * @return the artifact with the deepest folder containing the given entry, or null if the entry is not part of
+     * an artifact
+     */
+    private static Artifact findArtifact(Map<String, Artifact> artifactsByFolder, String path) {
+
+        for (int end = path.lastIndexOf('/'); end > 0; end = path.lastIndexOf('/', end - 1)) {
+            Artifact artifact = artifactsByFolder.get(path.substring(0, end));
+            if (artifact != null) {
+                return artifact;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Hash and uncompressed size of a file entry.
+     */
+    public static final class EntryDigest {
+
+        private final String sha256;
+        private final long size;
+
+        EntryDigest(String sha256, long size) {
+
+            this.sha256 = sha256;
+            this.size = size;
+        }
+
+        /**
+         * @return the hex encoded SHA-256 of the entry content
+         */
+        public String getSha256() {
+
+            return sha256;
+        }
+
+        /**
+         * @return the uncompressed size of the entry
+         */
+        public long getSize() {
+
+            return size;
+        }
+    }
+
+    /**
+     * An artifact of the .car file.
+     */
+    public static final class Artifact {
+
+        private String folder;
+        private String name;
+        private String version;
+        private String type;
+        private String dependency;
+        private long size;
+        private String sha256;
+
+        /**
+         * @return the folder of the artifact inside the archive
+         */
+        public String getFolder() {
+
+            return folder;
+        }
+
+        /**
+         * @return the name of the artifact
+         */
+        public String getName() {
+
+            return name;
+        }
+
+        /**
+         * @return the version of the artifact
+         */
+        public String getVersion() {
+
+            return version;
+        }
+
+        /**
+         * @return the type of the artifact
+         */
+        public String getType() {
+
+            return type;
+        }
+
+        /**
+         * @return the key of the artifact in the dependencies of artifacts.xml, as artifact:version
+         */
+        public String getDependency() {
+
+            return dependency;
+        }
+
+        /**
+         * @return the total uncompressed size of the file entries of the artifact
+         */
+        public long getSize() {
+
+            return size;
+        }
+
+        /**
+         * @return the hex encoded SHA-256 of the artifact, computed from the paths and hashes of its file entries
+         */
+        public String getSha256() {
+
+            return sha256;
+        }
+    }
+}
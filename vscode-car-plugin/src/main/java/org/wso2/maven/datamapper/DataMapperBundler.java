@@ -20,7 +20,6 @@ package org.wso2.maven.datamapper;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileFilter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
@@ -51,6 +50,7 @@ import org.apache.maven.shared.invoker.Invoker;
 import org.apache.maven.shared.invoker.MavenInvocationException;
 import org.apache.maven.shared.invoker.DefaultInvoker;
 import org.wso2.maven.CARMojo;
+import org.wso2.maven.TreeCopier;
 
 import static org.wso2.maven.MavenUtils.setupInvoker;
 
@@ -258,17 +258,17 @@ public class DataMapperBundler {
     private void copyDataMapperFilesToTarget() throws DataMapperException {
         Path oldDataMapperPath = Paths.get(resourcesDirectory + File.separator + Constants.DATA_MAPPER_DIR_PATH);
         Path newDataMapperPath = Paths.get(resourcesDirectory + File.separator + Constants.DATA_MAPPER_DIR_NAME);
+        Path targetDataMapperPath = Paths.get("." + File.separator + Constants.TARGET_DIR_NAME + File.separator +
+                Constants.DATA_MAPPER_DIR_NAME);
+        TreeCopier copier = new TreeCopier(TreeCopier.DEFAULT_THREADS);
         try {
             if (Files.exists(oldDataMapperPath)) {
-                FileUtils.copyDirectory(oldDataMapperPath.toFile(),
-                        Paths.get("." + File.separator + Constants.TARGET_DIR_NAME + File.separator +
-                                Constants.DATA_MAPPER_DIR_NAME).toFile());
+                copier.copy(oldDataMapperPath, targetDataMapperPath, file -> true);
             }
             if (Files.exists(newDataMapperPath)) {
-                FileUtils.copyDirectory(newDataMapperPath.toFile(),
-                        Paths.get("." + File.separator + Constants.TARGET_DIR_NAME + File.separator +
-                                Constants.DATA_MAPPER_DIR_NAME).toFile());
+                copier.copy(newDataMapperPath, targetDataMapperPath, file -> true);
             }
+            mojoInstance.getLog().debug("Data mapper files copied to target directory: " + copier.getCopiedFiles());
         } catch (IOException e) {
             throw new DataMapperException("Failed to copy data mapper files to target directory.", e);
         }
@@ -917,12 +917,8 @@ public class DataMapperBundler {
                 Files.createDirectories(dataMapper);
             }
             // Exclude .ts files
-            FileFilter excludeTsFiles = file -> !file.getName().endsWith(".ts");
-            FileUtils.copyDirectory(
-                cachedDataMapperPath.toFile(),
-                dataMapper.toFile(),
-                excludeTsFiles
-            );
+            new TreeCopier(TreeCopier.DEFAULT_THREADS).copy(cachedDataMapperPath, dataMapper,
+                    file -> !file.getFileName().toString().endsWith(".ts"));
             mojoInstance.getLog().info("Data mapper : " + cachedDataMapperPath.getFileName() + " restored from cache to resources directory");
         } catch (IOException e) {
             throw new DataMapperException("Failed to restore data mapper from cache to resources directory.", e);
@@ -945,7 +941,7 @@ public class DataMapperBundler {
             }
             Path targetPath = Paths.get("." + File.separator + Constants.TARGET_DIR_NAME + File.separator
                     + Constants.DATA_MAPPER_DIR_NAME);
-            FileUtils.copyDirectory(targetPath.toFile(), cachePath.toFile());
+            new TreeCopier(TreeCopier.DEFAULT_THREADS).copy(targetPath, cachePath, file -> true);
             mojoInstance.getLog().info("Data mappers copied to cache directory successfully");
         } catch (IOException e) {
             throw new DataMapperException("Failed to clean or copy data mappers to cache directory.", e);
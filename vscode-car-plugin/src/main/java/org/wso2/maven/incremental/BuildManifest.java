@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.incremental;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.wso2.maven.model.ArtifactDependency;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The build manifest persisted next to the .car file by incremental builds. It maps every input of the archive to
+ * the content hash it had when the archive was written and to the archive entries it produced. Artifact
+ * configurations additionally keep the dependencies collected while processing them, so an unchanged artifact
+ * does not need to be parsed again.
+ */
+public class BuildManifest {
+
+    static final int FORMAT_VERSION = 1;
+    private static final Gson GSON = new GsonBuilder().serializeNulls().setPrettyPrinting().create();
+
+    private int formatVersion = FORMAT_VERSION;
+    private String context;
+    private long archiveSize;
+    private long archiveLastModified;
+    private Map<String, ArtifactRecord> artifacts = new LinkedHashMap<>();
+    private Map<String, InputRecord> inputs = new LinkedHashMap<>();
+
+    public BuildManifest() {
+    }
+
+    BuildManifest(String context) {
+
+        this.context = context;
+    }
+
+    /**
+     * Reads a manifest written by an earlier build.
+     *
+     * @param manifestFile manifest file
+     * @return the manifest
+     * @throws IOException if the file cannot be read or is not a valid manifest
+     */
+    public static BuildManifest load(File manifestFile) throws IOException {
+
+        try (Reader reader = Files.newBufferedReader(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+            BuildManifest manifest = GSON.fromJson(reader, BuildManifest.class);
+            if (manifest == null) {
+                throw new IOException("Build manifest " + manifestFile.getAbsolutePath() + " is empty");
+            }
+            return manifest;
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid build manifest " + manifestFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Writes this manifest to the given file.
+     *
+     * @param manifestFile manifest file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File manifestFile) throws IOException {
+
+        try (Writer writer = Files.newBufferedWriter(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+            GSON.toJson(this, writer);
+        }
+    }
+
+    public int getFormatVersion() {
+
+        return formatVersion;
+    }
+
+    public String getContext() {
+
+        return context;
+    }
+
+    public long getArchiveSize() {
+
+        return archiveSize;
+    }
+
+    public long getArchiveLastModified() {
+
+        return archiveLastModified;
+    }
+
+    void setArchive(File archiveFile) {
+
+        this.archiveSize = archiveFile.length();
+        this.archiveLastModified = archiveFile.lastModified();
+    }
+
+    /**
+     * @return artifact configurations keyed by their absolute path
+     */
+    public Map<String, ArtifactRecord> getArtifacts() {
+
+        return artifacts;
+    }
+
+    /**
+     * @return other source files and resolved dependencies keyed by their absolute path
+     */
+    public Map<String, InputRecord> getInputs() {
+
+        return inputs;
+    }
+
+    /**
+     * A file used as an input of the archive.
+     */
+    public static class InputRecord {
+
+        private long size;
+        private long lastModified;
+        private String sha256;
+        private List<String> entries = new ArrayList<>();
+
+        public InputRecord() {
+        }
+
+        public long getSize() {
+
+            return size;
+        }
+
+        public long getLastModified() {
+
+            return lastModified;
+        }
+
+        public String getSha256() {
+
+            return sha256;
+        }
+
+        void setFile(File file, String sha256) {
+
+            this.size = file.length();
+            this.lastModified = file.lastModified();
+            this.sha256 = sha256;
+        }
+
+        /**
+         * @return the archive entries produced from this input, in the order they were added
+         */
+        public List<String> getEntries() {
+
+            return entries;
+        }
+    }
+
+    /**
+     * An artifact configuration together with everything collected while processing it.
+     */
+    public static class ArtifactRecord extends InputRecord {
+
+        private String type;
+        private List<String> fileEntries = new ArrayList<>();
+        private List<ArtifactDependency> dependencies = new ArrayList<>();
+        private List<ArtifactDependency> metadataDependencies = new ArrayList<>();
+        private Map<String, String> apis = new LinkedHashMap<>();
+        private Map<String, String> proxies = new LinkedHashMap<>();
+
+        public ArtifactRecord() {
+        }
+
+        ArtifactRecord(String type) {
+
+            this.type = type;
+        }
+
+        public String getType() {
+
+            return type;
+        }
+
+        /**
+         * @return the entries whose content is the artifact configuration itself. All other entries are generated.
+         */
+        public List<String> getFileEntries() {
+
+            return fileEntries;
+        }
+
+        public List<ArtifactDependency> getDependencies() {
+
+            return dependencies;
+        }
+
+        public List<ArtifactDependency> getMetadataDependencies() {
+
+            return metadataDependencies;
+        }
+
+        public Map<String, String> getApis() {
+
+            return apis;
+        }
+
+        public Map<String, String> getProxies() {
+
+            return proxies;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.incremental;
+
+import org.wso2.developerstudio.eclipse.utils.file.FileUtils;
+import org.wso2.maven.CARMojo;
+import org.wso2.maven.archive.CARArchive;
+import org.wso2.maven.archive.CAREntry;
+import org.wso2.maven.model.ArtifactDependency;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the inputs of an incremental CAR build. Artifact configurations which have not changed since the
+ * previous build are not parsed again: the dependencies collected for them are taken from the build manifest and
+ * their generated entries are copied from the previous .car file. Before the archive is written, the entries of
+ * every other unchanged file are also pointed at the previous .car file, so that only new and changed entries
+ * are compressed.
+ * <p>
+ * A file is considered unchanged when its size and modification time match the manifest, or when its size
+ * matches and its SHA-256 hash is the same.
+ */
+public class IncrementalBuild {
+
+    private final CARMojo mojo;
+    private final File manifestFile;
+    private final File archiveFile;
+    private final BuildManifest previous;
+    private final BuildManifest current;
+    private final AtomicInteger reusedArtifacts = new AtomicInteger();
+    private final AtomicInteger processedArtifacts = new AtomicInteger();
+
+    private IncrementalBuild(CARMojo mojo, File manifestFile, File archiveFile, BuildManifest previous,
+                             String context) {
+
+        this.mojo = mojo;
+        this.manifestFile = manifestFile;
+        this.archiveFile = archiveFile;
+        this.previous = previous;
+        this.current = new BuildManifest(context);
+    }
+
+    /**
+     * Starts an incremental build. The manifest of the previous build is only used when it was written for the
+     * same build context and the .car file it describes has not been replaced since.
+     *
+     * @param mojo         the CARMojo instance used for logging
+     * @param manifestFile manifest of the previous build
+     * @param archiveFile  the .car file built by the previous build
+     * @param context      settings which affect the content of every artifact, such as the project version
+     * @return the incremental build
+     */
+    public static IncrementalBuild open(CARMojo mojo, File manifestFile, File archiveFile, String context) {
+
+        BuildManifest previous = null;
+        if (manifestFile.exists() && archiveFile.exists()) {
+            try {
+                BuildManifest manifest = BuildManifest.load(manifestFile);
+                if (manifest.getFormatVersion() != BuildManifest.FORMAT_VERSION) {
+                    mojo.logInfo("Build manifest format has changed. Rebuilding all artifacts.");
+                } else if (!context.equals(manifest.getContext())) {
+                    mojo.logInfo("Build settings have changed since the previous build. Rebuilding all artifacts.");
+                } else if (manifest.getArchiveSize() != archiveFile.length() ||
+                        manifest.getArchiveLastModified() != archiveFile.lastModified()) {
+                    mojo.logInfo(archiveFile.getName() + " was modified after the previous build. " +
+                            "Rebuilding all artifacts.");
+                } else {
+                    previous = manifest;
+                }
+            } catch (IOException e) {
+                mojo.logWarn("Could not read build manifest " + manifestFile.getAbsolutePath() + ": " +
+                        e.getMessage());
+            }
+        }
+        return new IncrementalBuild(mojo, manifestFile, archiveFile, previous, context);
+    }
+
+    /**
+     * @return the manifest of the previous build, or null if every input has to be processed again
+     */
+    public BuildManifest getPreviousManifest() {
+
+        return previous;
+    }
+
+    /**
+     * Adds the outputs recorded for the given artifact configuration by the previous build, if the configuration
+     * has not changed since.
+     *
+     * @return true if the artifact was reused, false if it has to be processed
+     */
+    public boolean reuseArtifact(File configFile, String type, List<ArtifactDependency> dependencies,
+                                 List<ArtifactDependency> metadataDependencies, Map<String, String> apis,
+                                 Map<String, String> proxies, CARArchive archive) {
+
+        if (previous == null) {
+            return false;
+        }
+        String key = configFile.getAbsolutePath();
+        BuildManifest.ArtifactRecord record = previous.getArtifacts().get(key);
+        if (record == null || !type.equals(record.getType())) {
+            return false;
+        }
+        String hash = unchangedHash(configFile, record);
+        if (hash == null) {
+            return false;
+        }
+        dependencies.addAll(record.getDependencies());
+        metadataDependencies.addAll(record.getMetadataDependencies());
+        apis.putAll(record.getApis());
+        proxies.putAll(record.getProxies());
+        for (String entry : record.getEntries()) {
+            if (record.getFileEntries().contains(entry)) {
+                archive.addFile(entry, configFile);
+            } else {
+                archive.addPreviousEntry(entry, archiveFile);
+            }
+        }
+        record.setFile(configFile, hash);
+        synchronized (current) {
+            current.getArtifacts().put(key, record);
+        }
+        reusedArtifacts.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Records the outputs of a processed artifact configuration for the next build.
+     */
+    public void recordArtifact(File configFile, String type, List<ArtifactDependency> dependencies,
+                               List<ArtifactDependency> metadataDependencies, Map<String, String> apis,
+                               Map<String, String> proxies, CARArchive produced) {
+
+        BuildManifest.ArtifactRecord record = new BuildManifest.ArtifactRecord(type);
+        try {
+            record.setFile(configFile, sha256(configFile));
+        } catch (IOException e) {
+            mojo.logWarn("Could not hash " + configFile.getAbsolutePath() + ": " + e.getMessage());
+            return;
+        }
+        record.getDependencies().addAll(dependencies);
+        record.getMetadataDependencies().addAll(metadataDependencies);
+        record.getApis().putAll(apis);
+        record.getProxies().putAll(proxies);
+        for (CAREntry entry : produced.getEntries()) {
+            record.getEntries().add(entry.getName());
+            if (entry.getSource() != null) {
+                record.getFileEntries().add(entry.getName());
+            }
+        }
+        synchronized (current) {
+            current.getArtifacts().put(configFile.getAbsolutePath(), record);
+        }
+        processedArtifacts.incrementAndGet();
+    }
+
+    /**
+     * Marks the file entries whose source has not changed since the previous build to be copied from the previous
+     * .car file, so that their compressed content is reused instead of being compressed again.
+     *
+     * @param archive the archive to be written
+     * @return number of reused entries
+     */
+    public int reuseUnchangedEntries(CARArchive archive) {
+
+        if (previous == null) {
+            return 0;
+        }
+        int reusedEntries = 0;
+        for (CAREntry entry : archive.getEntries()) {
+            File source = entry.getSource();
+            if (source == null || entry.getPreviousArchive() != null) {
+                continue;
+            }
+            String key = source.getAbsolutePath();
+            BuildManifest.InputRecord record = previous.getArtifacts().get(key);
+            if (record == null) {
+                record = previous.getInputs().get(key);
+            }
+            if (record != null && record.getEntries().contains(entry.getName()) &&
+                    unchangedHash(source, record) != null) {
+                archive.addPreviousEntry(entry.getName(), archiveFile, source);
+                reusedEntries++;
+            }
+        }
+        mojo.logInfo("Copying " + reusedEntries + " unchanged entries from the previous " + archiveFile.getName());
+        return reusedEntries;
+    }
+
+    /**
+     * Records every other file streamed into the written archive, such as resources, connectors and dependent
+     * CApps, and persists the manifest for the next build.
+     *
+     * @param archive the archive which has been written to the .car file
+     * @throws IOException if an input cannot be hashed or the manifest cannot be written
+     */
+    public void save(CARArchive archive) throws IOException {
+
+        Map<String, BuildManifest.InputRecord> inputs = current.getInputs();
+        for (CAREntry entry : archive.getEntries()) {
+            File source = entry.getSource();
+            if (source == null) {
+                continue;
+            }
+            String key = source.getAbsolutePath();
+            if (current.getArtifacts().containsKey(key)) {
+                continue;
+            }
+            BuildManifest.InputRecord record = inputs.get(key);
+            if (record == null) {
+                record = new BuildManifest.InputRecord();
+                BuildManifest.InputRecord previousRecord = previous == null ? null : previous.getInputs().get(key);
+                String hash = previousRecord == null ? null : unchangedHash(source, previousRecord);
+                record.setFile(source, hash == null ? sha256(source) : hash);
+                inputs.put(key, record);
+            }
+            record.getEntries().add(entry.getName());
+        }
+        current.setArchive(archiveFile);
+        current.save(manifestFile);
+        mojo.logInfo("Incremental build reused " + reusedArtifacts.get() + " and processed " +
+                processedArtifacts.get() + " artifacts");
+    }
+
+    /**
+     * Deletes the manifest, so that the next build processes every input again.
+     */
+    public void discard() {
+
+        if (manifestFile.exists() && !manifestFile.delete()) {
+            mojo.logWarn("Failed to delete " + manifestFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Describes the names of the files in a folder, so that adding or removing a file changes the build context.
+     * Only the names are described: a reused artifact depends on whether a metadata file of it exists, while the
+     * content of the metadata files is read again by every build.
+     *
+     * @param folder folder to be described
+     * @return description of the folder content
+     */
+    public static String describeFolder(File folder) {
+
+        String[] names = folder.list();
+        if (names == null) {
+            return "";
+        }
+        Arrays.sort(names);
+        StringBuilder builder = new StringBuilder();
+        for (String name : names) {
+            builder.append(name).append(';');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Computes the SHA-256 hash of a file.
+     *
+     * @param file file to be hashed
+     * @return hex encoded hash
+     * @throws IOException if the file cannot be read
+     */
+    public static String sha256(File file) throws IOException {
+
+        return FileUtils.sha256(file);
+    }
+
+    /**
+     * @return a new SHA-256 message digest
+     */
+    public static MessageDigest newSha256Digest() {
+
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM", e);
+        }
+    }
+
+    /**
+     * @return the given bytes as a lower case hex string
+     */
+    public static String toHex(byte[] bytes) {
+
+        return FileUtils.toHex(bytes);
+    }
+
+    /**
+     * @return the recorded hash if the file has not changed since it was recorded, null otherwise
+     */
+    private String unchangedHash(File file, BuildManifest.InputRecord record) {
+
+        if (!file.isFile() || file.length() != record.getSize()) {
+            return null;
+        }
+        if (file.lastModified() == record.getLastModified()) {
+            return record.getSha256();
+        }
+        try {
+            String hash = sha256(file);
+            return hash.equals(record.getSha256()) ? hash : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
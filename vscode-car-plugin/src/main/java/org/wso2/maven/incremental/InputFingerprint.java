@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.incremental;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Fingerprint of every input of a CAR build: the source files, the settings and the files produced by other
+ * plugins. When the fingerprint matches the one saved by the previous build and the .car file written by that
+ * build is still in place, packaging can be skipped altogether.
+ * <p>
+ * Source trees are fingerprinted by the size and modification time of every file, which only requires a stat
+ * call per file. Files which are regenerated on every build, such as the class mediator jar, are fingerprinted
+ * by their content instead.
+ */
+public class InputFingerprint {
+
+    private static final String DIGEST_KEY = "inputs.sha256";
+    private static final String ARCHIVE_SIZE_KEY = "archive.size";
+    private static final String ARCHIVE_LAST_MODIFIED_KEY = "archive.lastModified";
+
+    private final Map<String, String> inputs = new TreeMap<>();
+
+    /**
+     * @return a fingerprint with the inputs added so far, to which further inputs can be added independently
+     */
+    public InputFingerprint copy() {
+
+        InputFingerprint copy = new InputFingerprint();
+        copy.inputs.putAll(inputs);
+        return copy;
+    }
+
+    /**
+     * Adds a setting which affects the content of the .car file.
+     *
+     * @param key   name of the setting
+     * @param value value of the setting, which may be null
+     */
+    public void addValue(String key, String value) {
+
+        inputs.put("value:" + key, String.valueOf(value));
+    }
+
+    /**
+     * Adds the size and modification time of every file under the given folder.
+     *
+     * @param key  name of the folder in the fingerprint
+     * @param root the folder, which may not exist
+     * @throws IOException if the folder cannot be listed
+     */
+    public void addTree(String key, File root) throws IOException {
+
+        if (!root.isDirectory()) {
+            inputs.put("tree:" + key, "absent");
+            return;
+        }
+        Path rootPath = root.toPath();
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(rootPath)) {
+            files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path path : files) {
+            File file = path.toFile();
+            String relativePath = rootPath.relativize(path).toString().replace(File.separatorChar, '/');
+            inputs.put("tree:" + key + "/" + relativePath, file.length() + ":" + file.lastModified());
+        }
+    }
+
+    /**
+     * Adds the SHA-256 hash of the given file.
+     *
+     * @param key  name of the file in the fingerprint
+     * @param file the file, which may not exist
+     * @throws IOException if the file cannot be read
+     */
+    public void addFileContent(String key, File file) throws IOException {
+
+        inputs.put("file:" + key, file.isFile() ? IncrementalBuild.sha256(file) : "absent");
+    }
+
+    /**
+     * @return SHA-256 hash of every input added so far
+     */
+    public String digest() {
+
+        MessageDigest digest = IncrementalBuild.newSha256Digest();
+        for (Map.Entry<String, String> input : inputs.entrySet()) {
+            digest.update((input.getKey() + "=" + input.getValue() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return IncrementalBuild.toHex(digest.digest());
+    }
+
+    /**
+     * Checks whether the previous build was run with the same inputs and its .car file has not been replaced
+     * since.
+     *
+     * @param stateFile   file the previous build saved its fingerprint to
+     * @param archiveFile the .car file
+     * @return true if the .car file is up to date
+     */
+    public boolean isUpToDate(File stateFile, File archiveFile) {
+
+        if (!stateFile.isFile() || !archiveFile.isFile()) {
+            return false;
+        }
+        Properties state = new Properties();
+        try (InputStream in = Files.newInputStream(stateFile.toPath())) {
+            state.load(in);
+        } catch (IOException e) {
+            return false;
+        }
+        return digest().equals(state.getProperty(DIGEST_KEY))
+                && String.valueOf(archiveFile.length()).equals(state.getProperty(ARCHIVE_SIZE_KEY))
+                && String.valueOf(archiveFile.lastModified()).equals(state.getProperty(ARCHIVE_LAST_MODIFIED_KEY));
+    }
+
+    /**
+     * Saves the fingerprint along with the size and modification time of the .car file built from these inputs.
+     *
+     * @param stateFile   file to save the fingerprint to
+     * @param archiveFile the .car file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File stateFile, File archiveFile) throws IOException {
+
+        Properties state = new Properties();
+        state.setProperty(DIGEST_KEY, digest());
+        state.setProperty(ARCHIVE_SIZE_KEY, String.valueOf(archiveFile.length()));
+        state.setProperty(ARCHIVE_LAST_MODIFIED_KEY, String.valueOf(archiveFile.lastModified()));
+        try (OutputStream out = Files.newOutputStream(stateFile.toPath())) {
+            state.store(out, null);
+        }
+    }
+}
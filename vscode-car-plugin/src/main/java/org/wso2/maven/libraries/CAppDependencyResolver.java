@@ -19,6 +19,7 @@ package org.wso2.maven.libraries;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.invoker.DefaultInvocationRequest;
@@ -31,6 +32,8 @@ import org.w3c.dom.NodeList;
 import org.wso2.maven.CARMojo;
 import org.wso2.maven.CAppDependency;
 import org.wso2.maven.Constants;
+import org.wso2.maven.MavenUtils;
+import org.wso2.maven.archive.CARArchive;
 import org.wso2.maven.model.ArtifactDependency;
 
 import java.io.BufferedReader;
@@ -43,11 +46,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
@@ -55,7 +66,6 @@ import java.util.zip.ZipInputStream;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 
-import static org.apache.commons.io.FileUtils.copyFile;
 import static org.wso2.maven.MavenUtils.createPomFile;
 import static org.wso2.maven.MavenUtils.setupInvoker;
 
@@ -64,31 +74,57 @@ import static org.wso2.maven.MavenUtils.setupInvoker;
  */
 public class CAppDependencyResolver {
 
+    private static final int DESCRIPTOR_READ_THREADS = Math.max(2, Math.min(8,
+            Runtime.getRuntime().availableProcessors()));
+
     /**
      * Resolves CApp (Carbon Application) dependencies for the given Maven project.
      * Executes the Maven dependency copy, checks for fat CAR packaging, extracts dependent CApp files,
-     * copies their contents to the archive directory, handles config properties merging, and updates artifact dependencies.
+     * adds them to the archive, handles config properties merging, and updates artifact dependencies.
      *
      * @param carMojo      The CARMojo instance used for logging and project context.
      * @param project      The Maven project for which dependencies are being resolved.
-     * @param archiveDir   The directory where dependencies should be extracted/copied.
+     * @param archive      The archive to which the dependent CApps should be added.
      * @param dependencies The list of artifact dependencies to update.
      */
-    public static void resolveDependencies(CARMojo carMojo, MavenProject project, String archiveDir,
+    public static void resolveDependencies(CARMojo carMojo, MavenProject project, CARArchive archive,
                                            List<ArtifactDependency> dependencies,
                                            List<ArtifactDependency> metaDependencies) throws Exception {
 
         File dependenciesDir = new File(Constants.DEFAULT_TARGET_FOLDER + File.separator + Constants.DEPENDENCY);
-        executeDependencyCopy(project.getBasedir(), new File(project.getBasedir(), Constants.POM_FILE), dependenciesDir);
+        MavenArtifactResolver resolver = carMojo.getArtifactResolver();
+        DependencyLock lock = carMojo.getDependencyLock();
+        boolean locked = lock != null && lock.restore(DependencyLock.CAPPS);
+        if (locked) {
+            carMojo.logInfo("Restored the CApp dependencies from " + Constants.DEPENDENCY_LOCK_FILE);
+        } else if (resolver != null) {
+            try {
+                resolver.copyProjectDependencies(project, Constants.CAR_TYPE, dependenciesDir);
+            } catch (LibraryResolverException e) {
+                carMojo.logWarn(e.getMessage());
+                if (lock != null) {
+                    lock.invalidate(DependencyLock.CAPPS);
+                }
+            }
+        } else {
+            executeDependencyCopy(project.getBasedir(), new File(project.getBasedir(), Constants.POM_FILE),
+                    dependenciesDir);
+        }
         boolean fatCarEnabled = CAppDependencyResolver.isFatCarEnabled(project);
         if (fatCarEnabled) {
             ArrayList<File> cAppFiles = getResolvedDependentCAppFiles(project.getBasedir(), dependenciesDir,
                     project.getArtifactId(), project.getVersion(), carMojo);
-            String dependencyDir = archiveDir + File.separator + Constants.DEPENDENCIES;
             for (File cappFile : cAppFiles) {
-                copyFile(cappFile, new File(dependencyDir, cappFile.getName()));
+                archive.addFile(Constants.DEPENDENCIES + "/" + cappFile.getName(), cappFile);
             }
         }
+        if (lock != null && !locked) {
+            // Includes the dependent CApps fetched while collecting the CApps of a fat .car file.
+            File[] cAppFiles = MavenUtils.listSortedFiles(dependenciesDir,
+                    file -> file.getName().endsWith(Constants.CAR_EXTENSION));
+            lock.lock(DependencyLock.CAPPS, cAppFiles == null ? Collections.<File>emptyList() :
+                    Arrays.asList(cAppFiles), resolver);
+        }
     }
 
     /**
@@ -279,7 +315,8 @@ public class CAppDependencyResolver {
     /**
      * Executes the Maven goal `dependency:copy-dependencies` to copy all dependencies of type `car`
      * to the target directory. This method uses the Maven Invoker API to programmatically invoke
-     * the Maven goal.
+     * the Maven goal, and is only used when the build does not provide a repository system to resolve
+     * the dependencies in-process.
      *
      */
      static void executeDependencyCopy(File projectDir, File pomFile, File outputDir)
@@ -299,6 +336,11 @@ public class CAppDependencyResolver {
      * Retrieves a list of resolved dependent CApp \(.car\) files from the dependencies directory.
      * This method scans the dependencies directory for .car files, processes them,
      * and collects all their dependencies recursively, avoiding cycles.
+     * <p>
+     * The dependency graph is loaded breadth-first, see {@link #loadDependencyGraph}, so that the CApps missing
+     * from the dependencies directory are fetched with one request per level of the graph. The files are then
+     * collected by a depth-first walk of the loaded graph, so they are in the same order as if every dependency
+     * was fetched when it was reached.
      *
      * @param projectDir      The project directory
      * @param dependenciesDir The directory containing dependency .car files.
@@ -319,19 +361,21 @@ public class CAppDependencyResolver {
         // Add the current project artifact to the visited set
         visited.add(artifactId + Constants.HYPHEN + version);  // e.g., "my-service-1.0.0"
 
-        for (File file : Objects.requireNonNull(dependenciesDir.listFiles())) {
+        File[] dependencyFiles = Objects.requireNonNull(MavenUtils.listSortedFiles(dependenciesDir));
+        for (File file : dependencyFiles) {
             if (file.getName().endsWith(Constants.CAR_EXTENSION)) {
                 cAppFiles.add(file);
             }
         }
+        DependencyGraph graph = loadDependencyGraph(projectDir, dependenciesDir, cAppFiles, carMojo);
 
-        for (File file : Objects.requireNonNull(dependenciesDir.listFiles())) {
+        for (File file : dependencyFiles) {
             if (file.getName().endsWith(Constants.CAR_EXTENSION)) {
                 // Extract artifactId-version from filename (e.g., my-service-1.0.0.car)
                 String baseName = file.getName().replace(Constants.CAR_EXTENSION, StringUtils.EMPTY);
                 visited.add(baseName);  // e.g., "my-service-1.0.0"
 
-                collectDependentCAppFiles(projectDir, dependenciesDir, file, cAppFiles, visited, carMojo);
+                collectDependentCAppFiles(graph, file, cAppFiles, visited, carMojo);
             }
         }
         return cAppFiles;
@@ -353,58 +397,202 @@ public class CAppDependencyResolver {
                                                  ArrayList<File> cAppFiles, Set<String> visited, CARMojo carMojo)
             throws Exception {
 
-        try (ZipFile zipFile = new ZipFile(carFile)) {
-            ZipEntry descriptorEntry = zipFile.getEntry(Constants.DESCRIPTOR_XML);
-            if (descriptorEntry == null) {
-                return;
+        DependencyGraph graph = loadDependencyGraph(projectDir, dependenciesDir, Collections.singletonList(carFile),
+                carMojo);
+        collectDependentCAppFiles(graph, carFile, cAppFiles, visited, carMojo);
+    }
+
+    /**
+     * Depth-first walk of the loaded dependency graph, collecting the CApp files in the order they are reached.
+     */
+    private static void collectDependentCAppFiles(DependencyGraph graph, File carFile, ArrayList<File> cAppFiles,
+                                                  Set<String> visited, CARMojo carMojo) throws Exception {
+
+        List<CAppDependency> dependencies = graph.descriptors.get(carFile);
+        if (dependencies == null) {
+            return;
+        }
+        carMojo.logInfo("Processing " + dependencies.size() + " dependencies in " + carFile.getName());
+        for (CAppDependency dependency : dependencies) {
+            String groupId = dependency.getGroupId();
+            String artifactId = dependency.getArtifactId();
+            String version = dependency.getVersion();
+
+            carMojo.logInfo(
+                    "Resolving dependency: " + groupId + Constants.COLON + artifactId + Constants.COLON + version);
+            if (StringUtils.isNotEmpty(artifactId) && StringUtils.isNotEmpty(version)) {
+                String key = artifactId + Constants.HYPHEN + version;
+                if (visited.contains(key)) {
+                    continue; // Skip already processed dependency
+                }
+                visited.add(key);
+
+                File dependentCarFile = graph.files.get(key);
+                if (dependentCarFile == null) {
+                    throw new Exception("Could not find .car in maven repository for groupId: " + groupId +
+                            ", artifactId: " + artifactId + ", version: " + version);
+                }
+                if (!cAppFiles.contains(dependentCarFile)) {
+                    cAppFiles.add(dependentCarFile);
+                }
+                collectDependentCAppFiles(graph, dependentCarFile, cAppFiles, visited, carMojo);
             }
+        }
+    }
 
-            InputStream inputStream = zipFile.getInputStream(descriptorEntry);
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(inputStream);
-            document.getDocumentElement().normalize();
-
-            NodeList dependencyNodes = document.getElementsByTagName(Constants.DEPENDENCY);
-            carMojo.logInfo("Processing " + dependencyNodes.getLength() + " dependencies in " + carFile.getName());
-            for (int i = 0; i < dependencyNodes.getLength(); i++) {
-                Element dependencyElement = (Element) dependencyNodes.item(i);
-                String groupId = dependencyElement.getAttribute(Constants.GROUP_ID);
-                String artifactId = dependencyElement.getAttribute(Constants.ARTIFACT_ID);
-                String version = dependencyElement.getAttribute(Constants.VERSION);
-
-                carMojo.logInfo(
-                        "Resolving dependency: " + groupId + Constants.COLON + artifactId + Constants.COLON + version);
-                if (StringUtils.isNotEmpty(artifactId) && StringUtils.isNotEmpty(version)) {
-                    String key = artifactId + Constants.HYPHEN + version;
-                    if (visited.contains(key)) {
-                        continue; // Skip already processed dependency
+    /**
+     * Loads the graph of CApps reachable from the given .car files, level by level. The descriptor.xml files of
+     * each level are read concurrently, unless they are in the {@link DescriptorCache} of the user, and the
+     * dependencies of the level which are not in the dependencies directory are fetched from the Maven
+     * repositories in one batch, before moving on to the next level.
+     *
+     * @param projectDir      The project directory.
+     * @param dependenciesDir The directory containing dependency .car files, which fetched files are copied to.
+     * @param roots           The .car files the graph starts from.
+     * @param carMojo         The CARMojo instance used for logging and project context.
+     * @return The descriptor dependencies of every reachable .car file, and the file of every dependency.
+     */
+    static DependencyGraph loadDependencyGraph(File projectDir, File dependenciesDir, List<File> roots,
+                                               CARMojo carMojo) throws Exception {
+
+        DescriptorCache descriptorCache = DescriptorCache.load(DescriptorCache.getDefaultCacheFile());
+        DependencyGraph graph = loadDependencyGraph(projectDir, dependenciesDir, roots, descriptorCache, carMojo);
+        carMojo.getLog().debug("Read " + descriptorCache.getMisses() + " CApp descriptors, " +
+                descriptorCache.getHits() + " were cached");
+        try {
+            descriptorCache.save();
+        } catch (IOException e) {
+            carMojo.getLog().debug("Could not save the CApp descriptor cache", e);
+        }
+        return graph;
+    }
+
+    /**
+     * Loads the graph of CApps reachable from the given .car files, reading the descriptors through the given
+     * cache.
+     */
+    static DependencyGraph loadDependencyGraph(File projectDir, File dependenciesDir, List<File> roots,
+                                               DescriptorCache descriptorCache, CARMojo carMojo)
+            throws Exception {
+
+        DependencyGraph graph = new DependencyGraph();
+        MavenArtifactResolver resolver = carMojo.getArtifactResolver();
+        ExecutorService executor = Executors.newFixedThreadPool(DESCRIPTOR_READ_THREADS);
+        try {
+            List<File> level = new ArrayList<>(roots);
+            while (!level.isEmpty()) {
+                List<Future<List<CAppDependency>>> descriptors = new ArrayList<>();
+                for (File carFile : level) {
+                    descriptors.add(executor.submit(() -> descriptorCache.getDependencies(carFile)));
+                }
+                List<File> nextLevel = new ArrayList<>();
+                Map<String, CAppDependency> missing = new LinkedHashMap<>();
+                for (int i = 0; i < level.size(); i++) {
+                    List<CAppDependency> dependencies = getDescriptor(descriptors.get(i), level.get(i));
+                    graph.descriptors.put(level.get(i), dependencies);
+                    if (dependencies == null) {
+                        continue;
                     }
-                    visited.add(key);
-
-                    File dependentCarFile = findCarFileInDependencies(dependenciesDir, artifactId, version);
-                    if (dependentCarFile != null && !cAppFiles.contains(dependentCarFile)) {
-                        cAppFiles.add(dependentCarFile);
-                        collectDependentCAppFiles(projectDir, dependenciesDir, dependentCarFile, cAppFiles, visited,
-                                carMojo);
-                    } else {
-                        // Try fetching from local Maven repo and copy to dependency folder
-                        File copiedFile =
-                                fetchCarFileFromMavenRepo(projectDir, dependenciesDir, groupId, artifactId, version, carMojo);
-                        if (copiedFile != null) {
-                            cAppFiles.add(copiedFile);
-                            collectDependentCAppFiles(projectDir, dependenciesDir, copiedFile, cAppFiles, visited,
-                                    carMojo);
+                    for (CAppDependency dependency : dependencies) {
+                        if (StringUtils.isEmpty(dependency.getArtifactId())
+                                || StringUtils.isEmpty(dependency.getVersion())) {
+                            continue;
+                        }
+                        String key = dependency.getArtifactId() + Constants.HYPHEN + dependency.getVersion();
+                        if (graph.files.containsKey(key) || missing.containsKey(key)) {
+                            continue;
+                        }
+                        File carFile = findCarFileInDependencies(dependenciesDir, dependency.getArtifactId(),
+                                dependency.getVersion());
+                        if (carFile != null) {
+                            graph.files.put(key, carFile);
+                            nextLevel.add(carFile);
                         } else {
-                            throw new Exception("Could not find .car in maven repository for groupId: " + groupId +
-                                    ", artifactId: " + artifactId + ", version: " + version);
+                            missing.put(key, dependency);
                         }
                     }
                 }
+                List<CAppDependency> fetch = new ArrayList<>(missing.values());
+                List<File> fetched = fetchCarFilesFromMavenRepo(resolver, projectDir, dependenciesDir, fetch, carMojo);
+                for (int i = 0; i < fetch.size(); i++) {
+                    CAppDependency dependency = fetch.get(i);
+                    graph.files.put(dependency.getArtifactId() + Constants.HYPHEN + dependency.getVersion(),
+                            fetched.get(i));
+                    if (fetched.get(i) != null) {
+                        nextLevel.add(fetched.get(i));
+                    }
+                }
+                nextLevel.removeAll(graph.descriptors.keySet());
+                level = nextLevel;
             }
+        } finally {
+            executor.shutdownNow();
+        }
+        return graph;
+    }
+
+    private static List<CAppDependency> getDescriptor(Future<List<CAppDependency>> descriptor, File carFile)
+            throws Exception {
+
+        try {
+            return descriptor.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Exception("Interrupted while reading the descriptor of " + carFile.getName(), e);
+        } catch (ExecutionException e) {
+            throw new Exception("Error while reading the descriptor of " + carFile.getName(), e.getCause());
         }
     }
 
+    /**
+     * Reads the CApp dependencies listed in the descriptor.xml of a .car file.
+     *
+     * @param carFile The .car file.
+     * @return The dependencies, or null if the .car file has no descriptor.xml.
+     */
+    static List<CAppDependency> readDescriptorDependencies(File carFile) throws Exception {
+
+        try (ZipFile zipFile = new ZipFile(carFile)) {
+            ZipEntry descriptorEntry = zipFile.getEntry(Constants.DESCRIPTOR_XML);
+            if (descriptorEntry == null) {
+                return null;
+            }
+
+            List<CAppDependency> dependencies = new ArrayList<>();
+            try (InputStream inputStream = zipFile.getInputStream(descriptorEntry)) {
+                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+                DocumentBuilder builder = factory.newDocumentBuilder();
+                Document document = builder.parse(inputStream);
+                document.getDocumentElement().normalize();
+
+                NodeList dependencyNodes = document.getElementsByTagName(Constants.DEPENDENCY);
+                for (int i = 0; i < dependencyNodes.getLength(); i++) {
+                    Element dependencyElement = (Element) dependencyNodes.item(i);
+                    dependencies.add(new CAppDependency(dependencyElement.getAttribute(Constants.GROUP_ID),
+                            dependencyElement.getAttribute(Constants.ARTIFACT_ID),
+                            dependencyElement.getAttribute(Constants.VERSION)));
+                }
+            }
+            return dependencies;
+        }
+    }
+
+    /**
+     * The CApps reachable from a set of .car files.
+     */
+    static final class DependencyGraph {
+
+        /**
+         * Dependencies listed in the descriptor.xml of every loaded .car file, or null if it has none.
+         */
+        final Map<File, List<CAppDependency>> descriptors = new HashMap<>();
+
+        /**
+         * The .car file of every dependency by artifactId-version, or null if it could not be fetched.
+         */
+        final Map<String, File> files = new HashMap<>();
+    }
+
     /**
      * Finds a \`.car\` file in the given dependencies directory that matches the specified groupId, artifactId, and version.
      *
@@ -437,8 +625,38 @@ public class CAppDependencyResolver {
      * @return The copied \`.car\` file if found and copied, otherwise null.
      */
     public static File fetchCarFileFromMavenRepo(File projectDir, File dependenciesDir, String groupId,
-                                                 String artifactId, String version, CARMojo carMojo) throws Exception {
+                                                 String artifactId, String version, AbstractMojo mojo)
+            throws Exception {
+
+        MavenArtifactResolver resolver = mojo instanceof CARMojo ? ((CARMojo) mojo).getArtifactResolver() : null;
+        return fetchCarFileFromMavenRepo(resolver, projectDir, dependenciesDir, groupId, artifactId, version, mojo);
+    }
+
+    /**
+     * Attempts to fetch a \`.car\` file for the specified groupId, artifactId, and version from the Maven repositories,
+     * resolving it in-process through the given resolver, or by invoking Maven if the resolver is null.
+     *
+     * @param resolver        The resolver of the running build, or null.
+     * @param projectDir      The project directory where the Maven project is located.
+     * @param dependenciesDir The directory where the dependency \`.car\` file should be copied.
+     * @param groupId         The group ID of the dependency.
+     * @param artifactId      The artifact ID of the dependency.
+     * @param version         The version of the dependency.
+     * @return The copied \`.car\` file if found and copied, otherwise null.
+     */
+    public static File fetchCarFileFromMavenRepo(MavenArtifactResolver resolver, File projectDir,
+                                                 File dependenciesDir, String groupId, String artifactId,
+                                                 String version, AbstractMojo mojo) throws Exception {
 
+        if (resolver != null) {
+            try {
+                return resolver.copyArtifact(groupId + Constants.COLON + artifactId + Constants.COLON + version +
+                        Constants.COLON + Constants.CAR_TYPE, dependenciesDir);
+            } catch (LibraryResolverException e) {
+                mojo.getLog().warn(e.getMessage());
+                return null;
+            }
+        }
         File tempPomFile = createPomFile(
                 Collections.singletonList(groupId + Constants.COLON + artifactId + Constants.COLON + version + Constants.COLON + Constants.CAR_TYPE),
                 Collections.<String>emptyList());
@@ -450,7 +668,7 @@ public class CAppDependencyResolver {
                 return fetchedCarFile;
             }
             if (!tempPomFile.delete()) {
-                carMojo.getLog().warn("Failed to delete temporary pom.xml: " + tempPomFile.getAbsolutePath());
+                mojo.getLog().warn("Failed to delete temporary pom.xml: " + tempPomFile.getAbsolutePath());
             }
         } catch (MavenInvocationException e) {
             throw new Exception("Error while fetching .car from Maven repo: " + e.getMessage(), e);
@@ -458,6 +676,62 @@ public class CAppDependencyResolver {
         return null;
     }
 
+    /**
+     * Fetches the \`.car\` files of the given dependencies from the Maven repositories in one batch: in a single
+     * resolution request through the given resolver, or with a single Maven invocation if the resolver is null.
+     * If the Maven invocation does not fetch all of them, e.g. because one of them does not exist, the missing
+     * ones are fetched one at a time, so that one missing dependency does not hide the others.
+     *
+     * @param resolver        The resolver of the running build, or null.
+     * @param projectDir      The project directory where the Maven project is located.
+     * @param dependenciesDir The directory where the dependency \`.car\` files should be copied.
+     * @param dependencies    The dependencies to be fetched.
+     * @return The fetched \`.car\` files, in the order of the dependencies, with null for every dependency
+     * which could not be found.
+     */
+    public static List<File> fetchCarFilesFromMavenRepo(MavenArtifactResolver resolver, File projectDir,
+                                                        File dependenciesDir, List<CAppDependency> dependencies,
+                                                        AbstractMojo mojo) throws Exception {
+
+        if (dependencies.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (dependencies.size() == 1) {
+            CAppDependency dependency = dependencies.get(0);
+            return new ArrayList<>(Collections.singletonList(fetchCarFileFromMavenRepo(resolver, projectDir,
+                    dependenciesDir, dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(),
+                    mojo)));
+        }
+        List<String> coordinates = new ArrayList<>();
+        for (CAppDependency dependency : dependencies) {
+            coordinates.add(dependency.getGroupId() + Constants.COLON + dependency.getArtifactId() + Constants.COLON +
+                    dependency.getVersion() + Constants.COLON + Constants.CAR_TYPE);
+        }
+        mojo.getLog().info("Fetching " + dependencies.size() + " dependent CApps from the Maven repositories");
+        if (resolver != null) {
+            return resolver.copyAvailableArtifacts(coordinates, dependenciesDir);
+        }
+        File tempPomFile = createPomFile(coordinates, Collections.<String>emptyList());
+        try {
+            executeDependencyCopy(projectDir, tempPomFile, dependenciesDir);
+        } catch (MavenInvocationException e) {
+            throw new Exception("Error while fetching .car from Maven repo: " + e.getMessage(), e);
+        } finally {
+            if (!tempPomFile.delete()) {
+                mojo.getLog().warn("Failed to delete temporary pom.xml: " + tempPomFile.getAbsolutePath());
+            }
+        }
+        List<File> files = new ArrayList<>();
+        for (CAppDependency dependency : dependencies) {
+            File fetchedCarFile = new File(dependenciesDir, dependency.getArtifactId() + Constants.HYPHEN +
+                    dependency.getVersion() + Constants.CAR_EXTENSION);
+            files.add(fetchedCarFile.exists() ? fetchedCarFile : fetchCarFileFromMavenRepo(null, projectDir,
+                    dependenciesDir, dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(),
+                    mojo));
+        }
+        return files;
+    }
+
     /**
      * Retrieves the list of top-level CApp dependencies from the given Maven project.
      * Only dependencies of type `car` are included in the result.
@@ -17,6 +17,7 @@
 
 package org.wso2.maven.libraries;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.invoker.DefaultInvocationRequest;
@@ -25,9 +26,11 @@ import org.apache.maven.shared.invoker.InvocationRequest;
 import org.apache.maven.shared.invoker.InvocationResult;
 import org.apache.maven.shared.invoker.Invoker;
 import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.eclipse.aether.artifact.Artifact;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
+import org.wso2.developerstudio.eclipse.utils.archive.ConnectorExtractionCache;
 import org.wso2.maven.CARMojo;
 import org.wso2.maven.Constants;
 import org.wso2.maven.MavenUtils;
@@ -36,9 +39,8 @@ import org.yaml.snakeyaml.Yaml;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
@@ -67,22 +69,44 @@ public class ConnectorDependencyResolver {
         String extractedDir = Constants.DEFAULT_TARGET_FOLDER + File.separator + Constants.EXTRACTED_CONNECTORS;
         String libDir = Constants.DEFAULT_TARGET_FOLDER + File.separator + Constants.LIBS;
 
+        // The local entries may have changed since the previous build in the same JVM, e.g. in the watch goal.
+        connectionTypeMap = null;
+        scannedConnections = false;
+
         // Ensure target directories exist
         new File(extractedDir).mkdirs();
         File libDirFile = new File(libDir);
         libDirFile.mkdirs();
         String libDirPath = libDirFile.getAbsolutePath();
 
-        Invoker invoker = new DefaultInvoker();
-        setupInvoker(invoker, project.getBasedir().getAbsolutePath());
+        // Dependencies are resolved in-process when the build provides a repository system, and Maven is only
+        // invoked otherwise. Neither is needed when the files of the dependency lockfile can be restored.
+        DependencyLock lock = carMojo.getDependencyLock();
+        boolean locked = lock != null && lock.restore(DependencyLock.CONNECTORS);
+        MavenArtifactResolver resolver = carMojo.getArtifactResolver();
+        Invoker invoker = null;
+        if (resolver == null && !locked) {
+            invoker = new DefaultInvoker();
+            setupInvoker(invoker, project.getBasedir().getAbsolutePath());
+        }
 
         // Resolve connector ZIP files from pom.xml
-        ArrayList<File> connectorZips = resolveConnectorZips(invoker);
+        ArrayList<File> connectorZips;
+        if (locked) {
+            carMojo.logInfo("Restored the connector dependencies from " + Constants.DEPENDENCY_LOCK_FILE);
+            connectorZips = listConnectorZips();
+        } else {
+            connectorZips = resolveConnectorZips(resolver, invoker, carMojo, project);
+        }
 
         if (!MavenUtils.isConnectorPackingSupported(project)) {
             // runtime version is not 4.4.0 or higher, skip resolving dependencies
+            if (lock != null && !locked) {
+                lock.lock(DependencyLock.CONNECTORS, connectorZips, resolver);
+            }
             return;
         }
+        List<File> lockedFiles = new ArrayList<>(connectorZips);
 
         // Resolve connectors from resources folder
         List<String> directories = Arrays.asList(Constants.CONNECTORS_DIR_NAME, Constants.INBOUND_CONNECTORS_DIR_NAME);
@@ -91,14 +115,21 @@ public class ConnectorDependencyResolver {
         }
 
         Map<QName, File> dependencyFiles = new HashMap<>();
-        // Extract all connector ZIP files
+        // The lockfile records the libraries of every connector, so they are all resolved when it is written.
+        boolean locking = lock != null && !locked;
+        // Extract all connector ZIP files through the extraction cache of the user, which is keyed by the content
+        // of the zips. A connector is extracted again when its zip changed since it was extracted.
+        ConnectorExtractionCache extractionCache = ConnectorExtractionCache.getDefault();
         for (File zipFile : connectorZips) {
-            String targetExtractDir = extractedDir + File.separator + zipFile.getName().replace(".zip", "");
-            if (new File(targetExtractDir).exists()) {
+            String connectorFolderName = zipFile.getName().replace(".zip", "");
+            String targetExtractDir = extractedDir + File.separator + connectorFolderName;
+            File hashFile = new File(extractedDir, connectorFolderName + Constants.SHA256_EXTENSION);
+            if (!extractionCache.extractTo(zipFile, new File(targetExtractDir), hashFile)) {
                 carMojo.logInfo("Connector already extracted: " + zipFile.getName());
-                continue;
+                if (!locking) {
+                    continue;
+                }
             }
-            extractZipFile(zipFile, targetExtractDir);
             QName qualifiedConnectorName = extractConnectorInfo(carMojo, targetExtractDir);
             if (qualifiedConnectorName == null) {
                 carMojo.logError("Failed to extract connector information from " + zipFile.getName());
@@ -111,12 +142,23 @@ public class ConnectorDependencyResolver {
             }
         }
 
-        if (!dependencyFiles.isEmpty()) {
+        if (!dependencyFiles.isEmpty() && !locked) {
+            Map<String, ConnectorLibraries> connectorLibraries = new LinkedHashMap<>();
             for (Map.Entry<QName, File> entry : dependencyFiles.entrySet()) {
                 carMojo.logInfo("Resolving dependencies for " + entry.getKey());
-                resolveMavenDependencies(entry.getValue(), libDirPath, invoker, carMojo, entry.getKey().toString(),
-                        project.getBasedir());
+                ConnectorLibraries libraries = readMavenDependencies(entry.getValue(), carMojo);
+                if (libraries != null) {
+                    connectorLibraries.put(entry.getKey().toString(), libraries);
+                }
             }
+            List<File> libraries = resolveConnectorLibraries(connectorLibraries, libDirPath, resolver, invoker,
+                    carMojo, project.getBasedir());
+            // Only the libraries of this resolution are locked, not stale files left in the lib folders.
+            libraries.sort(Comparator.naturalOrder());
+            lockedFiles.addAll(libraries);
+        }
+        if (locking) {
+            lock.lock(DependencyLock.CONNECTORS, lockedFiles, resolver);
         }
         carMojo.logInfo("All dependencies resolved and extracted successfully.");
     }
@@ -124,16 +166,40 @@ public class ConnectorDependencyResolver {
     /**
      * Resolves connector ZIP files from the pom.xml file.
      *
-     * @param invoker The Maven Invoker.
+     * @param resolver The resolver of the running build, or null to invoke Maven.
+     * @param invoker  The Maven Invoker, used when there is no resolver.
+     * @param carMojo  The Mojo instance.
+     * @param project  The Maven project.
      * @return The list of connector ZIP files.
      * @throws MavenInvocationException If an error occurs while resolving dependencies.
      */
-    private static ArrayList<File> resolveConnectorZips(Invoker invoker) throws MavenInvocationException {
+    private static ArrayList<File> resolveConnectorZips(MavenArtifactResolver resolver, Invoker invoker,
+                                                        CARMojo carMojo, MavenProject project)
+            throws MavenInvocationException {
 
-        InvocationRequest request = new DefaultInvocationRequest();
-        request.setPomFile(new File(Constants.POM_FILE));
-        request.setGoals(Collections.singletonList("dependency:copy-dependencies -DincludeTypes=zip"));
-        invoker.execute(request);
+        File dependenciesDir = new File(Constants.DEFAULT_TARGET_FOLDER + File.separator + Constants.DEPENDENCY);
+        if (resolver != null) {
+            try {
+                resolver.copyProjectDependencies(project, "zip", dependenciesDir);
+            } catch (LibraryResolverException e) {
+                carMojo.logWarn(e.getMessage());
+                if (carMojo.getDependencyLock() != null) {
+                    carMojo.getDependencyLock().invalidate(DependencyLock.CONNECTORS);
+                }
+            }
+        } else {
+            InvocationRequest request = new DefaultInvocationRequest();
+            request.setPomFile(new File(Constants.POM_FILE));
+            request.setGoals(Collections.singletonList("dependency:copy-dependencies -DincludeTypes=zip"));
+            invoker.execute(request);
+        }
+        return listConnectorZips();
+    }
+
+    /**
+     * Lists the connector ZIP files copied from the Maven repositories.
+     */
+    private static ArrayList<File> listConnectorZips() {
 
         File dependenciesDir = new File(Constants.DEFAULT_TARGET_FOLDER + File.separator + Constants.DEPENDENCY);
         if (!dependenciesDir.exists()) {
@@ -163,64 +229,17 @@ public class ConnectorDependencyResolver {
     }
 
     /**
-     * Extracts a ZIP file to the specified directory.
-     *
-     * @param zipFile   The ZIP file to extract.
-     * @param outputDir The directory to extract the ZIP file to.
-     * @throws IOException If an error occurs while extracting the ZIP file.
-     */
-    private static void extractZipFile(File zipFile, String outputDir) throws IOException {
-
-        byte[] buffer = new byte[1024];
-        ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFile));
-        ZipEntry zipEntry = zis.getNextEntry();
-        while (zipEntry != null) {
-            File newFile = newFile(outputDir, zipEntry);
-            if (zipEntry.isDirectory()) {
-                newFile.mkdirs();
-            } else {
-                new File(newFile.getParent()).mkdirs();
-                try (FileOutputStream fos = new FileOutputStream(newFile)) {
-                    int len;
-                    while ((len = zis.read(buffer)) > 0) {
-                        fos.write(buffer, 0, len);
-                    }
-                }
-            }
-            zipEntry = zis.getNextEntry();
-        }
-        zis.closeEntry();
-        zis.close();
-    }
-
-    /**
-     * Creates a new file from a ZIP entry.
-     *
-     * @param outputDir The output directory.
-     * @param zipEntry  The ZIP entry.
-     * @return The new file.
-     */
-    private static File newFile(String outputDir, ZipEntry zipEntry) {
-
-        String fileName = zipEntry.getName();
-        return new File(outputDir + File.separator + fileName);
-    }
-
-    /**
-     * Resolves Maven dependencies from a descriptor.yml file.
+     * Reads the Maven dependencies and repositories of a connector from its descriptor.yml file.
      *
      * @param descriptorYaml The descriptor.yml file.
-     * @param libDir         The directory to copy the dependencies to.
-     * @param invoker        The Maven Invoker.
      * @param carMojo        The Mojo instance.
-     * @param connectorName  The connector name.
-     * @throws Exception If an error occurs while resolving dependencies.
+     * @return The dependencies of the connector, or null if it has no descriptor.yml file.
+     * @throws Exception If an error occurs while reading the descriptor.
      */
-    private static void resolveMavenDependencies(File descriptorYaml, String libDir, Invoker invoker, CARMojo carMojo,
-                                                 String connectorName, File projectDir) throws Exception {
+    private static ConnectorLibraries readMavenDependencies(File descriptorYaml, CARMojo carMojo) throws Exception {
 
         if (!descriptorYaml.exists()) {
-            return;
+            return null;
         }
 
         Yaml yaml = new Yaml();
@@ -278,22 +297,162 @@ public class ConnectorDependencyResolver {
             }
         }
 
-        List<String> dependenciesList = new ArrayList<>(dependencySet);
-        resolveAndCopyDependencies(dependenciesList, repositoriesList, libDir, invoker, carMojo, connectorName,
-                projectDir);
+        return new ConnectorLibraries(new ArrayList<>(dependencySet), repositoriesList);
     }
 
-    private static void resolveAndCopyDependencies(List<String> dependencies, List<String> repositories,
-                                                   String libDir, Invoker invoker, CARMojo carMojo,
-                                                   String connectorName, File projectDir)
-            throws LibraryResolverException {
+    /**
+     * Resolves the libraries of every connector in one request, and copies each library into the lib folders of
+     * the connectors which need it. A library used by several connectors is resolved once. The repositories
+     * declared by any connector are searched for every library.
+     *
+     * @param connectorLibraries The libraries of every connector by connector name.
+     * @param libDir             The directory containing the lib folders of the connectors.
+     * @param resolver           The resolver of the running build, or null to invoke Maven.
+     * @param invoker            The Maven Invoker, used when there is no resolver.
+     * @param carMojo            The Mojo instance.
+     * @param projectDir         The project directory.
+     * @return The library files copied into the lib folders of the connectors.
+     * @throws Exception If an error occurs while resolving the libraries.
+     */
+    private static List<File> resolveConnectorLibraries(Map<String, ConnectorLibraries> connectorLibraries, String libDir,
+                                                  MavenArtifactResolver resolver, Invoker invoker,
+                                                  CARMojo carMojo, File projectDir) throws Exception {
+
+        Set<String> allDependencies = new LinkedHashSet<>();
+        Set<String> allRepositories = new LinkedHashSet<>();
+        int requested = 0;
+        for (Map.Entry<String, ConnectorLibraries> entry : connectorLibraries.entrySet()) {
+            File targetDir = new File(libDir + File.separator + entry.getKey());
+            if (!targetDir.exists() && !targetDir.mkdirs()) {
+                throw new LibraryResolverException("Failed to create directory: " + targetDir.getAbsolutePath());
+            }
+            allDependencies.addAll(entry.getValue().dependencies);
+            allRepositories.addAll(entry.getValue().repositories);
+            requested += entry.getValue().dependencies.size();
+        }
+        List<File> libraries = new ArrayList<>();
+        if (allDependencies.isEmpty()) {
+            return libraries;
+        }
+        List<String> dependencies = new ArrayList<>(allDependencies);
+        List<String> repositories = new ArrayList<>(allRepositories);
+        carMojo.logInfo("Resolving " + dependencies.size() + " libraries for " + connectorLibraries.size() +
+                " connectors in one request (" + (requested - dependencies.size()) + " shared)");
+        long start = System.nanoTime();
+        Map<String, Artifact> resolvedArtifacts = new HashMap<>();
+        Map<String, File> stagedFiles = new HashMap<>();
+        File stagingDir = new File(Constants.DEFAULT_TARGET_FOLDER + File.separator +
+                Constants.CONNECTOR_LIBS_STAGING_DIR);
+        try {
+            if (resolver != null) {
+                List<Artifact> artifacts = resolver.resolveArtifacts(dependencies, repositories);
+                for (int i = 0; i < dependencies.size(); i++) {
+                    resolvedArtifacts.put(dependencies.get(i), artifacts.get(i));
+                }
+            } else {
+                stagedFiles = copyLibrariesWithMaven(dependencies, repositories, stagingDir, invoker, carMojo,
+                        projectDir);
+            }
+            carMojo.logInfo("Resolved the connector libraries in " + (System.nanoTime() - start) / 1_000_000 +
+                    " ms");
+
+            for (Map.Entry<String, ConnectorLibraries> entry : connectorLibraries.entrySet()) {
+                long connectorStart = System.nanoTime();
+                File targetDir = new File(libDir + File.separator + entry.getKey());
+                List<String> unresolved = new ArrayList<>();
+                for (String dependency : entry.getValue().dependencies) {
+                    if (resolver != null) {
+                        libraries.add(resolver.copyArtifact(resolvedArtifacts.get(dependency), targetDir));
+                    } else if (stagedFiles.containsKey(dependency)) {
+                        File stagedFile = stagedFiles.get(dependency);
+                        File library = new File(targetDir, stagedFile.getName());
+                        Files.copy(stagedFile.toPath(), library.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                                StandardCopyOption.COPY_ATTRIBUTES);
+                        libraries.add(library);
+                    } else {
+                        unresolved.add(dependency);
+                    }
+                }
+                if (!unresolved.isEmpty()) {
+                    // Libraries the batch could not place are resolved for the connector alone.
+                    libraries.addAll(resolveAndCopyDependencies(unresolved, entry.getValue().repositories, libDir,
+                            resolver, invoker, carMojo, entry.getKey(), projectDir));
+                }
+                carMojo.logInfo("  " + entry.getKey() + ": " + entry.getValue().dependencies.size() +
+                        " libraries in " + (System.nanoTime() - connectorStart) / 1_000_000 + " ms");
+            }
+        } finally {
+            FileUtils.deleteQuietly(stagingDir);
+        }
+        return libraries;
+    }
+
+    /**
+     * Copies libraries into a staging directory with a single Maven invocation.
+     *
+     * @return The staged file of every library by its coordinates. Libraries whose file cannot be told apart from
+     * the file of another library are left out, so that they are resolved for their connectors alone.
+     */
+    private static Map<String, File> copyLibrariesWithMaven(List<String> dependencies, List<String> repositories,
+                                                            File stagingDir, Invoker invoker, CARMojo carMojo,
+                                                            File projectDir) throws LibraryResolverException {
+
+        // copy-dependencies names the files artifactId-version.type, so the groupId is lost.
+        Map<String, String> fileNames = new HashMap<>();
+        Map<String, Integer> fileNameCounts = new HashMap<>();
+        for (String dependency : dependencies) {
+            String[] parts = dependency.split(Constants.COLON);
+            String fileName = parts[1] + Constants.HYPHEN + parts[2] + "." + (parts.length > 3 ? parts[3] : "jar");
+            fileNames.put(dependency, fileName);
+            fileNameCounts.merge(fileName, 1, Integer::sum);
+        }
+        FileUtils.deleteQuietly(stagingDir);
+        try {
+            File tempPom = createPomFile(dependencies, repositories);
+
+            InvocationRequest request = new DefaultInvocationRequest();
+            request.setBaseDirectory(projectDir);
+            request.setGoals(Collections.singletonList(String.format("-f %s dependency:copy-dependencies " +
+                    "-DexcludeTransitive=true -DoutputDirectory=%s", tempPom.getAbsolutePath(),
+                    stagingDir.getAbsolutePath())));
+
+            executeRequest(request, "Failed to resolve and copy dependencies", invoker, carMojo);
+            if (!tempPom.delete()) {
+                carMojo.getLog().warn("Failed to delete temporary pom.xml: " + tempPom.getAbsolutePath());
+            }
+        } catch (IOException e) {
+            throw new LibraryResolverException("Failed to create temporary pom.xml", e);
+        }
+        Map<String, File> stagedFiles = new HashMap<>();
+        for (Map.Entry<String, String> entry : fileNames.entrySet()) {
+            File stagedFile = new File(stagingDir, entry.getValue());
+            if (fileNameCounts.get(entry.getValue()) == 1 && stagedFile.isFile()) {
+                stagedFiles.put(entry.getKey(), stagedFile);
+            }
+        }
+        return stagedFiles;
+    }
+
+    /**
+     * Resolves libraries for a single connector and copies them into its lib folder.
+     *
+     * @return The copied library files. Maven names them artifactId-version.type, so only the files of that name
+     * are returned when Maven is invoked.
+     */
+    private static List<File> resolveAndCopyDependencies(List<String> dependencies, List<String> repositories,
+                                                         String libDir, MavenArtifactResolver resolver,
+                                                         Invoker invoker, CARMojo carMojo, String connectorName,
+                                                         File projectDir) throws LibraryResolverException {
 
         File targetDir = new File(libDir + File.separator + connectorName);
         if (!targetDir.exists() && !targetDir.mkdirs()) {
             throw new LibraryResolverException("Failed to create directory: " + targetDir.getAbsolutePath());
         }
+        carMojo.logInfo("dependecies    " + dependencies.toString());
+        if (resolver != null) {
+            return resolver.copyArtifacts(dependencies, repositories, targetDir);
+        }
         try {
-            carMojo.logInfo("dependecies    " + dependencies.toString());
             File tempPom = createPomFile(dependencies, repositories);
 
             InvocationRequest request = new DefaultInvocationRequest();
@@ -309,6 +468,31 @@ public class ConnectorDependencyResolver {
         } catch (IOException e) {
             throw new LibraryResolverException("Failed to create temporary pom.xml", e);
         }
+        List<File> libraries = new ArrayList<>();
+        for (String dependency : dependencies) {
+            String[] parts = dependency.split(Constants.COLON);
+            File library = new File(targetDir, parts[1] + Constants.HYPHEN + parts[2] + "." +
+                    (parts.length > 3 ? parts[3] : "jar"));
+            if (library.isFile()) {
+                libraries.add(library);
+            }
+        }
+        return libraries;
+    }
+
+    /**
+     * The Maven dependencies and repositories declared in the descriptor.yml file of a connector.
+     */
+    private static final class ConnectorLibraries {
+
+        private final List<String> dependencies;
+        private final List<String> repositories;
+
+        ConnectorLibraries(List<String> dependencies, List<String> repositories) {
+
+            this.dependencies = dependencies;
+            this.repositories = repositories;
+        }
     }
 
     /**
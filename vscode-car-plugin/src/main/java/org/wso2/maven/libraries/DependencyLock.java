@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.libraries;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.wso2.maven.Constants;
+import org.wso2.maven.MavenUtils;
+import org.wso2.maven.incremental.IncrementalBuild;
+import org.wso2.maven.incremental.InputFingerprint;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The dependency lockfile of a project, mi-dependencies.lock next to pom.xml. It records every file produced by
+ * the connector and CApp dependency resolution, i.e. the connector zips, the connector libraries and the
+ * dependent .car files, with its SHA-256 hash and the file in the local Maven repository it was copied from. The
+ * repository file is recorded relative to the local repository, so the lockfile can be shared by builds with
+ * different local repositories.
+ * <p>
+ * The lockfile is only used while pom.xml, the connectors in the resources folder and the local entries, which
+ * select the connector libraries through their connection types, are the same as when it was written. The files
+ * of a section are then checked against their hashes, and copied back from the local repository if they are
+ * missing from the target folder, instead of resolving the dependencies again. If any file cannot be restored the
+ * dependencies are resolved as usual and the section is written again.
+ */
+public class DependencyLock {
+
+    public static final String CONNECTORS = "connectors";
+    public static final String CAPPS = "capps";
+
+    static final int FORMAT_VERSION = 2;
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private int formatVersion = FORMAT_VERSION;
+    private String inputs;
+    private Map<String, List<LockedFile>> sections = new TreeMap<>();
+
+    private transient File projectDir;
+    private transient Path localRepository;
+    private transient boolean modified;
+    private transient Set<String> incomplete = new HashSet<>();
+
+    DependencyLock() {
+    }
+
+    /**
+     * Opens the lockfile of a project. The lockfile is empty if it does not exist, cannot be read, or was written
+     * for different inputs.
+     *
+     * @param projectDir      project folder
+     * @param localRepository local repository of the build, or null if it is not known, in which case locked files
+     *                        cannot be restored from it
+     * @return the lockfile
+     * @throws IOException if the inputs of the dependency resolution cannot be read
+     */
+    public static DependencyLock open(File projectDir, File localRepository) throws IOException {
+
+        String inputs = hashInputs(projectDir);
+        File lockFile = new File(projectDir, Constants.DEPENDENCY_LOCK_FILE);
+        DependencyLock lock = null;
+        if (lockFile.isFile()) {
+            try (Reader reader = Files.newBufferedReader(lockFile.toPath(), StandardCharsets.UTF_8)) {
+                lock = GSON.fromJson(reader, DependencyLock.class);
+            } catch (JsonParseException e) {
+                // Written again by this build.
+            }
+        }
+        if (lock == null || lock.formatVersion != FORMAT_VERSION || !inputs.equals(lock.inputs) ||
+                lock.sections == null) {
+            lock = new DependencyLock();
+            lock.inputs = inputs;
+            lock.modified = true;
+        }
+        lock.projectDir = projectDir;
+        lock.localRepository = localRepository == null ? null : localRepository.getAbsoluteFile().toPath();
+        lock.incomplete = new HashSet<>();
+        return lock;
+    }
+
+    /**
+     * Restores the files of a section of the lockfile. Files which are missing or changed in the project are
+     * copied from the local repository.
+     *
+     * @param section {@link #CONNECTORS} or {@link #CAPPS}
+     * @return true if every file of the section is in place, so the dependencies do not have to be resolved
+     * @throws IOException if a file cannot be read or restored
+     */
+    public synchronized boolean restore(String section) throws IOException {
+
+        List<LockedFile> files = sections.get(section);
+        if (files == null) {
+            return false;
+        }
+        for (LockedFile lockedFile : files) {
+            File file = new File(projectDir, lockedFile.path);
+            if (file.isFile() && lockedFile.sha256.equals(IncrementalBuild.sha256(file))) {
+                continue;
+            }
+            File repositoryFile = lockedFile.repositoryPath == null || localRepository == null ? null :
+                    localRepository.resolve(lockedFile.repositoryPath).toFile();
+            if (repositoryFile == null || !repositoryFile.isFile() ||
+                    !lockedFile.sha256.equals(IncrementalBuild.sha256(repositoryFile))) {
+                return false;
+            }
+            Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+            Files.copy(repositoryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.COPY_ATTRIBUTES);
+        }
+        return true;
+    }
+
+    /**
+     * Marks a section as not fully resolved by this build, so that it is not written to the lockfile.
+     *
+     * @param section {@link #CONNECTORS} or {@link #CAPPS}
+     */
+    public synchronized void invalidate(String section) {
+
+        incomplete.add(section);
+        if (sections.remove(section) != null) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Records the files resolved for a section, unless the section was invalidated by this build.
+     *
+     * @param section  {@link #CONNECTORS} or {@link #CAPPS}
+     * @param files    the resolved files, which must be in the project folder
+     * @param resolver the resolver the files were copied with, or null if Maven was invoked to copy them. Files
+     *                 copied from outside the local repository of the lockfile are not restored from there.
+     * @throws IOException if a file cannot be read
+     */
+    public void lock(String section, Collection<File> files, MavenArtifactResolver resolver) throws IOException {
+
+        Path projectPath = projectDir.getAbsoluteFile().toPath();
+        List<LockedFile> lockedFiles = new ArrayList<>();
+        for (File file : files) {
+            LockedFile lockedFile = new LockedFile();
+            lockedFile.path = projectPath.relativize(file.getAbsoluteFile().toPath()).toString()
+                    .replace(File.separatorChar, '/');
+            File repositoryFile = resolver == null ? null : resolver.getRepositoryFile(file);
+            lockedFile.repositoryPath = toRepositoryPath(repositoryFile);
+            lockedFile.sha256 = IncrementalBuild.sha256(file);
+            lockedFiles.add(lockedFile);
+        }
+        synchronized (this) {
+            if (incomplete.contains(section)) {
+                return;
+            }
+            if (!lockedFiles.equals(sections.get(section))) {
+                sections.put(section, lockedFiles);
+                modified = true;
+            }
+        }
+    }
+
+    /**
+     * @return the path of a file relative to the local repository, or null if it is not in the local repository
+     */
+    private String toRepositoryPath(File repositoryFile) {
+
+        if (repositoryFile == null || localRepository == null) {
+            return null;
+        }
+        Path path = repositoryFile.getAbsoluteFile().toPath().normalize();
+        if (!path.startsWith(localRepository.normalize())) {
+            return null;
+        }
+        return localRepository.normalize().relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Writes the lockfile if it changed.
+     *
+     * @throws IOException if the lockfile cannot be written
+     */
+    public synchronized void save() throws IOException {
+
+        if (!modified) {
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(new File(projectDir, Constants.DEPENDENCY_LOCK_FILE).toPath(),
+                StandardCharsets.UTF_8)) {
+            GSON.toJson(this, writer);
+        }
+        modified = false;
+    }
+
+    /**
+     * Hashes the inputs of the dependency resolution of a project.
+     */
+    static String hashInputs(File projectDir) throws IOException {
+
+        InputFingerprint fingerprint = new InputFingerprint();
+        fingerprint.addFileContent(Constants.POM_FILE, new File(projectDir, Constants.POM_FILE));
+        List<String> folders = new ArrayList<>();
+        folders.add(Constants.RESOURCES_FOLDER_PATH + File.separator + Constants.CONNECTORS_DIR_NAME);
+        folders.add(Constants.RESOURCES_FOLDER_PATH + File.separator + Constants.INBOUND_CONNECTORS_DIR_NAME);
+        folders.add(Constants.LOCAL_ENTRIES_FOLDER_PATH);
+        for (String folder : folders) {
+            File[] files = MavenUtils.listSortedFiles(new File(projectDir, folder), File::isFile);
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                fingerprint.addFileContent(folder.replace(File.separatorChar, '/') + "/" + file.getName(), file);
+            }
+        }
+        return fingerprint.digest();
+    }
+
+    /**
+     * A resolved file of the project.
+     */
+    static final class LockedFile {
+
+        private String path;
+        private String repositoryPath;
+        private String sha256;
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (!(o instanceof LockedFile)) {
+                return false;
+            }
+            LockedFile other = (LockedFile) o;
+            return path.equals(other.path) && sha256.equals(other.sha256) &&
+                    Objects.equals(repositoryPath, other.repositoryPath);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return path.hashCode() * 31 + sha256.hashCode();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.libraries;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.wso2.maven.CAppDependency;
+import org.wso2.maven.Constants;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-disk cache of the CApp dependencies listed in the descriptor.xml of .car files, shared by all builds of the
+ * user in {@code ~/.wso2-mi/car-plugin/descriptor-cache.json}. An entry is keyed by the canonical path of the .car
+ * file and is only used while the file has the size and modification time it had when it was parsed, so a CApp
+ * graph whose .car files have not changed is computed without opening any of them. The content of the .car file
+ * is deliberately not hashed, since that means reading the whole archive instead of just its descriptor.
+ * <p>
+ * The cache is safe to use from several threads. Builds running at the same time may overwrite each other's
+ * additions, which only costs parsing those descriptors again.
+ */
+final class DescriptorCache {
+
+    static final int FORMAT_VERSION = 1;
+    private static final Gson GSON = new Gson();
+
+    private final File cacheFile;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean modified = new AtomicBoolean();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private DescriptorCache(File cacheFile) {
+
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * @return the cache file in the .wso2-mi folder of the user
+     */
+    static File getDefaultCacheFile() {
+
+        return new File(new File(new File(System.getProperty(Constants.USER_HOME), Constants.WSO2_MI),
+                Constants.CAR_PLUGIN_CACHE_DIR), Constants.DESCRIPTOR_CACHE_FILE);
+    }
+
+    /**
+     * Loads the cache from the given file. A missing, unreadable or outdated file gives an empty cache.
+     *
+     * @param cacheFile cache file
+     * @return the cache
+     */
+    static DescriptorCache load(File cacheFile) {
+
+        DescriptorCache cache = new DescriptorCache(cacheFile);
+        if (!cacheFile.isFile()) {
+            return cache;
+        }
+        try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+            Content content = GSON.fromJson(reader, Content.class);
+            if (content != null && content.formatVersion == FORMAT_VERSION && content.entries != null) {
+                cache.entries.putAll(content.entries);
+            }
+        } catch (IOException | JsonParseException e) {
+            // The cache is rebuilt from the .car files.
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the dependencies listed in the descriptor.xml of a .car file, parsing it only if the cache has no
+     * entry for the file as it is now.
+     *
+     * @param carFile the .car file
+     * @return the dependencies, or null if the .car file has no descriptor.xml
+     * @throws Exception if the .car file cannot be read
+     */
+    List<CAppDependency> getDependencies(File carFile) throws Exception {
+
+        String key = carFile.getCanonicalPath();
+        long size = carFile.length();
+        long lastModified = carFile.lastModified();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+            hits.incrementAndGet();
+            return entry.descriptor ? entry.dependencies : null;
+        }
+        misses.incrementAndGet();
+        List<CAppDependency> dependencies = CAppDependencyResolver.readDescriptorDependencies(carFile);
+        entry = new Entry();
+        entry.size = size;
+        entry.lastModified = lastModified;
+        entry.descriptor = dependencies != null;
+        entry.dependencies = dependencies;
+        entries.put(key, entry);
+        modified.set(true);
+        return dependencies;
+    }
+
+    /**
+     * Writes the cache back to its file if any descriptor was parsed, dropping the entries of .car files which no
+     * longer exist. The file is replaced atomically, so concurrent builds never read a partly written cache.
+     *
+     * @throws IOException if the cache cannot be written
+     */
+    void save() throws IOException {
+
+        if (!modified.get()) {
+            return;
+        }
+        for (Iterator<String> paths = entries.keySet().iterator(); paths.hasNext(); ) {
+            if (!new File(paths.next()).isFile()) {
+                paths.remove();
+            }
+        }
+        Path folder = cacheFile.getAbsoluteFile().getParentFile().toPath();
+        Files.createDirectories(folder);
+        Path tempFile = Files.createTempFile(folder, Constants.DESCRIPTOR_CACHE_FILE, ".tmp");
+        try {
+            Content content = new Content();
+            content.entries = entries;
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                GSON.toJson(content, writer);
+            }
+            try {
+                Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        modified.set(false);
+    }
+
+    /**
+     * @return number of descriptors served from the cache
+     */
+    int getHits() {
+
+        return hits.get();
+    }
+
+    /**
+     * @return number of descriptors parsed from .car files
+     */
+    int getMisses() {
+
+        return misses.get();
+    }
+
+    private static final class Content {
+
+        private int formatVersion = FORMAT_VERSION;
+        private Map<String, Entry> entries;
+    }
+
+    private static final class Entry {
+
+        private long size;
+        private long lastModified;
+        private boolean descriptor;
+        private List<CAppDependency> dependencies;
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.libraries;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.artifact.ArtifactType;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.artifact.DefaultArtifactType;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyFilter;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.resolution.DependencyRequest;
+import org.eclipse.aether.resolution.DependencyResolutionException;
+import org.eclipse.aether.resolution.DependencyResult;
+import org.wso2.maven.Constants;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves artifacts in-process through the repository system of the running Maven build, instead of launching a
+ * separate Maven process to run {@code dependency:copy-dependencies}. The artifacts are resolved with the session
+ * of the build, so the local repository, offline mode, mirrors, proxies and credentials of the build apply, and
+ * resolved artifacts are copied from the local repository to the requested folder with the file names
+ * {@code dependency:copy-dependencies} uses.
+ */
+public class MavenArtifactResolver {
+
+    private final RepositorySystem repositorySystem;
+    private final RepositorySystemSession session;
+    private final List<RemoteRepository> repositories;
+    private final Map<File, File> repositoryFiles = new ConcurrentHashMap<>();
+
+    /**
+     * @param repositorySystem repository system of the build
+     * @param session          repository session of the build
+     * @param repositories     remote repositories of the project
+     */
+    public MavenArtifactResolver(RepositorySystem repositorySystem, RepositorySystemSession session,
+                                 List<RemoteRepository> repositories) {
+
+        this.repositorySystem = repositorySystem;
+        this.session = session;
+        this.repositories = repositories != null ? repositories : Collections.<RemoteRepository>emptyList();
+    }
+
+    /**
+     * Creates a resolver from the components injected into a mojo.
+     *
+     * @return the resolver, or null if the build does not provide a repository system, in which case artifacts
+     * have to be resolved by invoking Maven
+     */
+    public static MavenArtifactResolver create(RepositorySystem repositorySystem, RepositorySystemSession session,
+                                               List<RemoteRepository> repositories) {
+
+        if (repositorySystem == null || session == null) {
+            return null;
+        }
+        return new MavenArtifactResolver(repositorySystem, session, repositories);
+    }
+
+    /**
+     * Copies the dependencies of a project of the given type, including transitive ones, into a folder. This is
+     * the in-process equivalent of {@code dependency:copy-dependencies -DincludeTypes=<type>}. Dependencies of other
+     * types are not downloaded.
+     *
+     * @param project   project whose dependencies are copied
+     * @param type      type of the dependencies to be copied, such as car or zip
+     * @param outputDir folder the dependencies are copied to
+     * @return the copied files
+     * @throws LibraryResolverException if some dependencies cannot be resolved; the ones which could be resolved
+     *                                  are copied nevertheless
+     */
+    public List<File> copyProjectDependencies(MavenProject project, final String type, File outputDir)
+            throws LibraryResolverException {
+
+        List<Dependency> dependencies = new ArrayList<>();
+        for (Object dependency : project.getDependencies()) {
+            dependencies.add(toDependency((org.apache.maven.model.Dependency) dependency));
+        }
+        List<Dependency> managedDependencies = new ArrayList<>();
+        if (project.getDependencyManagement() != null) {
+            for (Object dependency : project.getDependencyManagement().getDependencies()) {
+                managedDependencies.add(toDependency((org.apache.maven.model.Dependency) dependency));
+            }
+        }
+        List<File> files = new ArrayList<>();
+        if (dependencies.isEmpty()) {
+            return files;
+        }
+        CollectRequest collectRequest = new CollectRequest(dependencies, managedDependencies, repositories);
+        collectRequest.setRootArtifact(new DefaultArtifact(project.getGroupId(), project.getArtifactId(),
+                project.getPackaging(), project.getVersion()));
+        // Only the dependencies of the given type are downloaded; the others are only needed for their poms.
+        DependencyFilter typeFilter = (node, parents) -> node.getArtifact() != null && type.equals(
+                node.getArtifact().getProperty(ArtifactProperties.TYPE, node.getArtifact().getExtension()));
+        List<ArtifactResult> results;
+        LibraryResolverException failure = null;
+        try {
+            results = repositorySystem.resolveDependencies(session, new DependencyRequest(collectRequest, typeFilter))
+                    .getArtifactResults();
+        } catch (DependencyResolutionException e) {
+            DependencyResult result = e.getResult();
+            results = result != null ? result.getArtifactResults() : Collections.<ArtifactResult>emptyList();
+            failure = new LibraryResolverException("Failed to resolve the " + type + " dependencies of " +
+                    project.getArtifactId() + ": " + e.getMessage(), e);
+        }
+        for (ArtifactResult result : results) {
+            if (result.isResolved()) {
+                files.add(copyArtifact(result.getArtifact(), outputDir));
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return files;
+    }
+
+    /**
+     * Resolves a single artifact, without its dependencies, and copies it into a folder.
+     *
+     * @param coordinates groupId:artifactId:version or groupId:artifactId:version:type coordinates
+     * @param outputDir   folder the artifact is copied to
+     * @return the copied file
+     * @throws LibraryResolverException if the artifact cannot be resolved
+     */
+    public File copyArtifact(String coordinates, File outputDir) throws LibraryResolverException {
+
+        return copyArtifacts(Collections.singletonList(coordinates), Collections.<String>emptyList(), outputDir)
+                .get(0);
+    }
+
+    /**
+     * Resolves artifacts, without their dependencies, and copies them into a folder. This is the in-process
+     * equivalent of {@code dependency:copy-dependencies -DexcludeTransitive=true} on a pom declaring the artifacts
+     * and repositories.
+     *
+     * @param coordinates            groupId:artifactId:version or groupId:artifactId:version:type coordinates
+     * @param additionalRepositories URLs of repositories searched in addition to the ones of the project
+     * @param outputDir              folder the artifacts are copied to
+     * @return the copied files, in the order of the coordinates
+     * @throws LibraryResolverException if any of the artifacts cannot be resolved
+     */
+    public List<File> copyArtifacts(List<String> coordinates, List<String> additionalRepositories, File outputDir)
+            throws LibraryResolverException {
+
+        return copyArtifacts(coordinates, additionalRepositories, outputDir, true);
+    }
+
+    /**
+     * Resolves artifacts in a single request, without their dependencies, and copies the ones which could be
+     * resolved into a folder. The artifacts are downloaded concurrently by the repository system.
+     *
+     * @param coordinates groupId:artifactId:version or groupId:artifactId:version:type coordinates
+     * @param outputDir   folder the artifacts are copied to
+     * @return the copied files, in the order of the coordinates, with null for every artifact which could not be
+     * resolved
+     * @throws LibraryResolverException if the coordinates are invalid or an artifact cannot be copied
+     */
+    public List<File> copyAvailableArtifacts(List<String> coordinates, File outputDir)
+            throws LibraryResolverException {
+
+        return copyArtifacts(coordinates, Collections.<String>emptyList(), outputDir, false);
+    }
+
+    private List<File> copyArtifacts(List<String> coordinates, List<String> additionalRepositories, File outputDir,
+                                     boolean failOnMissing) throws LibraryResolverException {
+
+        List<File> files = new ArrayList<>();
+        for (Artifact artifact : resolveArtifacts(coordinates, additionalRepositories, failOnMissing)) {
+            files.add(artifact != null ? copyArtifact(artifact, outputDir) : null);
+        }
+        return files;
+    }
+
+    /**
+     * Resolves artifacts in a single request, without their dependencies, into the local repository. The
+     * resolved artifacts can then be copied to as many folders as needed with {@link #copyArtifact(Artifact, File)}.
+     *
+     * @param coordinates            groupId:artifactId:version or groupId:artifactId:version:type coordinates
+     * @param additionalRepositories URLs of repositories searched in addition to the ones of the project
+     * @return the resolved artifacts, in the order of the coordinates
+     * @throws LibraryResolverException if any of the artifacts cannot be resolved
+     */
+    public List<Artifact> resolveArtifacts(List<String> coordinates, List<String> additionalRepositories)
+            throws LibraryResolverException {
+
+        return resolveArtifacts(coordinates, additionalRepositories, true);
+    }
+
+    private List<Artifact> resolveArtifacts(List<String> coordinates, List<String> additionalRepositories,
+                                            boolean failOnMissing) throws LibraryResolverException {
+
+        List<RemoteRepository> searchedRepositories = new ArrayList<>(repositories);
+        if (additionalRepositories != null && !additionalRepositories.isEmpty()) {
+            List<RemoteRepository> declared = new ArrayList<>();
+            for (int i = 0; i < additionalRepositories.size(); i++) {
+                declared.add(new RemoteRepository.Builder("repo-" + (i + 1), "default",
+                        additionalRepositories.get(i)).build());
+            }
+            // Applies the mirrors, proxies and credentials of the build settings to the declared repositories.
+            searchedRepositories.addAll(repositorySystem.newResolutionRepositories(session, declared));
+        }
+        List<ArtifactRequest> requests = new ArrayList<>();
+        for (String coordinate : coordinates) {
+            String[] parts = coordinate.split(Constants.COLON);
+            if (parts.length < 3) {
+                throw new LibraryResolverException("Invalid artifact coordinates: " + coordinate);
+            }
+            Artifact artifact = newArtifact(parts[0], parts[1], parts[2], parts.length > 3 ? parts[3] : "jar", null);
+            requests.add(new ArtifactRequest(artifact, searchedRepositories, null));
+        }
+        List<ArtifactResult> results;
+        try {
+            results = repositorySystem.resolveArtifacts(session, requests);
+        } catch (ArtifactResolutionException e) {
+            if (failOnMissing) {
+                throw new LibraryResolverException("Failed to resolve " + coordinates + ": " + e.getMessage(), e);
+            }
+            results = e.getResults();
+        }
+        List<Artifact> artifacts = new ArrayList<>();
+        for (ArtifactResult result : results) {
+            artifacts.add(result.isResolved() ? result.getArtifact() : null);
+        }
+        return artifacts;
+    }
+
+    /**
+     * @return the local repository of the build
+     */
+    public File getLocalRepository() {
+
+        return session.getLocalRepository().getBasedir();
+    }
+
+    /**
+     * @param copiedFile a file copied by this resolver
+     * @return the file in the local repository it was copied from, or null if it was not copied by this resolver
+     */
+    public File getRepositoryFile(File copiedFile) {
+
+        return repositoryFiles.get(copiedFile.getAbsoluteFile());
+    }
+
+    private Dependency toDependency(org.apache.maven.model.Dependency dependency) {
+
+        List<Exclusion> exclusions = new ArrayList<>();
+        for (Object object : dependency.getExclusions()) {
+            org.apache.maven.model.Exclusion exclusion = (org.apache.maven.model.Exclusion) object;
+            exclusions.add(new Exclusion(exclusion.getGroupId(), exclusion.getArtifactId(), "*", "*"));
+        }
+        Artifact artifact = newArtifact(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(),
+                dependency.getType(), dependency.getClassifier());
+        if (StringUtils.isNotEmpty(dependency.getSystemPath())) {
+            artifact = artifact.setProperties(Collections.singletonMap(ArtifactProperties.LOCAL_PATH,
+                    dependency.getSystemPath()));
+        }
+        return new Dependency(artifact, dependency.getScope(), dependency.isOptional(), exclusions);
+    }
+
+    private Artifact newArtifact(String groupId, String artifactId, String version, String type, String classifier) {
+
+        String artifactTypeId = StringUtils.isEmpty(type) ? "jar" : type;
+        ArtifactType artifactType = session.getArtifactTypeRegistry().get(artifactTypeId);
+        if (artifactType == null) {
+            // Types without an artifact handler, such as car, use the type as the file extension.
+            artifactType = new DefaultArtifactType(artifactTypeId);
+        }
+        return new DefaultArtifact(groupId, artifactId, classifier, null, version, artifactType);
+    }
+
+    /**
+     * Copies a resolved artifact from the local repository, unless the copy in the folder is up to date.
+     *
+     * @param artifact  artifact resolved by this resolver
+     * @param outputDir folder the artifact is copied to
+     * @return the copied file
+     * @throws LibraryResolverException if the artifact cannot be copied
+     */
+    public File copyArtifact(Artifact artifact, File outputDir) throws LibraryResolverException {
+
+        String fileName = artifact.getArtifactId() + Constants.HYPHEN + artifact.getBaseVersion() +
+                (StringUtils.isEmpty(artifact.getClassifier()) ? "" : Constants.HYPHEN + artifact.getClassifier()) +
+                "." + artifact.getExtension();
+        File source = artifact.getFile();
+        File target = new File(outputDir, fileName);
+        repositoryFiles.put(target.getAbsoluteFile(), source);
+        try {
+            if (target.isFile() && target.length() == source.length()
+                    && target.lastModified() >= source.lastModified()) {
+                return target;
+            }
+            Files.createDirectories(outputDir.toPath());
+            Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.COPY_ATTRIBUTES);
+        } catch (IOException e) {
+            throw new LibraryResolverException("Failed to copy " + source + " to " + outputDir, e);
+        }
+        return target;
+    }
+}
@@ -22,6 +22,10 @@ package org.wso2.maven.model;
  * Exception to be thrown at .car file creation failure.
  */
 public class ArchiveException extends Exception {
+    public ArchiveException(String message) {
+        super(message);
+    }
+
     public ArchiveException(String message, Throwable cause) {
         super(message, cause);
     }
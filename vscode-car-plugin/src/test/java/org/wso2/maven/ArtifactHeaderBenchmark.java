@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.apache.axiom.om.OMElement;
+import org.apache.axiom.om.util.AXIOMUtil;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.namespace.QName;
+
+/**
+ * Compares reading the name and version of artifacts through a full AXIOM parse of the file content with reading
+ * them through {@link ArtifactHeader}. Generates a project of 5,000 artifacts, a tenth of which are sequences with
+ * large inline payloads, and reports the time taken and the heap allocated by each approach.
+ * <p>
+ * This is not run as part of the test suite. Run it with
+ * {@code mvn test-compile exec:java -Dexec.mainClass=org.wso2.maven.ArtifactHeaderBenchmark
+ * -Dexec.classpathScope=test}.
+ */
+public class ArtifactHeaderBenchmark {
+
+    private static final int ARTIFACT_COUNT = 5000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+
+        File projectDir = Files.createTempDirectory("car-benchmark").toFile();
+        try {
+            List<File> files = createArtifacts(projectDir);
+            for (int round = 1; round <= ROUNDS; round++) {
+                System.out.println("Round " + round);
+                measure("  AXIOM tree    ", () -> {
+                    for (File file : files) {
+                        OMElement element = AXIOMUtil.stringToOM(FileUtils.readFileToString(file));
+                        element.getAttributeValue(new QName(Constants.NAME));
+                        element.getAttributeValue(new QName(Constants.VERSION));
+                    }
+                });
+                measure("  root element  ", () -> {
+                    for (File file : files) {
+                        ArtifactHeader header = ArtifactHeader.read(file);
+                        header.getAttributeValue(Constants.NAME);
+                        header.getAttributeValue(Constants.VERSION);
+                    }
+                });
+            }
+        } finally {
+            FileUtils.deleteDirectory(projectDir);
+        }
+    }
+
+    private static List<File> createArtifacts(File projectDir) throws Exception {
+
+        StringBuilder payload = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            payload.append("<item id=\"").append(i).append("\"><value>").append(i * 31).append("</value></item>");
+        }
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < ARTIFACT_COUNT; i++) {
+            String content;
+            if (i % 10 == 0) {
+                content = "<sequence name=\"seq" + i + "\" xmlns=\"http://ws.apache.org/ns/synapse\">"
+                        + "<payloadFactory media-type=\"xml\"><format><items>" + payload
+                        + "</items></format></payloadFactory></sequence>";
+            } else {
+                content = "<api name=\"api" + i + "\" context=\"/api" + i + "\" version=\"1.0.0\" "
+                        + "xmlns=\"http://ws.apache.org/ns/synapse\"><resource methods=\"GET\" uri-template=\"/\">"
+                        + "<inSequence><log level=\"full\"/><respond/></inSequence></resource></api>";
+            }
+            File file = new File(projectDir, "artifact" + i + ".xml");
+            Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static void measure(String label, Task task) throws Exception {
+
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        task.run();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long allocatedMb = (threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / (1024 * 1024);
+        System.out.println(label + elapsedMillis + " ms, " + allocatedMb + " MB allocated");
+    }
+
+    private interface Task {
+
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.apache.axiom.om.OMElement;
+import org.apache.axiom.om.util.AXIOMUtil;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.maven.archive.CARArchive;
+import org.wso2.maven.archive.CARArchiveWriter;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.ZipFile;
+import javax.xml.namespace.QName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class CARDeltaTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testCompare_FindsAddedChangedAndRemovedArtifacts() throws Exception {
+
+        CARDelta delta = compare(createArchive("<log/>", "Ep0", "Ep1"), createArchive("<drop/>", "Ep1", "Ep2"));
+
+        assertEquals(1, delta.getAdded().size());
+        assertEquals("Ep2_1.0.0", delta.getAdded().get(0).getFolder());
+        assertEquals(1, delta.getChanged().size());
+        assertEquals("Seq_1.0.0", delta.getChanged().get(0).getFolder());
+        assertEquals(1, delta.getRemoved().size());
+        assertEquals("Ep0", delta.getRemoved().get(0).getName());
+    }
+
+    @Test
+    public void testCreateArchive_ContainsOnlyAddedAndChangedArtifacts() throws Exception {
+
+        CARDelta delta = compare(createArchive("<log/>", "Ep0", "Ep1"), createArchive("<drop/>", "Ep1", "Ep2"));
+        File deltaFile = tempFolder.newFile("delta.car");
+        CARArchiveWriter.write(delta.createArchive(), deltaFile);
+
+        try (ZipFile zipFile = new ZipFile(deltaFile)) {
+            assertNotNull(zipFile.getEntry("Ep2_1.0.0/Ep2-1.0.0.xml"));
+            assertNotNull(zipFile.getEntry("Seq_1.0.0/Seq-1.0.0.xml"));
+            assertNull(zipFile.getEntry("Ep1_1.0.0/artifact.xml"));
+            for (String descriptor : new String[]{Constants.ARTIFACTS_XML_FILE, Constants.METADATA_XML_FILE}) {
+                OMElement application = readElement(zipFile, descriptor).getFirstElement();
+                List<String> dependencies = new ArrayList<>();
+                for (Iterator<?> it = application.getChildElements(); it.hasNext(); ) {
+                    dependencies.add(((OMElement) it.next()).getAttributeValue(new QName(Constants.ARTIFACT)));
+                }
+                assertEquals(Arrays.asList("Seq", "Ep2"), dependencies);
+            }
+        }
+    }
+
+    @Test
+    public void testCreateArchive_HasItsOwnApplicationIdentity() throws Exception {
+
+        CARDelta delta = compare(createArchive("<log/>", "Ep0"), createArchive("<drop/>", "Ep0"));
+        File deltaFile = tempFolder.newFile("delta.car");
+        CARArchiveWriter.write(delta.createArchive(), deltaFile);
+
+        // A CApp of the same name would replace the full CApp, with all its unchanged artifacts, on deployment.
+        try (ZipFile zipFile = new ZipFile(deltaFile)) {
+            for (String descriptor : new String[]{Constants.ARTIFACTS_XML_FILE, Constants.METADATA_XML_FILE}) {
+                OMElement application = readElement(zipFile, descriptor).getFirstElement();
+                assertEquals("test-delta", application.getAttributeValue(new QName(Constants.NAME)));
+                assertEquals("1.0.0", application.getAttributeValue(new QName(Constants.VERSION)));
+                assertEquals(Constants.CAPP_TYPE, application.getAttributeValue(new QName(Constants.TYPE)));
+            }
+            OMElement descriptor = readElement(zipFile, Constants.DESCRIPTOR_XML);
+            assertEquals("com.example__test-delta__1.0.0",
+                    descriptor.getFirstChildWithName(new QName(Constants.ID)).getText());
+            assertEquals("false",
+                    descriptor.getFirstChildWithName(new QName(Constants.VERSIONED_DEPLOYMENT)).getText());
+            OMElement dependency = descriptor.getFirstChildWithName(new QName(Constants.DEPENDENCIES))
+                    .getFirstElement();
+            assertEquals("common", dependency.getAttributeValue(new QName(Constants.ARTIFACT_ID)));
+        }
+    }
+
+    private CARDelta compare(CARArchive baselineArchive, CARArchive currentArchive) throws Exception {
+
+        File baseline = tempFolder.newFile("baseline.car");
+        File current = tempFolder.newFile("current.car");
+        CARArchiveWriter.write(baselineArchive, baseline);
+        CARArchiveWriter.write(currentArchive, current);
+        return CARDelta.compare(baseline, current);
+    }
+
+    private static CARArchive createArchive(String mediator, String... endpoints) {
+
+        CARArchive archive = new CARArchive();
+        StringBuilder artifactsXml = new StringBuilder("<artifacts><artifact name=\"test\" version=\"1.0.0\" "
+                + "type=\"carbon/application\">");
+        addArtifact(archive, artifactsXml, "Seq", "synapse/sequence",
+                "<sequence name=\"Seq\">" + mediator + "</sequence>");
+        for (String endpoint : endpoints) {
+            addArtifact(archive, artifactsXml, endpoint, "synapse/endpoint", "<endpoint name=\"" + endpoint + "\"/>");
+        }
+        artifactsXml.append("</artifact></artifacts>");
+        archive.addContent(Constants.ARTIFACTS_XML_FILE, artifactsXml.toString());
+        archive.addContent(Constants.METADATA_XML_FILE, artifactsXml.toString());
+        archive.addContent(Constants.DESCRIPTOR_XML, "<project><id>com.example__test__1.0.0</id>"
+                + "<versionedDeployment>false</versionedDeployment><dependencies><dependency groupId=\"com.example\" "
+                + "artifactId=\"common\" version=\"1.0.0\" type=\"car\"/></dependencies></project>");
+        return archive;
+    }
+
+    private static void addArtifact(CARArchive archive, StringBuilder artifactsXml, String name, String type,
+                                    String content) {
+
+        String folder = name + "_1.0.0/";
+        archive.addContent(folder + Constants.ARTIFACT_XML, "<artifact name=\"" + name + "\" version=\"1.0.0\" "
+                + "type=\"" + type + "\"><file>" + name + "-1.0.0.xml</file></artifact>");
+        archive.addContent(folder + name + "-1.0.0.xml", content);
+        artifactsXml.append("<dependency artifact=\"").append(name).append("\" version=\"1.0.0\" include=\"true\"/>");
+    }
+
+    private static OMElement readElement(ZipFile zipFile, String name) throws Exception {
+
+        return AXIOMUtil.stringToOM(IOUtils.toString(zipFile.getInputStream(zipFile.getEntry(name)),
+                StandardCharsets.UTF_8));
+    }
+}
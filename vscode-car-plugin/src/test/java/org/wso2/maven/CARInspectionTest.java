@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.maven.archive.CARArchive;
+import org.wso2.maven.archive.CARArchiveWriter;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CARInspectionTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testRead_ReadsDescriptorsOfArchive() throws Exception {
+
+        File carFile = tempFolder.newFile("test.car");
+        CARArchiveWriter.write(createArchive(), carFile);
+
+        CARInspection inspection = CARInspection.read(carFile);
+        assertEquals("test", inspection.getName());
+        assertEquals("1.0.0", inspection.getVersion());
+        assertEquals(2, inspection.getArtifacts().size());
+        assertEquals("Ep0", inspection.getArtifacts().get(1).getName());
+        assertEquals("synapse/endpoint", inspection.getArtifacts().get(1).getType());
+        assertTrue(inspection.getArtifacts().get(1).isInclude());
+        assertEquals(1, inspection.getCAppDependencies().size());
+        assertEquals("common", inspection.getCAppDependencies().get(0).getArtifactId());
+    }
+
+    @Test
+    public void testExecute_InspectsCarFileOfArchiveLocationAndName() throws Exception {
+
+        MavenProject project = new MavenProject(new Model());
+        project.setArtifactId("test");
+        project.setVersion("1.0.0");
+        project.setFile(new File(tempFolder.newFolder("project"), Constants.POM_FILE));
+        File archiveLocation = tempFolder.newFolder("out");
+        CARArchiveWriter.write(createArchive(), new File(archiveLocation, "custom.car"));
+        InspectCARMojo mojo = new InspectCARMojo();
+        mojo.project = project;
+        mojo.archiveLocation = archiveLocation.getPath();
+        mojo.archiveName = "custom";
+        mojo.format = InspectCARMojo.FORMAT_JSON;
+        mojo.outputFile = new File(tempFolder.getRoot(), "inspection.json");
+
+        mojo.execute();
+
+        String output = new String(Files.readAllBytes(mojo.outputFile.toPath()), StandardCharsets.UTF_8);
+        assertTrue(output.contains("custom.car"));
+    }
+
+    private static CARArchive createArchive() throws Exception {
+
+        CARArchive archive = new CARArchive();
+        StringBuilder artifactsXml = new StringBuilder("<artifacts><artifact name=\"test\" version=\"1.0.0\" "
+                + "type=\"carbon/application\">");
+        addArtifact(archive, artifactsXml, "Seq", "synapse/sequence", "<sequence name=\"Seq\"><log/></sequence>");
+        addArtifact(archive, artifactsXml, "Ep0", "synapse/endpoint", "<endpoint name=\"Ep0\"/>");
+        archive.addContent(Constants.ARTIFACTS_XML_FILE, artifactsXml.append("</artifact></artifacts>").toString());
+        archive.addContent(Constants.DESCRIPTOR_XML, new CAppHandler("test", new CAppHandlerTest.MockCARMojo())
+                .createDependencyDescriptorXml("test", false,
+                        Collections.singletonList(new CAppDependency("com.example", "common", "1.0.0")), false));
+        return archive;
+    }
+
+    private static void addArtifact(CARArchive archive, StringBuilder artifactsXml, String name, String type,
+                                    String content) {
+
+        String folder = name + "_1.0.0/";
+        archive.addContent(folder + Constants.ARTIFACT_XML, "<artifact name=\"" + name + "\" version=\"1.0.0\" "
+                + "type=\"" + type + "\"><file>" + name + "-1.0.0.xml</file></artifact>");
+        archive.addContent(folder + name + "-1.0.0.xml", content);
+        artifactsXml.append("<dependency artifact=\"").append(name).append("\" version=\"1.0.0\" include=\"true\"/>");
+    }
+}
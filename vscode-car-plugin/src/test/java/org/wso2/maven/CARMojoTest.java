@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.maven.archive.CARArchive;
+import org.wso2.maven.archive.CARArchiveWriter;
+import org.wso2.maven.model.ArtifactDependency;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class CARMojoTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testWriteLayeredArchives_AttachesPlatformLayerWithDescriptorCoordinates() throws Exception {
+
+        MavenProject project = new MavenProject(new Model());
+        project.setGroupId("com.example");
+        project.setArtifactId("app");
+        project.setVersion("1.0.0");
+        CARMojo mojo = new CARMojo();
+        mojo.project = project;
+        mojo.layered = true;
+        mojo.archiveLocation = tempFolder.newFolder("target").getAbsolutePath();
+        CARArchive archive = new CARArchive();
+        archive.addContent("Seq_1.0.0/Seq-1.0.0.xml", "<sequence name=\"Seq\"/>".getBytes(StandardCharsets.UTF_8));
+        CARArchive platformArchive = new CARArchive();
+        platformArchive.addContent("connector_1.0.0/connector-1.0.0.zip", new byte[]{1, 2, 3});
+        File carFile = new File(mojo.archiveLocation, "app_1.0.0.car");
+
+        boolean created = mojo.writeLayeredArchives(new CAppHandler(mojo.getArchiveName(), mojo), archive,
+                platformArchive, new ArrayList<ArtifactDependency>(), carFile, CARArchiveWriter.DEFAULT_ENTRY_TIME,
+                null);
+
+        assertTrue(created);
+        File platformCarFile = new File(mojo.archiveLocation, "app_1.0.0-platform.car");
+        assertTrue(readEntry(carFile, Constants.DESCRIPTOR_XML).contains(
+                "<dependency groupId=\"com.example\" artifactId=\"app-platform\" version=\"1.0.0\" type=\"car\"/>"));
+        assertTrue(readEntry(platformCarFile, Constants.DESCRIPTOR_XML).contains(
+                "<id>com.example__app-platform__1.0.0</id>"));
+        Map<String, Artifact> attached = new HashMap<>();
+        for (Object artifact : project.getAttachedArtifacts()) {
+            attached.put(((Artifact) artifact).getType(), (Artifact) artifact);
+        }
+        assertEquals(2, attached.size());
+        // The attached coordinates are the ones the application layer depends on.
+        Artifact platformCar = attached.get(Constants.CAR_TYPE);
+        assertEquals("com.example:app-platform:car:1.0.0", platformCar.getGroupId() + ":" +
+                platformCar.getArtifactId() + ":" + platformCar.getType() + ":" + platformCar.getVersion());
+        assertEquals(platformCarFile, platformCar.getFile());
+        Artifact platformPom = attached.get(Constants.POM_TYPE);
+        assertNotNull(platformPom);
+        assertEquals("app-platform", platformPom.getArtifactId());
+        String pom = new String(Files.readAllBytes(platformPom.getFile().toPath()), StandardCharsets.UTF_8);
+        assertTrue(pom.contains("<artifactId>app-platform</artifactId>"));
+        assertTrue(pom.contains("<packaging>car</packaging>"));
+
+        // Writing the layers again replaces the attached artifacts instead of attaching them twice.
+        mojo.writeLayeredArchives(new CAppHandler(mojo.getArchiveName(), mojo), new CARArchive(),
+                new CARArchive(), new ArrayList<ArtifactDependency>(), carFile, CARArchiveWriter.DEFAULT_ENTRY_TIME,
+                null);
+        assertEquals(2, project.getAttachedArtifacts().size());
+    }
+
+    @Test
+    public void testGetCarFile_FollowsArchiveLocationAndName() throws Exception {
+
+        MavenProject project = new MavenProject(new Model());
+        project.setArtifactId("app");
+        project.setVersion("1.0.0");
+        File basedir = tempFolder.newFolder("project");
+        project.setFile(new File(basedir, Constants.POM_FILE));
+
+        assertEquals(new File(new File(basedir, Constants.DEFAULT_TARGET_FOLDER), "app_1.0.0.car"),
+                CARMojo.getCarFile(project, null, null));
+        File location = tempFolder.newFolder("out");
+        assertEquals(new File(location, "custom.car"),
+                CARMojo.getCarFile(project, location.getPath(), "custom"));
+    }
+
+    private static String readEntry(File carFile, String name) throws Exception {
+
+        try (ZipFile zipFile = new ZipFile(carFile)) {
+            return IOUtils.toString(zipFile.getInputStream(zipFile.getEntry(name)), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -18,20 +18,33 @@
 package org.wso2.maven;
 
 import org.apache.axiom.om.OMElement;
+import org.apache.axiom.om.util.AXIOMUtil;
+import org.apache.maven.project.MavenProject;
 
 import java.io.File;
 import java.io.FileWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import javax.xml.namespace.QName;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.wso2.maven.archive.CARArchive;
+import org.wso2.maven.archive.CARArchiveWriter;
+import org.wso2.maven.archive.CAREntry;
+import org.wso2.maven.incremental.IncrementalBuild;
 import org.wso2.maven.libraries.CAppDependencyResolver;
+import org.wso2.maven.model.ArtifactDependency;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class CAppHandlerTest {
 
@@ -42,28 +55,29 @@ public class CAppHandlerTest {
         private final StringBuilder logs = new StringBuilder();
         @Override public void logInfo(String msg) { logs.append(msg).append("\n"); }
         @Override public void logError(String msg) { logs.append("ERROR: ").append(msg).append("\n"); }
+        @Override public void logWarn(String msg) { logs.append("WARN: ").append(msg).append("\n"); }
     }
 
     @Test
-    public void testCreateDependencyDescriptorXml_ReturnsCorrectXml() {
+    public void testCreateDependencyDescriptorXml_ReturnsCorrectXml() throws Exception {
 
         String projectName = "com.example_test_1.0.0";
         CARMojo mojo = new CAppHandlerTest.MockCARMojo();
         CAppHandler handler = new CAppHandler("test", mojo);
 
-        OMElement result = handler.createDependencyDescriptorXml(projectName,false, java.util.Collections.<CAppDependency>emptyList(), false);
+        OMElement result = parse(handler.createDependencyDescriptorXml(projectName,false, java.util.Collections.<CAppDependency>emptyList(), false));
 
         assertNotNull(result);
         assertEquals("project", result.getLocalName());
-        OMElement idElement = result.getFirstChildWithName(new javax.xml.namespace.QName("id"));
+        OMElement idElement = result.getFirstChildWithName(new QName("id"));
         assertNotNull(idElement);
         assertEquals(projectName, idElement.getText());
-        OMElement dependenciesElement = result.getFirstChildWithName(new javax.xml.namespace.QName("dependencies"));
+        OMElement dependenciesElement = result.getFirstChildWithName(new QName("dependencies"));
         assertNotNull(dependenciesElement);
     }
 
     @Test
-    public void testCreateDependencyDescriptorXml_WithDependencies() {
+    public void testCreateDependencyDescriptorXml_WithDependencies() throws Exception {
         String projectName = "com.example_test_1.0.0";
         CARMojo mojo = new MockCARMojo();
         CAppHandler handler = new CAppHandler("test", mojo);
@@ -71,45 +85,367 @@ public class CAppHandlerTest {
         List<CAppDependency> deps = Arrays.asList(new CAppDependency("group1", "artifact1", "1.0.0"),
                 new CAppDependency("group2", "artifact2", "2.0.0"));
 
-        OMElement result = handler.createDependencyDescriptorXml(projectName, false, deps, false);
+        OMElement result = parse(handler.createDependencyDescriptorXml(projectName, false, deps, false));
 
-        OMElement dependenciesElement = result.getFirstChildWithName(new javax.xml.namespace.QName("dependencies"));
+        OMElement dependenciesElement = result.getFirstChildWithName(new QName("dependencies"));
         assertNotNull(dependenciesElement);
 
         OMElement depElem1 = dependenciesElement.getFirstElement();
         assertNotNull(depElem1);
-        assertEquals("group1", depElem1.getAttributeValue(new javax.xml.namespace.QName("groupId")));
-        assertEquals("artifact1", depElem1.getAttributeValue(new javax.xml.namespace.QName("artifactId")));
-        assertEquals("1.0.0", depElem1.getAttributeValue(new javax.xml.namespace.QName("version")));
-        assertEquals("car", depElem1.getAttributeValue(new javax.xml.namespace.QName("type")));
+        assertEquals("group1", depElem1.getAttributeValue(new QName("groupId")));
+        assertEquals("artifact1", depElem1.getAttributeValue(new QName("artifactId")));
+        assertEquals("1.0.0", depElem1.getAttributeValue(new QName("version")));
+        assertEquals("car", depElem1.getAttributeValue(new QName("type")));
 
         OMElement depElem2 = (OMElement) depElem1.getNextOMSibling();
         assertNotNull(depElem2);
-        assertEquals("group2", depElem2.getAttributeValue(new javax.xml.namespace.QName("groupId")));
-        assertEquals("artifact2", depElem2.getAttributeValue(new javax.xml.namespace.QName("artifactId")));
-        assertEquals("2.0.0", depElem2.getAttributeValue(new javax.xml.namespace.QName("version")));
-        assertEquals("car", depElem2.getAttributeValue(new javax.xml.namespace.QName("type")));
+        assertEquals("group2", depElem2.getAttributeValue(new QName("groupId")));
+        assertEquals("artifact2", depElem2.getAttributeValue(new QName("artifactId")));
+        assertEquals("2.0.0", depElem2.getAttributeValue(new QName("version")));
+        assertEquals("car", depElem2.getAttributeValue(new QName("type")));
         assertEquals(2, dependenciesElement.getChildElements().hasNext() ? 2 : 0);
     }
 
     @Test
-    public void testCreateDependencyDescriptorXml_versionedDeployment() {
+    public void testCreateDependencyDescriptorXml_versionedDeployment() throws Exception {
 
         String projectName = "com.example_test_1.0.0";
         CARMojo mojo = new CAppHandlerTest.MockCARMojo();
         CAppHandler handler = new CAppHandler("test", mojo);
 
-        OMElement result = handler.createDependencyDescriptorXml(projectName,true, java.util.Collections.<CAppDependency>emptyList(), false);
+        OMElement result = parse(handler.createDependencyDescriptorXml(projectName,true, java.util.Collections.<CAppDependency>emptyList(), false));
 
         assertNotNull(result);
         assertEquals("project", result.getLocalName());
-        OMElement idElement = result.getFirstChildWithName(new javax.xml.namespace.QName("id"));
+        OMElement idElement = result.getFirstChildWithName(new QName("id"));
         assertNotNull(idElement);
         assertEquals(projectName, idElement.getText());
-        OMElement versionedDeploymentElement = result.getFirstChildWithName(new javax.xml.namespace.QName("versionedDeployment"));
+        OMElement versionedDeploymentElement = result.getFirstChildWithName(new QName("versionedDeployment"));
         assertNotNull(idElement);
         assertEquals("true", versionedDeploymentElement.getText());
-        OMElement dependenciesElement = result.getFirstChildWithName(new javax.xml.namespace.QName("dependencies"));
+        OMElement dependenciesElement = result.getFirstChildWithName(new QName("dependencies"));
         assertNotNull(dependenciesElement);
     }
+
+    @Test
+    public void testCreateDependencyDescriptorXml_MatchesPrettyPrintedLayout() throws Exception {
+
+        CAppHandler handler = new CAppHandler("test", new MockCARMojo());
+        List<CAppDependency> deps = Arrays.asList(new CAppDependency("group1", "a&b", "1.0.0"));
+
+        byte[] result = handler.createDependencyDescriptorXml("com.example_test_1.0.0", false, deps, true);
+
+        String expected = String.join(System.lineSeparator(),
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?><project>",
+                "    <id>com.example_test_1.0.0</id>",
+                "    <versionedDeployment>false</versionedDeployment>",
+                "    <fatCarEnabled>true</fatCarEnabled>",
+                "    <dependencies>",
+                "        <dependency groupId=\"group1\" artifactId=\"a&amp;b\" version=\"1.0.0\" type=\"car\"/>",
+                "    </dependencies>",
+                "</project>",
+                "");
+        assertEquals(expected, new String(result, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testProcessArtifacts_ParallelMatchesSequential() throws Exception {
+
+        File artifactsFolder = createArtifactsFolder(tempFolder.newFolder("project", "src", "main", "wso2mi"));
+
+        List<ArtifactDependency> sequentialDeps = new ArrayList<>();
+        List<ArtifactDependency> sequentialMetaDeps = new ArrayList<>();
+        CARArchive sequentialArchive = new CARArchive();
+        MockCARMojo sequentialMojo = new MockCARMojo();
+        new CAppHandler("test", sequentialMojo).processArtifacts(artifactsFolder, sequentialArchive,
+                sequentialDeps, sequentialMetaDeps, "1.0.0");
+
+        List<ArtifactDependency> parallelDeps = new ArrayList<>();
+        List<ArtifactDependency> parallelMetaDeps = new ArrayList<>();
+        CARArchive parallelArchive = new CARArchive();
+        MockCARMojo parallelMojo = new MockCARMojo();
+        parallelMojo.processingThreads = 4;
+        new CAppHandler("test", parallelMojo).processArtifacts(artifactsFolder, parallelArchive,
+                parallelDeps, parallelMetaDeps, "1.0.0");
+
+        assertEquals(26, sequentialDeps.size());
+        assertEquals(toKeys(sequentialDeps), toKeys(parallelDeps));
+        assertEquals(toKeys(sequentialMetaDeps), toKeys(parallelMetaDeps));
+        assertEquals(toEntryNames(sequentialArchive), toEntryNames(parallelArchive));
+        assertTrue(toEntryNames(parallelArchive).contains("OrderApi_1.0.0_1.0.0/OrderApi_1.0.0-1.0.0.xml"));
+    }
+
+    @Test
+    public void testProcessArtifacts_ParallelFailsLikeSequential() throws Exception {
+
+        File artifactsFolder = createArtifactsFolder(tempFolder.newFolder("project", "src", "main", "wso2mi"));
+        // The name of a data source is taken from its file name, which must end with .xml.
+        File dataSources = new File(artifactsFolder, "data-sources");
+        dataSources.mkdirs();
+        writeFile(new File(dataSources, "ds"), "<datasource name=\"ds\"/>");
+
+        MockCARMojo parallelMojo = new MockCARMojo();
+        parallelMojo.processingThreads = 4;
+        RuntimeException sequentialFailure = processArtifactsExpectingFailure(new MockCARMojo(), artifactsFolder);
+        RuntimeException parallelFailure = processArtifactsExpectingFailure(parallelMojo, artifactsFolder);
+
+        assertEquals(sequentialFailure.getClass(), parallelFailure.getClass());
+        assertEquals(sequentialFailure.getMessage(), parallelFailure.getMessage());
+    }
+
+    @Test
+    public void testProcessArtifacts_IncrementalBuildReusesUnchangedArtifacts() throws Exception {
+
+        File artifactsFolder = createArtifactsFolder(tempFolder.newFolder("project", "src", "main", "wso2mi"));
+        File carFile = new File(tempFolder.getRoot(), "test.car");
+        File manifestFile = new File(tempFolder.getRoot(), "test" + Constants.BUILD_MANIFEST_SUFFIX);
+
+        MockCARMojo firstMojo = new MockCARMojo();
+        IncrementalBuild firstBuild = IncrementalBuild.open(firstMojo, manifestFile, carFile, "context");
+        assertNull(firstBuild.getPreviousManifest());
+        CARArchive firstArchive = processIncrementally(firstMojo, firstBuild, artifactsFolder);
+        CARArchiveWriter.write(firstArchive, carFile);
+        firstBuild.save(firstArchive);
+
+        writeFile(new File(artifactsFolder, "sequences/Seq3.xml"),
+                "<sequence xmlns=\"http://ws.apache.org/ns/synapse\" name=\"Seq3\"><drop/></sequence>");
+        MockCARMojo secondMojo = new MockCARMojo();
+        IncrementalBuild secondBuild = IncrementalBuild.open(secondMojo, manifestFile, carFile, "context");
+        assertNotNull(secondBuild.getPreviousManifest());
+        CARArchive secondArchive = processIncrementally(secondMojo, secondBuild, artifactsFolder);
+
+        assertEquals(toEntryNames(firstArchive), toEntryNames(secondArchive));
+        for (CAREntry entry : secondArchive.getEntries()) {
+            if (entry.getName().startsWith("Seq3_")) {
+                assertNull(entry.getPreviousArchive());
+            } else if (entry.getSource() == null) {
+                assertEquals(carFile, entry.getPreviousArchive());
+            }
+        }
+
+        assertNull(IncrementalBuild.open(secondMojo, manifestFile, carFile, "other").getPreviousManifest());
+    }
+
+    private OMElement parse(byte[] xml) throws Exception {
+
+        return AXIOMUtil.stringToOM(new String(xml, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testProcessArtifacts_ExcludesUnreachableArtifacts() throws Exception {
+
+        File artifactsFolder = createArtifactsFolder(tempFolder.newFolder("project", "src", "main", "wso2mi"));
+        writeFile(new File(artifactsFolder, "apis/StockApi.xml"),
+                "<api xmlns=\"http://ws.apache.org/ns/synapse\" name=\"StockApi\" context=\"/stock\">"
+                        + "<resource><inSequence><sequence key=\"Seq0\"/></inSequence></resource></api>");
+        writeFile(new File(artifactsFolder, "sequences/Seq0.xml"),
+                "<sequence xmlns=\"http://ws.apache.org/ns/synapse\" name=\"Seq0\"><call><endpoint key=\"Ep1\"/>"
+                        + "</call></sequence>");
+        MockCARMojo mojo = new MockCARMojo();
+        mojo.unreachableArtifacts = Constants.UNREACHABLE_ARTIFACTS_EXCLUDE;
+
+        List<ArtifactDependency> dependencies = new ArrayList<>();
+        CARArchive archive = new CARArchive();
+        new CAppHandler("test", mojo).processArtifacts(artifactsFolder, archive, dependencies,
+                new ArrayList<ArtifactDependency>(), "1.0.0");
+
+        List<String> keys = toKeys(dependencies);
+        assertEquals(4, keys.size());
+        assertTrue(keys.contains("Seq0:1.0.0:EnterpriseIntegrator"));
+        assertTrue(keys.contains("Ep1:1.0.0:EnterpriseIntegrator"));
+        assertFalse(toEntryNames(archive).contains("Seq1_1.0.0/Seq1-1.0.0.xml"));
+        assertTrue(mojo.logs.toString().contains("Excluded 22 unreachable artifacts"));
+    }
+
+    @Test
+    public void testProcessArtifacts_KeepsArtifactsOfProjectWithoutEntryPoints() throws Exception {
+
+        File artifactsFolder = createArtifactsFolder(tempFolder.newFolder("project", "src", "main", "wso2mi"));
+        // A library of sequences and endpoints, which only other CApps refer to.
+        for (File api : new File(artifactsFolder, "apis").listFiles()) {
+            assertTrue(api.delete());
+        }
+        MockCARMojo mojo = new MockCARMojo();
+        mojo.unreachableArtifacts = Constants.UNREACHABLE_ARTIFACTS_EXCLUDE;
+
+        List<ArtifactDependency> dependencies = new ArrayList<>();
+        new CAppHandler("test", mojo).processArtifacts(artifactsFolder, new CARArchive(), dependencies,
+                new ArrayList<ArtifactDependency>(), "1.0.0");
+
+        assertEquals(24, dependencies.size());
+        assertTrue(mojo.logs.toString().contains("WARN: The project has no API"));
+    }
+
+    @Test
+    public void testProcessResourcesFolder_AddsConnectorsToConnectorArchive() throws Exception {
+
+        File resourcesFolder = tempFolder.newFolder("project", "src", "main", "wso2mi", "resources");
+        new File(resourcesFolder, "connectors").mkdirs();
+        new File(resourcesFolder, "conf").mkdirs();
+        writeFile(new File(resourcesFolder, "connectors/mi-connector-http-0.1.8.zip"), "connector");
+        writeFile(new File(resourcesFolder, "conf/config.properties"), "key=value");
+        MavenProject project = new MavenProject();
+        project.setVersion("1.0.0");
+
+        CARArchive archive = new CARArchive();
+        List<ArtifactDependency> dependencies = new ArrayList<>();
+        CARArchive connectorArchive = new CARArchive();
+        List<ArtifactDependency> connectorDependencies = new ArrayList<>();
+        new CAppHandler("test", new MockCARMojo()).processResourcesFolder(resourcesFolder, archive, dependencies,
+                new ArrayList<ArtifactDependency>(), "1.0.0", project, connectorArchive, connectorDependencies);
+
+        assertEquals(Arrays.asList("mi-connector-http:0.1.8:EnterpriseIntegrator"), toKeys(connectorDependencies));
+        assertTrue(toEntryNames(connectorArchive).contains("mi-connector-http_0.1.8/mi-connector-http-0.1.8.zip"));
+        assertEquals(Arrays.asList("config:1.0.0:EnterpriseIntegrator"), toKeys(dependencies));
+        assertFalse(toEntryNames(archive).contains("mi-connector-http_0.1.8/mi-connector-http-0.1.8.zip"));
+    }
+
+    @Test
+    public void testProcessConnectorLibDependencies_StoresLibraryForEveryConnector() throws Exception {
+
+        File basedir = tempFolder.newFolder("connector-project");
+        File libs = new File(basedir, "target" + File.separator + "libs");
+        new File(libs, "connectorA").mkdirs();
+        new File(libs, "connectorB").mkdirs();
+        writeFile(new File(libs, "connectorA/shared-1.0.jar"), "shared library");
+        writeFile(new File(libs, "connectorB/shared-1.0.jar"), "shared library");
+        writeFile(new File(libs, "connectorB/other-1.0.jar"), "other library");
+        MavenProject project = new MavenProject();
+        project.setFile(new File(basedir, "pom.xml"));
+        project.setVersion("1.0.0");
+        project.getProperties().setProperty(Constants.PROJECT_RUNTIME_VERSION, "4.4.0");
+
+        CARArchive archive = new CARArchive();
+        List<ArtifactDependency> dependencies = new ArrayList<>();
+        new CAppHandler("test", new MockCARMojo()).processConnectorLibDependencies(archive, dependencies, project);
+
+        assertEquals(3, dependencies.size());
+        List<String> names = toEntryNames(archive);
+        assertTrue(names.contains("connectorA_shared-1.0/shared-1.0.jar"));
+        assertTrue(names.contains("connectorB_other-1.0/other-1.0.jar"));
+        // Unless libraries are deduplicated, every connector has its own copy.
+        assertTrue(names.contains("connectorB_shared-1.0/shared-1.0.jar"));
+        for (CAREntry entry : archive.getEntries()) {
+            if (entry.getName().equals("connectorB_shared-1.0/artifact.xml")) {
+                String artifactXml = new String(entry.getContent(), StandardCharsets.UTF_8);
+                assertTrue(artifactXml.contains("<file>shared-1.0.jar</file>"));
+                assertTrue(artifactXml.contains("connector=\"connectorB\""));
+            }
+        }
+    }
+
+    @Test
+    public void testProcessConnectorLibDependencies_StoresSharedLibraryOnce() throws Exception {
+
+        File basedir = tempFolder.newFolder("connector-project");
+        File libs = new File(basedir, "target" + File.separator + "libs");
+        for (String connector : new String[]{"connectorA", "connectorB", "connectorC"}) {
+            new File(libs, connector).mkdirs();
+            writeFile(new File(libs, connector + "/shared-1.0.jar"), "shared library");
+        }
+        writeFile(new File(libs, "connectorB/other-1.0.jar"), "other library");
+        // The same file name with other content is not shared.
+        writeFile(new File(libs, "connectorC/other-1.0.jar"), "patched library");
+        MavenProject project = new MavenProject();
+        project.setFile(new File(basedir, "pom.xml"));
+        project.setVersion("1.0.0");
+        project.getProperties().setProperty(Constants.PROJECT_RUNTIME_VERSION, "4.4.0");
+        MockCARMojo mojo = new MockCARMojo();
+        mojo.deduplicateConnectorLibraries = true;
+
+        CARArchive archive = new CARArchive();
+        List<ArtifactDependency> dependencies = new ArrayList<>();
+        new CAppHandler("test", mojo).processConnectorLibDependencies(archive, dependencies, project);
+
+        assertEquals(Arrays.asList("shared_shared-1.0:1.0.0:EnterpriseIntegrator",
+                "connectorB_other-1.0:1.0.0:EnterpriseIntegrator", "connectorC_other-1.0:1.0.0:EnterpriseIntegrator"),
+                toKeys(dependencies));
+        List<String> names = toEntryNames(archive);
+        assertTrue(names.contains("shared_shared-1.0/shared-1.0.jar"));
+        assertFalse(names.contains("connectorA_shared-1.0/shared-1.0.jar"));
+        assertFalse(names.contains("connectorB_shared-1.0/shared-1.0.jar"));
+        for (CAREntry entry : archive.getEntries()) {
+            if (entry.getName().equals("shared_shared-1.0/artifact.xml")) {
+                String artifactXml = new String(entry.getContent(), StandardCharsets.UTF_8);
+                assertTrue(artifactXml.contains("type=\"lib/connector/dependency\""));
+                assertTrue(artifactXml.contains("connector=\"connectorA,connectorB,connectorC\""));
+                assertTrue(artifactXml.contains("<file>shared-1.0.jar</file>"));
+            }
+        }
+        assertTrue(mojo.logs.toString().contains("Stored 1 connector libraries used more than once as a single copy, "
+                + "saving 28 bytes (28 bytes)"));
+    }
+
+    private RuntimeException processArtifactsExpectingFailure(MockCARMojo mojo, File artifactsFolder) {
+
+        try {
+            new CAppHandler("test", mojo).processArtifacts(artifactsFolder, new CARArchive(),
+                    new ArrayList<ArtifactDependency>(), new ArrayList<ArtifactDependency>(), "1.0.0");
+        } catch (RuntimeException e) {
+            return e;
+        }
+        fail("Expected processing the artifacts to fail");
+        return null;
+    }
+
+    private CARArchive processIncrementally(MockCARMojo mojo, IncrementalBuild build, File artifactsFolder) {
+
+        CAppHandler handler = new CAppHandler("test", mojo);
+        handler.setIncrementalBuild(build);
+        CARArchive archive = new CARArchive();
+        List<ArtifactDependency> dependencies = new ArrayList<>();
+        handler.processArtifacts(artifactsFolder, archive, dependencies, new ArrayList<ArtifactDependency>(), "1.0.0");
+        assertEquals(26, dependencies.size());
+        return archive;
+    }
+
+    private File createArtifactsFolder(File wso2miFolder) throws Exception {
+
+        File artifactsFolder = new File(wso2miFolder, "artifacts");
+        File apis = new File(artifactsFolder, "apis");
+        File sequences = new File(artifactsFolder, "sequences");
+        File endpoints = new File(artifactsFolder, "endpoints");
+        apis.mkdirs();
+        sequences.mkdirs();
+        endpoints.mkdirs();
+        writeFile(new File(apis, "OrderApi.xml"),
+                "<api xmlns=\"http://ws.apache.org/ns/synapse\" name=\"OrderApi\" context=\"/order\" "
+                        + "version=\"1.0.0\" version-type=\"context\"/>");
+        writeFile(new File(apis, "StockApi.xml"),
+                "<api xmlns=\"http://ws.apache.org/ns/synapse\" name=\"StockApi\" context=\"/stock\"/>");
+        for (int i = 0; i < 20; i++) {
+            writeFile(new File(sequences, "Seq" + i + ".xml"),
+                    "<sequence xmlns=\"http://ws.apache.org/ns/synapse\" name=\"Seq" + i + "\"><log/></sequence>");
+        }
+        for (int i = 0; i < 4; i++) {
+            writeFile(new File(endpoints, "Ep" + i + ".xml"),
+                    "<endpoint xmlns=\"http://ws.apache.org/ns/synapse\" name=\"Ep" + i + "\"/>");
+        }
+        return artifactsFolder;
+    }
+
+    private void writeFile(File file, String content) throws Exception {
+
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+    }
+
+    private List<String> toEntryNames(CARArchive archive) {
+
+        List<String> names = new ArrayList<>();
+        for (CAREntry entry : archive.getEntries()) {
+            names.add(entry.getName());
+        }
+        return names;
+    }
+
+    private List<String> toKeys(List<ArtifactDependency> dependencies) {
+
+        List<String> keys = new ArrayList<>();
+        for (ArtifactDependency dependency : dependencies) {
+            keys.add(dependency.getArtifact() + ":" + dependency.getVersion() + ":" + dependency.getServerRole());
+        }
+        return keys;
+    }
 }
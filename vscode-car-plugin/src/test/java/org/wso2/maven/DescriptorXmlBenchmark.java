@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.apache.axiom.om.OMElement;
+import org.wso2.maven.core.model.AbstractXMLDoc;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compares generating the XML descriptors of a CAR file by building an AXIOM tree and pretty printing it with the
+ * indenting stylesheet, which is how they used to be generated, with streaming them through
+ * {@link DescriptorXmlWriter}. Generates the artifact.xml of 5,000 artifacts and an artifacts.xml listing all of
+ * them, checks that both approaches produce the same bytes, and reports the time taken and the heap allocated by
+ * each approach.
+ * <p>
+ * This is not run as part of the test suite. Run it with
+ * {@code mvn test-compile exec:java -Dexec.mainClass=org.wso2.maven.DescriptorXmlBenchmark
+ * -Dexec.classpathScope=test}.
+ */
+public class DescriptorXmlBenchmark {
+
+    private static final int ARTIFACT_COUNT = 5000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+
+        LegacyDescriptors legacy = new LegacyDescriptors();
+        if (!Arrays.equals(legacy.artifactsXml(), streamedArtifactsXml())
+                || !Arrays.equals(legacy.artifactXml(0), streamedArtifactXml(0))) {
+            throw new IllegalStateException("Streamed descriptors differ from the pretty printed descriptors");
+        }
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("Round " + round);
+            measure("  AXIOM tree + XSLT  ", () -> {
+                for (int i = 0; i < ARTIFACT_COUNT; i++) {
+                    legacy.artifactXml(i);
+                }
+                legacy.artifactsXml();
+            });
+            measure("  streaming writer   ", () -> {
+                for (int i = 0; i < ARTIFACT_COUNT; i++) {
+                    streamedArtifactXml(i);
+                }
+                streamedArtifactsXml();
+            });
+        }
+    }
+
+    private static byte[] streamedArtifactXml(int index) {
+
+        return DescriptorXmlWriter.toBytes(writer -> writer.startElement(Constants.ARTIFACT)
+                .attribute(Constants.NAME, "Artifact" + index)
+                .attribute(Constants.VERSION, "1.0.0")
+                .attribute(Constants.TYPE, "synapse/sequence")
+                .attribute(Constants.SERVER_ROLE, Constants.SERVER_ROLE_EI)
+                .textElement(Constants.FILE, "Artifact" + index + "-1.0.0.xml")
+                .endElement());
+    }
+
+    private static byte[] streamedArtifactsXml() {
+
+        return DescriptorXmlWriter.toBytes(writer -> {
+            writer.startElement(Constants.ARTIFACTS)
+                    .startElement(Constants.ARTIFACT)
+                    .attribute(Constants.NAME, "benchmark")
+                    .attribute(Constants.VERSION, "1.0.0")
+                    .attribute(Constants.TYPE, Constants.CAPP_TYPE);
+            for (int i = 0; i < ARTIFACT_COUNT; i++) {
+                writer.startElement(Constants.DEPENDENCY)
+                        .attribute(Constants.ARTIFACT, "Artifact" + i)
+                        .attribute(Constants.VERSION, "1.0.0")
+                        .attribute(Constants.INCLUDE, "true")
+                        .attribute(Constants.SERVER_ROLE, Constants.SERVER_ROLE_EI)
+                        .endElement();
+            }
+            writer.endElement().endElement();
+        });
+    }
+
+    private static void measure(String label, Task task) throws Exception {
+
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        task.run();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long allocatedMb = (threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / (1024 * 1024);
+        System.out.println(label + elapsedMillis + " ms, " + allocatedMb + " MB allocated");
+    }
+
+    private interface Task {
+
+        void run() throws Exception;
+    }
+
+    /**
+     * Generates the descriptors through an AXIOM tree, as {@link CAppHandler} used to.
+     */
+    private static class LegacyDescriptors extends AbstractXMLDoc {
+
+        private byte[] artifactXml(int index) throws Exception {
+
+            OMElement artifactElement = getElement(Constants.ARTIFACT, Constants.EMPTY_STRING);
+            addAttribute(artifactElement, Constants.NAME, "Artifact" + index);
+            addAttribute(artifactElement, Constants.VERSION, "1.0.0");
+            addAttribute(artifactElement, Constants.TYPE, "synapse/sequence");
+            addAttribute(artifactElement, Constants.SERVER_ROLE, Constants.SERVER_ROLE_EI);
+            artifactElement.addChild(getElement(Constants.FILE, "Artifact" + index + "-1.0.0.xml"));
+            return serialize(artifactElement);
+        }
+
+        private byte[] artifactsXml() throws Exception {
+
+            OMElement artifactsElement = getElement(Constants.ARTIFACTS, Constants.EMPTY_STRING);
+            OMElement artifactElement = getElement(Constants.ARTIFACT, Constants.EMPTY_STRING);
+            addAttribute(artifactElement, Constants.NAME, "benchmark");
+            addAttribute(artifactElement, Constants.VERSION, "1.0.0");
+            addAttribute(artifactElement, Constants.TYPE, Constants.CAPP_TYPE);
+            for (int i = 0; i < ARTIFACT_COUNT; i++) {
+                OMElement dependencyElement = getElement(Constants.DEPENDENCY, Constants.EMPTY_STRING);
+                addAttribute(dependencyElement, Constants.ARTIFACT, "Artifact" + i);
+                addAttribute(dependencyElement, Constants.VERSION, "1.0.0");
+                addAttribute(dependencyElement, Constants.INCLUDE, "true");
+                addAttribute(dependencyElement, Constants.SERVER_ROLE, Constants.SERVER_ROLE_EI);
+                artifactElement.addChild(dependencyElement);
+            }
+            artifactsElement.addChild(artifactElement);
+            return serialize(artifactsElement);
+        }
+
+        private byte[] serialize(OMElement element) throws Exception {
+
+            factory.createOMDocument().addChild(element);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            prettify(element, outputStream);
+            return outputStream.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        protected void deserialize(OMElement documentElement) {
+
+        }
+
+        @Override
+        protected String serialize() {
+
+            return null;
+        }
+
+        @Override
+        protected String getDefaultName() {
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.apache.axiom.om.OMElement;
+import org.junit.Test;
+import org.wso2.maven.core.model.AbstractXMLDoc;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link DescriptorXmlWriter} writes the same bytes as serializing an AXIOM tree of the document and
+ * pretty printing it with the indenting stylesheet of {@link AbstractXMLDoc}, which is how the descriptors used to be
+ * written.
+ */
+public class DescriptorXmlWriterTest {
+
+    @Test
+    public void testToBytes_MatchesPrettyPrintedTree_Descriptors() throws Exception {
+
+        assertSameAsPrettyPrinted(new Node(Constants.ARTIFACTS).child(new Node(Constants.ARTIFACT)
+                .attribute(Constants.NAME, "app").attribute(Constants.VERSION, "1.0.0")
+                .attribute(Constants.TYPE, Constants.CAPP_TYPE)
+                .child(new Node(Constants.DEPENDENCY).attribute(Constants.ARTIFACT, "Seq")
+                        .attribute(Constants.VERSION, "1.0.0").attribute(Constants.INCLUDE, "true")
+                        .attribute(Constants.SERVER_ROLE, Constants.SERVER_ROLE_EI))));
+        assertSameAsPrettyPrinted(new Node(Constants.ARTIFACT).attribute(Constants.NAME, "Seq")
+                .attribute(Constants.VERSION, "1.0.0").attribute(Constants.TYPE, "synapse/sequence")
+                .child(new Node(Constants.FILE).text("Seq-1.0.0.xml")));
+    }
+
+    @Test
+    public void testToBytes_MatchesPrettyPrintedTree_EscapedCharacters() throws Exception {
+
+        String special = "a&b<c>d\"e'f";
+        assertSameAsPrettyPrinted(new Node(Constants.ARTIFACT).attribute(Constants.NAME, special)
+                .child(new Node(Constants.FILE).text(special))
+                .child(new Node(Constants.FILE).text("]]> & <![CDATA[")));
+    }
+
+    @Test
+    public void testToBytes_MatchesPrettyPrintedTree_NonAsciiCharacters() throws Exception {
+
+        // Latin-1, BMP and non-BMP characters, and C1 control characters.
+        String text = "\u00fc\u20ac\ud83d\ude00 \u0080\u0085\u009f\u007f";
+        assertSameAsPrettyPrinted(new Node(Constants.ARTIFACT).attribute(Constants.NAME, text)
+                .child(new Node(Constants.FILE).text(text)));
+    }
+
+    @Test
+    public void testToBytes_MatchesPrettyPrintedTree_LineBreaksAndTabs() throws Exception {
+
+        String text = "a\nb\tc\rd\r\ne";
+        assertSameAsPrettyPrinted(new Node(Constants.ARTIFACT).attribute(Constants.NAME, text)
+                .attribute(Constants.VERSION, "\t").child(new Node(Constants.FILE).text(text)));
+    }
+
+    @Test
+    public void testToBytes_MatchesPrettyPrintedTree_EmptyElements() throws Exception {
+
+        assertSameAsPrettyPrinted(new Node(Constants.PROJECT)
+                .child(new Node(Constants.ID).text(""))
+                .child(new Node(Constants.VERSIONED_DEPLOYMENT).text("false"))
+                .child(new Node(Constants.DEPENDENCIES)));
+        assertSameAsPrettyPrinted(new Node(Constants.ARTIFACTS).child(new Node(Constants.ARTIFACT)
+                .attribute(Constants.NAME, "")));
+        assertSameAsPrettyPrinted(new Node(Constants.ARTIFACTS));
+    }
+
+    private static void assertSameAsPrettyPrinted(Node root) throws Exception {
+
+        String expected = new String(new PrettyPrinter().print(root), StandardCharsets.UTF_8);
+        String actual = new String(DescriptorXmlWriter.toBytes(root::writeTo), StandardCharsets.UTF_8);
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * An element of a test document, either holding text or attributes and child elements.
+     */
+    private static final class Node {
+
+        private final String name;
+        private final Map<String, String> attributes = new LinkedHashMap<>();
+        private final List<Node> children = new ArrayList<>();
+        private String text;
+
+        private Node(String name) {
+
+            this.name = name;
+        }
+
+        private Node attribute(String attributeName, String value) {
+
+            attributes.put(attributeName, value);
+            return this;
+        }
+
+        private Node child(Node child) {
+
+            children.add(child);
+            return this;
+        }
+
+        private Node text(String content) {
+
+            this.text = content;
+            return this;
+        }
+
+        private void writeTo(DescriptorXmlWriter writer) {
+
+            if (text != null) {
+                writer.textElement(name, text);
+                return;
+            }
+            writer.startElement(name);
+            attributes.forEach(writer::attribute);
+            for (Node child : children) {
+                child.writeTo(writer);
+            }
+            writer.endElement();
+        }
+    }
+
+    /**
+     * Writes a document as {@link CAppHandler} used to: an AXIOM tree serialized and pretty printed.
+     */
+    private static final class PrettyPrinter extends AbstractXMLDoc {
+
+        private byte[] print(Node root) throws Exception {
+
+            OMElement element = toElement(root);
+            factory.createOMDocument().addChild(element);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            prettify(element, outputStream);
+            return outputStream.toByteArray();
+        }
+
+        private OMElement toElement(Node node) {
+
+            OMElement element = getElement(node.name, node.text == null ? Constants.EMPTY_STRING : node.text);
+            node.attributes.forEach((attributeName, value) -> addAttribute(element, attributeName, value));
+            for (Node child : node.children) {
+                element.addChild(toElement(child));
+            }
+            return element;
+        }
+
+        @Override
+        protected void deserialize(OMElement documentElement) {
+
+        }
+
+        @Override
+        protected String serialize() {
+
+            return null;
+        }
+
+        @Override
+        protected String getDefaultName() {
+
+            return null;
+        }
+    }
+}
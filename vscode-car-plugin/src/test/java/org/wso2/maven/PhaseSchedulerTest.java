@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class PhaseSchedulerTest {
+
+    @Test
+    public void testRun_StartsPhaseAfterItsDependencies() throws Exception {
+
+        List<String> completed = new CopyOnWriteArrayList<>();
+        PhaseScheduler scheduler = new PhaseScheduler(new CARMojo());
+        scheduler.addPhase("slow", () -> {
+            sleep(200);
+            completed.add("slow");
+        });
+        scheduler.addPhase("fast", () -> completed.add("fast"));
+        scheduler.addPhase("join", () -> completed.add("join"), "slow", "fast");
+        scheduler.addPhase("after-join", () -> completed.add("after-join"), "join");
+
+        scheduler.run(true);
+
+        // The independent phases overlap, so the fast one completes first, and the rest wait for both.
+        assertEquals(Arrays.asList("fast", "slow", "join", "after-join"), completed);
+    }
+
+    @Test
+    public void testRun_RunsIndependentPhasesAtTheSameTime() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(2);
+        PhaseScheduler scheduler = new PhaseScheduler(new CARMojo());
+        for (String name : new String[]{"first", "second"}) {
+            scheduler.addPhase(name, () -> {
+                started.countDown();
+                if (!await(started)) {
+                    throw new MojoExecutionException("Phase " + name + " ran alone");
+                }
+            });
+        }
+
+        scheduler.run(true);
+    }
+
+    @Test
+    public void testRun_FailedPhaseStopsItsDependentsAndFailsTheBuild() throws Exception {
+
+        for (boolean concurrent : new boolean[]{false, true}) {
+            MojoExecutionException failure = new MojoExecutionException("resolution failed");
+            List<String> completed = new CopyOnWriteArrayList<>();
+            PhaseScheduler scheduler = new PhaseScheduler(new CARMojo());
+            scheduler.addPhase("resolution", () -> {
+                throw failure;
+            });
+            scheduler.addPhase("artifacts", () -> completed.add("artifacts"));
+            scheduler.addPhase("libraries", () -> completed.add("libraries"), "resolution", "artifacts");
+            scheduler.addPhase("archive", () -> completed.add("archive"), "libraries");
+
+            try {
+                scheduler.run(concurrent);
+                fail("The failure of a phase must fail the build");
+            } catch (MojoExecutionException e) {
+                assertSame(failure, e);
+            }
+            assertFalse(completed.contains("libraries"));
+            assertFalse(completed.contains("archive"));
+        }
+    }
+
+    @Test
+    public void testRun_SequentialRunKeepsTheOrderPhasesWereAddedIn() throws Exception {
+
+        List<String> completed = new CopyOnWriteArrayList<>();
+        Thread caller = Thread.currentThread();
+        PhaseScheduler scheduler = new PhaseScheduler(new CARMojo());
+        for (String name : new String[]{"connector-resolution", "data-mapper-bundling", "artifacts", "resources"}) {
+            scheduler.addPhase(name, () -> {
+                assertSame(caller, Thread.currentThread());
+                completed.add(name);
+            });
+        }
+
+        scheduler.run(false);
+
+        assertEquals(Arrays.asList("connector-resolution", "data-mapper-bundling", "artifacts", "resources"),
+                completed);
+    }
+
+    private static void sleep(long millis) throws MojoExecutionException {
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted", e);
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) throws MojoExecutionException {
+
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TreeCopierTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testCopy_CopiesFoldersAndAcceptedFiles() throws Exception {
+
+        Path source = tempFolder.newFolder("source").toPath();
+        write(source.resolve("a/b/Mapper.ts"), "mapper");
+        write(source.resolve("a/Mapper.dmc"), "config");
+        Files.createDirectories(source.resolve("empty"));
+        FileTime modified = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(source.resolve("a/Mapper.dmc"), modified);
+        Path target = tempFolder.getRoot().toPath().resolve("target/datamapper");
+        write(target.resolve("a/Mapper.dmc"), "stale");
+
+        TreeCopier copier = new TreeCopier(1);
+        copier.copy(source, target, file -> !file.getFileName().toString().endsWith(".ts"));
+
+        assertTrue(Files.isDirectory(target.resolve("a/b")));
+        assertTrue(Files.isDirectory(target.resolve("empty")));
+        assertFalse(Files.exists(target.resolve("a/b/Mapper.ts")));
+        assertEquals("config", read(target.resolve("a/Mapper.dmc")));
+        assertEquals(modified, Files.getLastModifiedTime(target.resolve("a/Mapper.dmc")));
+        assertEquals(1, copier.getCopiedFiles());
+    }
+
+    @Test
+    public void testCopy_CopiesLargeTreesOnWorkerThreads() throws Exception {
+
+        Path source = tempFolder.newFolder("source").toPath();
+        for (int i = 0; i < 500; i++) {
+            write(source.resolve("collection" + (i % 7) + "/file" + i + ".xsl"), "content " + i);
+        }
+        Path target = tempFolder.getRoot().toPath().resolve("target");
+
+        TreeCopier copier = new TreeCopier(4);
+        copier.copy(source, target, file -> true);
+
+        assertEquals(500, copier.getCopiedFiles());
+        for (int i = 0; i < 500; i++) {
+            assertEquals("content " + i, read(target.resolve("collection" + (i % 7) + "/file" + i + ".xsl")));
+        }
+    }
+
+    @Test
+    public void testCopy_ByteCopiesDoNotShareContentWithTheSources() throws Exception {
+
+        Path source = tempFolder.newFolder("source").toPath();
+        write(source.resolve("Mapper.ts"), "mapper");
+        Path target = tempFolder.getRoot().toPath().resolve("target");
+
+        new TreeCopier(1).copy(source, target, file -> true);
+        // Tools working on the target folder may rewrite its files in place.
+        write(target.resolve("Mapper.ts"), "rewritten");
+
+        assertFalse(Files.isSameFile(source.resolve("Mapper.ts"), target.resolve("Mapper.ts")));
+        assertEquals("mapper", read(source.resolve("Mapper.ts")));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws IOException {
+
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
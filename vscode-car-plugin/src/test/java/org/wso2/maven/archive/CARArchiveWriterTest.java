@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.maven.Constants;
+import org.wso2.maven.incremental.IncrementalBuild;
+import org.wso2.maven.model.ArchiveException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CARArchiveWriterTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testParallelWrite_MatchesSequentialWrite() throws Exception {
+
+        CARArchive archive = createArchive();
+        File sequentialCar = new File(tempFolder.getRoot(), "sequential.car");
+        File parallelCar = new File(tempFolder.getRoot(), "parallel.car");
+
+        CARArchiveWriter.write(archive, sequentialCar);
+        CARArchiveWriter.write(archive, parallelCar, 4, 9);
+
+        Map<String, byte[]> sequentialEntries = readWithZipInputStream(sequentialCar);
+        Map<String, byte[]> parallelEntries = readWithZipInputStream(parallelCar);
+        assertEquals(new ArrayList<>(sequentialEntries.keySet()), new ArrayList<>(parallelEntries.keySet()));
+        for (Map.Entry<String, byte[]> entry : sequentialEntries.entrySet()) {
+            assertArrayEquals(entry.getKey(), entry.getValue(), parallelEntries.get(entry.getKey()));
+        }
+        assertEquals(new ArrayList<>(sequentialEntries.keySet()), readCentralDirectory(parallelCar));
+        assertEquals(0, tempFolder.getRoot().listFiles((dir, name) -> name.startsWith("car-scatter")).length);
+    }
+
+    @Test
+    public void testWrite_EntriesReadableByDeployer() throws Exception {
+
+        File sequentialCar = new File(tempFolder.getRoot(), "sequential.car");
+        File carFile = new File(tempFolder.getRoot(), "test.car");
+        CARArchiveWriter.write(createArchive(), sequentialCar, 1, 0);
+        CARArchiveWriter.write(createArchive(), carFile, 2, 0);
+
+        Map<String, byte[]> entries = readWithZipInputStream(carFile);
+        List<String> expectedNames = new ArrayList<>();
+        expectedNames.add("artifacts.xml");
+        expectedNames.add("empty_1.0.0/");
+        expectedNames.add("lib_1.0.0/");
+        expectedNames.add("lib_1.0.0/lib.jar");
+        expectedNames.add("seq_1.0.0/");
+        expectedNames.add("seq_1.0.0/artifact.xml");
+        expectedNames.add("seq_1.0.0/seq.xml");
+        assertEquals(expectedNames, new ArrayList<>(entries.keySet()));
+        assertEquals("<artifacts/>", new String(entries.get("artifacts.xml"), StandardCharsets.UTF_8));
+        assertEquals(0, entries.get("seq_1.0.0/").length);
+
+        // The deployer reads the archive through the central directory, which must describe every entry as the
+        // sequential writer does.
+        Map<String, String> sequentialHeaders = readEntryHeaders(sequentialCar);
+        Map<String, String> headers = readEntryHeaders(carFile);
+        assertEquals(expectedNames, new ArrayList<>(headers.keySet()));
+        for (String name : expectedNames) {
+            assertEquals(name, sequentialHeaders.get(name), headers.get(name));
+        }
+        try (ZipFile zipFile = new ZipFile(carFile)) {
+            for (String name : expectedNames) {
+                ZipEntry entry = zipFile.getEntry(name);
+                byte[] content = readFully(zipFile.getInputStream(entry));
+                assertArrayEquals(name, entries.get(name), content);
+                assertEquals(name, content.length, entry.getSize());
+            }
+        }
+    }
+
+    @Test
+    public void testWrite_StoresAlreadyCompressedEntries() throws Exception {
+
+        File sequentialCar = new File(tempFolder.getRoot(), "sequential.car");
+        File parallelCar = new File(tempFolder.getRoot(), "parallel.car");
+        CARArchiveWriter.write(createArchive(), sequentialCar);
+        CARArchiveWriter.write(createArchive(), parallelCar, 4, -1);
+
+        for (File carFile : new File[]{sequentialCar, parallelCar}) {
+            Map<String, Integer> methods = readCompressionMethods(carFile);
+            assertEquals(Integer.valueOf(ZipEntry.STORED), methods.get("lib_1.0.0/lib.jar"));
+            assertEquals(Integer.valueOf(ZipEntry.DEFLATED), methods.get("seq_1.0.0/seq.xml"));
+            assertEquals(Integer.valueOf(ZipEntry.DEFLATED), methods.get("artifacts.xml"));
+            assertEquals(200 * 1024, readWithZipInputStream(carFile).get("lib_1.0.0/lib.jar").length);
+        }
+    }
+
+    @Test
+    public void testWrite_CustomStoredExtensions() throws Exception {
+
+        File carFile = new File(tempFolder.getRoot(), "test.car");
+        CARArchiveWriter.write(createArchive(), carFile, 1, -1, CARArchiveWriter.parseExtensions(" .XML, car"));
+
+        Map<String, Integer> methods = readCompressionMethods(carFile);
+        assertEquals(Integer.valueOf(ZipEntry.DEFLATED), methods.get("lib_1.0.0/lib.jar"));
+        assertEquals(Integer.valueOf(ZipEntry.STORED), methods.get("seq_1.0.0/seq.xml"));
+        assertEquals(Integer.valueOf(ZipEntry.STORED), methods.get("artifacts.xml"));
+    }
+
+    @Test
+    public void testWrite_CopiesReusedEntriesFromPreviousArchive() throws Exception {
+
+        File previousCar = new File(tempFolder.getRoot(), "previous.car");
+        CARArchiveWriter.write(createArchive(), previousCar, 1, 9);
+
+        for (int threads : new int[]{1, 4}) {
+            CARArchive archive = new CARArchive();
+            archive.addDirectory("empty_1.0.0");
+            archive.addPreviousEntry("seq_1.0.0/artifact.xml", previousCar);
+            archive.addContent("seq_1.0.0/seq.xml", "<sequence name=\"seq\"/>");
+            archive.addPreviousEntry("lib_1.0.0/lib.jar", previousCar, new File(tempFolder.getRoot(), "lib.jar"));
+            archive.addContent("new_1.0.0/artifact.xml", "<artifact name=\"new\"/>");
+            archive.addContent("artifacts.xml", "<artifacts/>");
+            File carFile = new File(tempFolder.getRoot(), "updated-" + threads + ".car");
+            CARArchiveWriter.write(archive, carFile, threads, 9);
+
+            Map<String, byte[]> previousEntries = readWithZipInputStream(previousCar);
+            Map<String, byte[]> entries = readWithZipInputStream(carFile);
+            List<String> expectedNames = new ArrayList<>();
+            expectedNames.add("artifacts.xml");
+            expectedNames.add("empty_1.0.0/");
+            expectedNames.add("lib_1.0.0/");
+            expectedNames.add("lib_1.0.0/lib.jar");
+            expectedNames.add("new_1.0.0/");
+            expectedNames.add("new_1.0.0/artifact.xml");
+            expectedNames.add("seq_1.0.0/");
+            expectedNames.add("seq_1.0.0/artifact.xml");
+            expectedNames.add("seq_1.0.0/seq.xml");
+            assertEquals(expectedNames, new ArrayList<>(entries.keySet()));
+            assertArrayEquals(previousEntries.get("seq_1.0.0/artifact.xml"), entries.get("seq_1.0.0/artifact.xml"));
+            assertArrayEquals(previousEntries.get("lib_1.0.0/lib.jar"), entries.get("lib_1.0.0/lib.jar"));
+            assertEquals("<sequence name=\"seq\"/>", new String(entries.get("seq_1.0.0/seq.xml"),
+                    StandardCharsets.UTF_8));
+            try (ZipFile previousZip = new ZipFile(previousCar); ZipFile zip = new ZipFile(carFile)) {
+                ZipEntry previousEntry = previousZip.getEntry("seq_1.0.0/artifact.xml");
+                ZipEntry entry = zip.getEntry("seq_1.0.0/artifact.xml");
+                assertEquals(previousEntry.getCompressedSize(), entry.getCompressedSize());
+                assertEquals(previousEntry.getCrc(), entry.getCrc());
+            }
+        }
+    }
+
+    @Test
+    public void testWrite_IsReproducible() throws Exception {
+
+        File firstCar = new File(tempFolder.getRoot(), "first.car");
+        File secondCar = new File(tempFolder.getRoot(), "second.car");
+
+        CARArchive archive = createArchive();
+        CARArchiveWriter.write(archive, firstCar);
+        File sequence = new File(tempFolder.getRoot(), "seq.xml");
+        assertTrue(sequence.setLastModified(sequence.lastModified() - 60000));
+        CARArchiveWriter.write(archive, secondCar);
+
+        assertArrayEquals(Files.readAllBytes(firstCar.toPath()), Files.readAllBytes(secondCar.toPath()));
+    }
+
+    @Test
+    public void testWrite_AddsContentManifest() throws Exception {
+
+        File sequentialCar = new File(tempFolder.getRoot(), "sequential.car");
+        File parallelCar = new File(tempFolder.getRoot(), "parallel.car");
+        Set<String> storedExtensions = CARArchiveWriter.parseExtensions(Constants.DEFAULT_STORED_EXTENSIONS);
+        CARArchiveWriter.write(createArchive(), sequentialCar, 1, -1, storedExtensions,
+                CARArchiveWriter.DEFAULT_ENTRY_TIME, true);
+        CARArchiveWriter.write(createArchive(), parallelCar, 4, -1, storedExtensions,
+                CARArchiveWriter.DEFAULT_ENTRY_TIME, true);
+
+        Map<String, byte[]> entries = readWithZipInputStream(sequentialCar);
+        assertArrayEquals(entries.get(CARManifest.ENTRY_NAME),
+                readWithZipInputStream(parallelCar).get(CARManifest.ENTRY_NAME));
+        CARManifest manifest = CARManifest.read(new ByteArrayInputStream(entries.get(CARManifest.ENTRY_NAME)));
+        byte[] sequence = entries.get("seq_1.0.0/seq.xml");
+        assertEquals(IncrementalBuild.toHex(IncrementalBuild.newSha256Digest().digest(sequence)),
+                manifest.getEntry("seq_1.0.0/seq.xml").getSha256());
+        assertEquals(sequence.length, manifest.getEntry("seq_1.0.0/seq.xml").getSize());
+        assertNull(manifest.getEntry("empty_1.0.0/"));
+        assertEquals(1, manifest.getArtifacts().size());
+        assertEquals("seq_1.0.0", manifest.getArtifacts().get(0).getFolder());
+        assertEquals("seq", manifest.getArtifacts().get(0).getName());
+
+        // Reused entries keep the hashes of the previous manifest, which is replaced by a new one.
+        CARArchive archive = new CARArchive();
+        for (String entry : entries.keySet()) {
+            if (!entry.endsWith("/")) {
+                archive.addPreviousEntry(entry, sequentialCar);
+            }
+        }
+        File reusedCar = new File(tempFolder.getRoot(), "reused.car");
+        CARArchiveWriter.write(archive, reusedCar, 1, -1, storedExtensions, CARArchiveWriter.DEFAULT_ENTRY_TIME,
+                true);
+        assertArrayEquals(entries.get(CARManifest.ENTRY_NAME),
+                readWithZipInputStream(reusedCar).get(CARManifest.ENTRY_NAME));
+    }
+
+    @Test(expected = ArchiveException.class)
+    public void testWrite_InvalidCompressionLevel() throws Exception {
+
+        CARArchiveWriter.write(createArchive(), new File(tempFolder.getRoot(), "test.car"), 1, 10);
+    }
+
+    private CARArchive createArchive() throws IOException {
+
+        File sequence = new File(tempFolder.getRoot(), "seq.xml");
+        StringBuilder content = new StringBuilder("<sequence name=\"seq\">");
+        for (int i = 0; i < 1000; i++) {
+            content.append("<log level=\"custom\"><property name=\"p").append(i).append("\" value=\"v\"/></log>");
+        }
+        content.append("</sequence>");
+        Files.write(sequence.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+        File library = new File(tempFolder.getRoot(), "lib.jar");
+        byte[] libraryContent = new byte[200 * 1024];
+        for (int i = 0; i < libraryContent.length; i++) {
+            libraryContent[i] = (byte) (i * 31 + i / 7);
+        }
+        Files.write(library.toPath(), libraryContent);
+
+        CARArchive archive = new CARArchive();
+        archive.addDirectory("empty_1.0.0");
+        archive.addContent("seq_1.0.0/artifact.xml", "<artifact name=\"seq\"/>");
+        archive.addFile("seq_1.0.0/seq.xml", sequence);
+        archive.addFile("lib_1.0.0/lib.jar", library);
+        archive.addContent("artifacts.xml", "<artifacts/>");
+        return archive;
+    }
+
+    private static Map<String, byte[]> readWithZipInputStream(File carFile) throws IOException {
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new FileInputStream(carFile))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), readFully(zip));
+            }
+        }
+        assertTrue(entries.size() > 0);
+        return entries;
+    }
+
+    private static Map<String, Integer> readCompressionMethods(File carFile) throws IOException {
+
+        Map<String, Integer> methods = new LinkedHashMap<>();
+        try (ZipFile zipFile = new ZipFile(carFile)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                methods.put(entry.getName(), entry.getMethod());
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Describes the compression method, CRC, sizes and general purpose flags of every entry, as read by
+     * {@link ZipFile}, followed by the flags of its central directory and local file headers, which tell whether
+     * the sizes are written in a data descriptor after the entry data.
+     */
+    private static Map<String, String> readEntryHeaders(File carFile) throws IOException {
+
+        ByteBuffer archive = ByteBuffer.wrap(Files.readAllBytes(carFile.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        int endOfCentralDirectory = archive.limit() - 22;
+        while (archive.getInt(endOfCentralDirectory) != 0x06054b50) {
+            endOfCentralDirectory--;
+        }
+        Map<String, String> flags = new LinkedHashMap<>();
+        int header = archive.getInt(endOfCentralDirectory + 16);
+        for (int i = 0; i < archive.getShort(endOfCentralDirectory + 10); i++) {
+            assertEquals(0x02014b50, archive.getInt(header));
+            int nameLength = archive.getShort(header + 28) & 0xffff;
+            byte[] name = new byte[nameLength];
+            archive.position(header + 46);
+            archive.get(name);
+            int localHeader = archive.getInt(header + 42);
+            assertEquals(0x04034b50, archive.getInt(localHeader));
+            flags.put(new String(name, StandardCharsets.UTF_8), "central flags " + archive.getShort(header + 8) +
+                    ", local flags " + archive.getShort(localHeader + 6));
+            header += 46 + nameLength + (archive.getShort(header + 30) & 0xffff) +
+                    (archive.getShort(header + 32) & 0xffff);
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        try (ZipFile zipFile = new ZipFile(carFile)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                headers.put(entry.getName(), "method " + entry.getMethod() + ", crc " + entry.getCrc() + ", size " +
+                        entry.getSize() + ", compressed size " + entry.getCompressedSize() + ", " +
+                        flags.get(entry.getName()));
+            }
+        }
+        return headers;
+    }
+
+    private static List<String> readCentralDirectory(File carFile) throws IOException {
+
+        List<String> names = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(carFile)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                names.add(entries.nextElement().getName());
+            }
+        }
+        return names;
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int len;
+        while ((len = in.read(buffer)) > 0) {
+            out.write(buffer, 0, len);
+        }
+        return out.toByteArray();
+    }
+}
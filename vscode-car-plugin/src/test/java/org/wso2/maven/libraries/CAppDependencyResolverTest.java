@@ -18,7 +18,18 @@
 package org.wso2.maven.libraries;
 
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
 import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.repository.RepositoryPolicy;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.transport.file.FileTransporterFactory;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -33,6 +44,8 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -614,6 +627,60 @@ public class CAppDependencyResolverTest {
 //        }
 //    }
 
+    @Test
+    public void testGetResolvedDependentCAppFiles_FetchesLevelsInDepthFirstOrder() throws Exception {
+
+        String groupId = "com.example";
+        File dependenciesDir = tempFolder.newFolder("dependencies");
+        File remoteRepository = tempFolder.newFolder("remote");
+        String depB = "<dependency groupId=\"com.example\" artifactId=\"carB\" version=\"1.0.0\" type=\"car\"/>";
+        String depC = "<dependency groupId=\"com.example\" artifactId=\"carC\" version=\"1.0.0\" type=\"car\"/>";
+        String depD = "<dependency groupId=\"com.example\" artifactId=\"carD\" version=\"1.0.0\" type=\"car\"/>";
+        String depE = "<dependency groupId=\"com.example\" artifactId=\"carE\" version=\"1.0.0\" type=\"car\"/>";
+
+        // carA depends on carB, carC and carE; carB on carD and carC; carC on carD; carD back on carB
+        File carA = new File(dependenciesDir, "carA-1.0.0.car");
+        createCarFileWithDescriptor(carA, groupId, "carA", "1.0.0", depB, depC, depE);
+        createCarFileWithDescriptor(deployedCar(remoteRepository, "carB"), groupId, "carB", "1.0.0", depD, depC);
+        createCarFileWithDescriptor(deployedCar(remoteRepository, "carC"), groupId, "carC", "1.0.0", depD);
+        createCarFileWithDescriptor(deployedCar(remoteRepository, "carD"), groupId, "carD", "1.0.0", depB);
+        createCarFileWithDescriptor(deployedCar(remoteRepository, "carE"), groupId, "carE", "1.0.0");
+
+        DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+        locator.addService(TransporterFactory.class, FileTransporterFactory.class);
+        RepositorySystem repositorySystem = locator.getService(RepositorySystem.class);
+        DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+        session.setChecksumPolicy(RepositoryPolicy.CHECKSUM_POLICY_IGNORE);
+        session.setLocalRepositoryManager(repositorySystem.newLocalRepositoryManager(session,
+                new LocalRepository(tempFolder.newFolder("local"))));
+        final MavenArtifactResolver resolver = new MavenArtifactResolver(repositorySystem, session,
+                Collections.singletonList(new RemoteRepository.Builder("remote", "default",
+                        remoteRepository.toURI().toString()).build()));
+        MockCARMojo mojo = new MockCARMojo() {
+            @Override
+            public MavenArtifactResolver getArtifactResolver() {
+
+                return resolver;
+            }
+        };
+
+        ArrayList<File> result = CAppDependencyResolver.getResolvedDependentCAppFiles(tempFolder.getRoot(),
+                dependenciesDir, "project", "1.0.0", mojo);
+
+        // The same order a depth-first walk fetching one dependency at a time produces
+        assertEquals(Arrays.asList(carA, new File(dependenciesDir, "carB-1.0.0.car"),
+                new File(dependenciesDir, "carD-1.0.0.car"), new File(dependenciesDir, "carC-1.0.0.car"),
+                new File(dependenciesDir, "carE-1.0.0.car")), result);
+    }
+
+    private static File deployedCar(File repository, String artifactId) {
+
+        File folder = new File(repository, "com/example/" + artifactId + "/1.0.0");
+        assertTrue(folder.mkdirs());
+        return new File(folder, artifactId + "-1.0.0.car");
+    }
+
     @Test
     public void testFindCarFileInDependencies_FindsMatchingCar() throws Exception {
 
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.libraries;
+
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.repository.RepositoryPolicy;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.transport.file.FileTransporterFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.maven.Constants;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DependencyLockTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testRestore_UsesLockedFilesWhileInputsAreUnchanged() throws Exception {
+
+        File projectDir = tempFolder.newFolder("project");
+        write(new File(projectDir, Constants.POM_FILE), "<project/>");
+        File carFile = write(new File(projectDir, "target/dependency/capp-a-1.0.0.car"), "capp-a");
+
+        DependencyLock lock = DependencyLock.open(projectDir, null);
+        assertFalse(lock.restore(DependencyLock.CAPPS));
+        lock.lock(DependencyLock.CAPPS, Collections.singletonList(carFile), null);
+        lock.save();
+        assertTrue(new File(projectDir, Constants.DEPENDENCY_LOCK_FILE).isFile());
+
+        assertTrue(DependencyLock.open(projectDir, null).restore(DependencyLock.CAPPS));
+        assertFalse(DependencyLock.open(projectDir, null).restore(DependencyLock.CONNECTORS));
+
+        // A changed file cannot be restored without a repository copy.
+        write(carFile, "changed");
+        assertFalse(DependencyLock.open(projectDir, null).restore(DependencyLock.CAPPS));
+
+        // A changed pom.xml discards the lockfile.
+        write(carFile, "capp-a");
+        write(new File(projectDir, Constants.POM_FILE), "<project><dependencies/></project>");
+        assertFalse(DependencyLock.open(projectDir, null).restore(DependencyLock.CAPPS));
+    }
+
+    @Test
+    public void testRestore_CopiesMissingFilesFromLocalRepository() throws Exception {
+
+        File projectDir = tempFolder.newFolder("project");
+        write(new File(projectDir, Constants.POM_FILE), "<project/>");
+        File remoteRepository = tempFolder.newFolder("remote");
+        write(new File(remoteRepository, "com/example/capp-a/1.0.0/capp-a-1.0.0.car"), "capp-a");
+        File dependenciesDir = new File(projectDir, "target/dependency");
+        MavenArtifactResolver resolver = newResolver(remoteRepository, tempFolder.newFolder("local"));
+        File carFile = resolver.copyArtifact("com.example:capp-a:1.0.0:car", dependenciesDir);
+
+        DependencyLock lock = DependencyLock.open(projectDir, resolver.getLocalRepository());
+        lock.lock(DependencyLock.CAPPS, Collections.singletonList(carFile), resolver);
+        lock.save();
+        assertTrue(carFile.delete());
+
+        assertTrue(DependencyLock.open(projectDir, resolver.getLocalRepository()).restore(DependencyLock.CAPPS));
+        assertArrayEquals("capp-a".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(carFile.toPath()));
+    }
+
+    @Test
+    public void testRestore_ResolvesRepositoryFilesAgainstLocalRepositoryOfTheBuild() throws Exception {
+
+        File projectDir = tempFolder.newFolder("project");
+        write(new File(projectDir, Constants.POM_FILE), "<project/>");
+        File remoteRepository = tempFolder.newFolder("remote");
+        write(new File(remoteRepository, "com/example/capp-a/1.0.0/capp-a-1.0.0.car"), "capp-a");
+        File localRepository = tempFolder.newFolder("local");
+        MavenArtifactResolver resolver = newResolver(remoteRepository, localRepository);
+        File carFile = resolver.copyArtifact("com.example:capp-a:1.0.0:car", new File(projectDir, "target/dependency"));
+
+        DependencyLock lock = DependencyLock.open(projectDir, resolver.getLocalRepository());
+        lock.lock(DependencyLock.CAPPS, Collections.singletonList(carFile), resolver);
+        lock.save();
+        String lockFile = new String(Files.readAllBytes(new File(projectDir, Constants.DEPENDENCY_LOCK_FILE).toPath()),
+                StandardCharsets.UTF_8);
+        assertTrue(lockFile.contains("\"com/example/capp-a/1.0.0/capp-a-1.0.0.car\""));
+        assertFalse(lockFile.contains(localRepository.getAbsolutePath()));
+        assertTrue(carFile.delete());
+
+        // Another machine, or a build with -Dmaven.repo.local, has the same file in a different local repository.
+        File otherRepository = tempFolder.newFolder("other");
+        write(new File(otherRepository, "com/example/capp-a/1.0.0/capp-a-1.0.0.car"), "capp-a");
+        assertTrue(DependencyLock.open(projectDir, otherRepository).restore(DependencyLock.CAPPS));
+        assertArrayEquals("capp-a".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(carFile.toPath()));
+    }
+
+    @Test
+    public void testLock_IgnoresInvalidatedSection() throws Exception {
+
+        File projectDir = tempFolder.newFolder("project");
+        write(new File(projectDir, Constants.POM_FILE), "<project/>");
+        File zipFile = write(new File(projectDir, "target/dependency/connector-1.0.0.zip"), "connector");
+
+        DependencyLock lock = DependencyLock.open(projectDir, null);
+        lock.invalidate(DependencyLock.CONNECTORS);
+        lock.lock(DependencyLock.CONNECTORS, Collections.singletonList(zipFile), null);
+        lock.save();
+
+        assertFalse(DependencyLock.open(projectDir, null).restore(DependencyLock.CONNECTORS));
+    }
+
+    private static MavenArtifactResolver newResolver(File remoteRepository, File localRepository) {
+
+        DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+        locator.addService(TransporterFactory.class, FileTransporterFactory.class);
+        RepositorySystem repositorySystem = locator.getService(RepositorySystem.class);
+        DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+        session.setChecksumPolicy(RepositoryPolicy.CHECKSUM_POLICY_IGNORE);
+        session.setLocalRepositoryManager(repositorySystem.newLocalRepositoryManager(session,
+                new LocalRepository(localRepository)));
+        return new MavenArtifactResolver(repositorySystem, session, Collections.singletonList(
+                new RemoteRepository.Builder("remote", "default", remoteRepository.toURI().toString()).build()));
+    }
+
+    private static File write(File file, String content) throws Exception {
+
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
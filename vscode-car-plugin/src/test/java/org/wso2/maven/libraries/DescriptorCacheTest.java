@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.libraries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.maven.CAppDependency;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DescriptorCacheTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testGetDependencies_ReusesSavedEntriesUntilTheCarFileChanges() throws Exception {
+
+        File cacheFile = new File(tempFolder.getRoot(), "cache/descriptor-cache.json");
+        File carA = tempFolder.newFile("a-1.0.0.car");
+        File carB = tempFolder.newFile("b-1.0.0.car");
+        File carC = tempFolder.newFile("c-1.0.0.car");
+        writeCar(carA, "b", "c");
+        writeCar(carB);
+        writeCar(carC, (String[]) null);
+
+        DescriptorCache cache = DescriptorCache.load(cacheFile);
+        assertEquals(2, cache.getDependencies(carA).size());
+        cache.getDependencies(carB);
+        assertNull(cache.getDependencies(carC));
+        cache.save();
+        assertTrue(cacheFile.isFile());
+
+        // An unchanged .car file is served from the saved cache, even if it can no longer be read.
+        long lastModified = carB.lastModified();
+        Files.write(carB.toPath(), new byte[(int) carB.length()]);
+        assertTrue(carB.setLastModified(lastModified));
+        cache = DescriptorCache.load(cacheFile);
+        List<CAppDependency> dependencies = cache.getDependencies(carA);
+        assertEquals("com.example", dependencies.get(0).getGroupId());
+        assertEquals("b", dependencies.get(0).getArtifactId());
+        assertEquals("1.0.0", dependencies.get(1).getVersion());
+        assertTrue(cache.getDependencies(carB).isEmpty());
+        assertNull(cache.getDependencies(carC));
+        assertEquals(3, cache.getHits());
+        assertEquals(0, cache.getMisses());
+
+        // A changed .car file is read again.
+        writeCar(carA, "b");
+        assertTrue(carA.setLastModified(carA.lastModified() + 2000));
+        assertEquals(1, cache.getDependencies(carA).size());
+        assertEquals(1, cache.getMisses());
+
+        // Entries of deleted .car files are dropped when the cache is saved.
+        assertTrue(carC.delete());
+        cache.save();
+        String content = new String(Files.readAllBytes(cacheFile.toPath()), StandardCharsets.UTF_8);
+        assertFalse(content.contains(carC.getName()));
+    }
+
+    @Test
+    public void testLoad_IgnoresUnreadableCacheFile() throws Exception {
+
+        File cacheFile = tempFolder.newFile("descriptor-cache.json");
+        Files.write(cacheFile.toPath(), "{not json".getBytes(StandardCharsets.UTF_8));
+        File carFile = tempFolder.newFile("a-1.0.0.car");
+        writeCar(carFile, "b");
+
+        DescriptorCache cache = DescriptorCache.load(cacheFile);
+
+        assertEquals(1, cache.getDependencies(carFile).size());
+        assertEquals(1, cache.getMisses());
+    }
+
+    /**
+     * Writes a .car file whose descriptor depends on the given CApps, or without a descriptor if they are null.
+     */
+    private static void writeCar(File carFile, String... dependencies) throws IOException {
+
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(carFile))) {
+            zos.putNextEntry(new ZipEntry(dependencies == null ? "artifacts.xml" : "descriptor.xml"));
+            StringBuilder descriptor = new StringBuilder("<project><dependencies>");
+            if (dependencies != null) {
+                for (String dependency : dependencies) {
+                    descriptor.append("<dependency groupId=\"com.example\" artifactId=\"").append(dependency)
+                            .append("\" version=\"1.0.0\"/>");
+                }
+            }
+            zos.write(descriptor.append("</dependencies></project>").toString().getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC (http://www.wso2.com).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.maven.libraries;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.repository.RepositoryPolicy;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.transport.file.FileTransporterFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Resolves artifacts in-process against a file based remote repository and an empty local repository.
+ */
+public class MavenArtifactResolverTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File remoteRepository;
+    private File localRepository;
+    private RepositorySystem repositorySystem;
+    private DefaultRepositorySystemSession session;
+
+    @Before
+    public void setUp() throws IOException {
+
+        remoteRepository = tempFolder.newFolder("remote");
+        localRepository = tempFolder.newFolder("local");
+        DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+        locator.addService(TransporterFactory.class, FileTransporterFactory.class);
+        repositorySystem = locator.getService(RepositorySystem.class);
+        session = MavenRepositorySystemUtils.newSession();
+        // The test repositories have no checksum files.
+        session.setChecksumPolicy(RepositoryPolicy.CHECKSUM_POLICY_IGNORE);
+        session.setLocalRepositoryManager(repositorySystem.newLocalRepositoryManager(session,
+                new LocalRepository(localRepository)));
+    }
+
+    @Test
+    public void testCopyArtifact_ResolvesCarIntoLocalRepositoryAndCopiesIt() throws Exception {
+
+        byte[] content = deploy("com.example", "capp-a", "1.0.0", "car");
+        File outputDir = new File(tempFolder.getRoot(), "dependency");
+
+        File copied = newResolver().copyArtifact("com.example:capp-a:1.0.0:car", outputDir);
+
+        assertEquals(new File(outputDir, "capp-a-1.0.0.car"), copied);
+        assertArrayEquals(content, Files.readAllBytes(copied.toPath()));
+        assertTrue(new File(localRepository, "com/example/capp-a/1.0.0/capp-a-1.0.0.car").isFile());
+    }
+
+    @Test
+    public void testCopyArtifact_UsesLocalRepositoryWhenOffline() throws Exception {
+
+        deploy("com.example", "capp-a", "1.0.0", "car");
+        newResolver().copyArtifact("com.example:capp-a:1.0.0:car", tempFolder.newFolder("first"));
+        session.setOffline(true);
+
+        File copied = newResolver().copyArtifact("com.example:capp-a:1.0.0:car", tempFolder.newFolder("second"));
+
+        assertTrue(copied.isFile());
+    }
+
+    @Test
+    public void testCopyArtifact_FailsForMissingArtifact() throws Exception {
+
+        try {
+            newResolver().copyArtifact("com.example:missing:1.0.0:car", tempFolder.newFolder("dependency"));
+            fail("Expected a LibraryResolverException");
+        } catch (LibraryResolverException e) {
+            assertTrue(e.getMessage().contains("com.example:missing:1.0.0:car"));
+        }
+    }
+
+    @Test
+    public void testCopyArtifacts_SearchesAdditionalRepositories() throws Exception {
+
+        File connectorRepository = tempFolder.newFolder("connector-repository");
+        deploy(connectorRepository, "org.example", "driver", "2.1", "jar");
+        File outputDir = new File(tempFolder.getRoot(), "libs");
+
+        MavenArtifactResolver resolver = new MavenArtifactResolver(repositorySystem, session,
+                Collections.<RemoteRepository>emptyList());
+        List<File> copied = resolver.copyArtifacts(Collections.singletonList("org.example:driver:2.1"),
+                Collections.singletonList(connectorRepository.toURI().toString()), outputDir);
+
+        assertEquals(Collections.singletonList(new File(outputDir, "driver-2.1.jar")), copied);
+    }
+
+    @Test
+    public void testResolveArtifacts_CopiesSharedArtifactToEveryFolder() throws Exception {
+
+        byte[] content = deploy("org.example", "driver", "2.1", "jar");
+        deploy("org.example", "client", "1.0", "jar");
+        MavenArtifactResolver resolver = newResolver();
+
+        List<Artifact> artifacts = resolver.resolveArtifacts(Arrays.asList("org.example:driver:2.1",
+                "org.example:client:1.0"), Collections.<String>emptyList());
+        File first = resolver.copyArtifact(artifacts.get(0), new File(tempFolder.getRoot(), "libs/first"));
+        File second = resolver.copyArtifact(artifacts.get(0), new File(tempFolder.getRoot(), "libs/second"));
+
+        assertEquals(2, artifacts.size());
+        assertEquals("client", artifacts.get(1).getArtifactId());
+        assertArrayEquals(content, Files.readAllBytes(first.toPath()));
+        assertArrayEquals(content, Files.readAllBytes(second.toPath()));
+        assertEquals(artifacts.get(0).getFile(), resolver.getRepositoryFile(second));
+    }
+
+    @Test
+    public void testCopyProjectDependencies_CopiesOnlyDependenciesOfType() throws Exception {
+
+        deploy("com.example", "capp-a", "1.0.0", "car");
+        deploy("com.example", "capp-b", "2.0.0", "car");
+        MavenProject project = new MavenProject(new Model());
+        project.setGroupId("com.example");
+        project.setArtifactId("project");
+        project.setVersion("1.0.0");
+        project.setPackaging("pom");
+        // The jar is not in any repository, so resolving it would fail the resolution.
+        project.getModel().setDependencies(Arrays.asList(dependency("capp-a", "1.0.0", "car"),
+                dependency("library", "1.0.0", "jar"), dependency("capp-b", "2.0.0", "car")));
+        File outputDir = new File(tempFolder.getRoot(), "dependency");
+
+        List<File> copied = newResolver().copyProjectDependencies(project, "car", outputDir);
+
+        assertEquals(Arrays.asList(new File(outputDir, "capp-a-1.0.0.car"), new File(outputDir, "capp-b-2.0.0.car")),
+                copied);
+        assertFalse(new File(outputDir, "library-1.0.0.jar").exists());
+    }
+
+    private MavenArtifactResolver newResolver() {
+
+        RemoteRepository remote = new RemoteRepository.Builder("remote", "default",
+                remoteRepository.toURI().toString()).build();
+        return new MavenArtifactResolver(repositorySystem, session, Collections.singletonList(remote));
+    }
+
+    private byte[] deploy(String groupId, String artifactId, String version, String extension) throws IOException {
+
+        return deploy(remoteRepository, groupId, artifactId, version, extension);
+    }
+
+    private static byte[] deploy(File repository, String groupId, String artifactId, String version,
+                                 String extension) throws IOException {
+
+        File folder = new File(repository, groupId.replace('.', '/') + "/" + artifactId + "/" + version);
+        assertTrue(folder.mkdirs());
+        byte[] content = (groupId + ":" + artifactId + ":" + version).getBytes(StandardCharsets.UTF_8);
+        Files.write(new File(folder, artifactId + "-" + version + "." + extension).toPath(), content);
+        return content;
+    }
+
+    private static Dependency dependency(String artifactId, String version, String type) {
+
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("com.example");
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion(version);
+        dependency.setType(type);
+        return dependency;
+    }
+}